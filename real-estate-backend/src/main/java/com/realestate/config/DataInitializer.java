@@ -97,6 +97,8 @@ public class DataInitializer {
             property1.setBathrooms(3);
             property1.setSquareFeet(new BigDecimal("2500"));
             property1.setYearBuilt(2015);
+            property1.setLatitude(39.7817);
+            property1.setLongitude(-89.6501);
             property1.setAvailable(true);
             property1.setOwner(agent1);
             property1 = propertyRepository.save(property1);
@@ -132,6 +134,8 @@ public class DataInitializer {
             property2.setBathrooms(2);
             property2.setSquareFeet(new BigDecimal("1200"));
             property2.setYearBuilt(2020);
+            property2.setLatitude(41.8781);
+            property2.setLongitude(-87.6298);
             property2.setAvailable(true);
             property2.setOwner(agent2);
             property2 = propertyRepository.save(property2);
@@ -158,6 +162,8 @@ public class DataInitializer {
             property3.setBathrooms(2);
             property3.setSquareFeet(new BigDecimal("1800"));
             property3.setYearBuilt(2010);
+            property3.setLatitude(41.7508);
+            property3.setLongitude(-88.1535);
             property3.setAvailable(true);
             property3.setOwner(owner1);
             property3 = propertyRepository.save(property3);
@@ -184,6 +190,8 @@ public class DataInitializer {
             property4.setBathrooms(2);
             property4.setSquareFeet(new BigDecimal("1400"));
             property4.setYearBuilt(2018);
+            property4.setLatitude(42.0451);
+            property4.setLongitude(-87.6877);
             property4.setAvailable(true);
             property4.setOwner(agent1);
             property4 = propertyRepository.save(property4);
@@ -210,6 +218,8 @@ public class DataInitializer {
             property5.setBathrooms(2);
             property5.setSquareFeet(new BigDecimal("3500"));
             property5.setYearBuilt(2012);
+            property5.setLatitude(42.0334);
+            property5.setLongitude(-88.0834);
             property5.setAvailable(true);
             property5.setOwner(agent2);
             property5 = propertyRepository.save(property5);
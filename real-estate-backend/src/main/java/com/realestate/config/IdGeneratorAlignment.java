@@ -0,0 +1,47 @@
+package com.realestate.config;
+
+import com.realestate.model.Property;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the pooled property id generator ahead of the ids already in the table. Rows created
+ * while properties.id was an auto-increment column would otherwise collide with the first
+ * pooled ids. Runs once the schema is in place and before the application takes traffic.
+ */
+@Component
+public class IdGeneratorAlignment {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdGeneratorAlignment.class);
+    private static final String SEGMENT = "properties";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Only to order this after schema creation or update
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void align() {
+        long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM properties", Long.class);
+        // The pooled optimizer hands out the block ending at the stored value, so leave a whole block of headroom
+        long floor = maxId + Property.ID_ALLOCATION_SIZE + 1;
+        Long current = jdbcTemplate.query("SELECT next_val FROM id_generators WHERE name = ?",
+                rs -> rs.next() ? rs.getLong(1) : null, SEGMENT);
+        if (current == null) {
+            jdbcTemplate.update("INSERT INTO id_generators (name, next_val) VALUES (?, ?)", SEGMENT, floor);
+        } else if (current < floor) {
+            jdbcTemplate.update("UPDATE id_generators SET next_val = ? WHERE name = ? AND next_val < ?",
+                    floor, SEGMENT, floor);
+        } else {
+            return;
+        }
+        logger.info("Moved property id generator to {} past existing id {}", floor, maxId);
+    }
+}
@@ -24,6 +24,8 @@ public class WebConfig implements WebMvcConfigurer {
                 )
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "PATCH", "OPTIONS")
                 .allowedHeaders("*")
+                // Lets browser clients read the tag to send back in If-None-Match
+                .exposedHeaders("ETag")
                 .allowCredentials(true)
                 .maxAge(3600);
     }
@@ -0,0 +1,53 @@
+package com.realestate.controller;
+
+import com.realestate.dto.ApiResponse;
+import com.realestate.model.Notification;
+import com.realestate.service.NotificationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/notifications")
+public class NotificationController {
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @GetMapping("/user/{userId}")
+    public ResponseEntity<ApiResponse<List<Notification>>> getUserNotifications(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "false") boolean unreadOnly,
+            @RequestParam(defaultValue = "20") int limit) {
+        List<Notification> notifications = notificationService.getUserNotifications(
+                userId, unreadOnly, Math.min(Math.max(limit, 1), 100));
+        return ResponseEntity.ok(ApiResponse.success(notifications));
+    }
+
+    @GetMapping("/user/{userId}/unread-count")
+    public ResponseEntity<ApiResponse<Map<String, Long>>> getUnreadCount(@PathVariable Long userId) {
+        Long count = notificationService.getUnreadCount(userId);
+        return ResponseEntity.ok(ApiResponse.success(Map.of("unreadCount", count)));
+    }
+
+    @PutMapping("/{id}/read")
+    public ResponseEntity<ApiResponse<Notification>> markAsRead(@PathVariable Long id) {
+        Notification notification = notificationService.markAsRead(id);
+        return ResponseEntity.ok(ApiResponse.success("Notification marked as read", notification));
+    }
+
+    @PutMapping("/user/{userId}/read-all")
+    public ResponseEntity<ApiResponse<Map<String, Integer>>> markAllAsRead(@PathVariable Long userId) {
+        int updated = notificationService.markAllAsRead(userId);
+        return ResponseEntity.ok(ApiResponse.success(Map.of("updated", updated)));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<ApiResponse<Void>> deleteNotification(@PathVariable Long id) {
+        notificationService.deleteNotification(id);
+        return ResponseEntity.ok(ApiResponse.success("Notification deleted", null));
+    }
+}
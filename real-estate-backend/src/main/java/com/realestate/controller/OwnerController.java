@@ -0,0 +1,30 @@
+package com.realestate.controller;
+
+import com.realestate.dto.ApiResponse;
+import com.realestate.dto.OwnerDashboardResponse;
+import com.realestate.service.OwnerDashboardService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/owners")
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:3001",
+                        "http://ec2-3-91-60-245.compute-1.amazonaws.com"})
+public class OwnerController {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    @Autowired
+    private OwnerDashboardService ownerDashboardService;
+
+    @GetMapping("/{ownerId}/dashboard")
+    public ResponseEntity<ApiResponse<OwnerDashboardResponse>> getDashboard(
+            @PathVariable Long ownerId,
+            @RequestParam(defaultValue = "10") int pageSize,
+            @RequestParam(defaultValue = "10") int limit) {
+        OwnerDashboardResponse dashboard = ownerDashboardService.getDashboard(ownerId,
+                Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE)), Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+        return ResponseEntity.ok(ApiResponse.success(dashboard));
+    }
+}
@@ -1,26 +1,51 @@
 package com.realestate.controller;
 
 import com.realestate.dto.ApiResponse;
+import com.realestate.dto.BulkImportResult;
+import com.realestate.dto.MarketStats;
 import com.realestate.dto.PageResponse;
+import com.realestate.dto.PropertyChangeBatch;
 import com.realestate.dto.PropertyResponse;
+import com.realestate.dto.PropertyViewStatsResponse;
 import com.realestate.dto.PropertySearchRequest;
+import com.realestate.dto.Suggestion;
+import com.realestate.exception.ResourceNotFoundException;
 import com.realestate.model.ListingType;
 import com.realestate.model.Property;
 import com.realestate.model.PropertyType;
+import com.realestate.service.FavoriteService;
+import com.realestate.service.PropertyChangeFeed;
+import com.realestate.service.PropertyDetailsCache;
+import com.realestate.service.PropertyETags;
+import com.realestate.service.PropertyExportService;
+import com.realestate.service.PropertyImportService;
 import com.realestate.service.PropertyService;
+import com.realestate.service.PropertyTrending;
+import com.realestate.service.PropertyViewCounter;
+import com.realestate.service.RecommendationService;
 import com.realestate.service.SearchHistoryService;
-import com.realestate.service.DotNetRecommendationClient;
 import com.realestate.repository.PropertyRepository;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/properties")
@@ -38,7 +63,31 @@ public class PropertyController {
     private PropertyRepository propertyRepository;
 
     @Autowired
-    private DotNetRecommendationClient dotNetRecommendationClient;
+    private RecommendationService recommendationService;
+
+    @Autowired
+    private PropertyExportService propertyExportService;
+
+    @Autowired
+    private PropertyImportService propertyImportService;
+
+    @Autowired
+    private PropertyChangeFeed propertyChangeFeed;
+
+    @Autowired
+    private PropertyETags propertyETags;
+
+    @Autowired
+    private PropertyDetailsCache propertyDetailsCache;
+
+    @Autowired
+    private FavoriteService favoriteService;
+
+    @Autowired
+    private PropertyTrending propertyTrending;
+
+    @Autowired
+    private PropertyViewCounter propertyViewCounter;
 
     @GetMapping
     public ResponseEntity<ApiResponse<List<Property>>> getAllProperties() {
@@ -50,20 +99,76 @@ public class PropertyController {
         return ResponseEntity.ok(ApiResponse.success(propertyService.getAvailableProperties()));
     }
 
+    /**
+     * Stream the catalog as NDJSON or CSV without materializing it; prefer this over the
+     * unpaged list endpoints for bulk consumers.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProperties(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "false") boolean availableOnly) {
+        PropertyExportService.Format exportFormat = PropertyExportService.Format.parse(format);
+        StreamingResponseBody body = out -> propertyExportService.export(exportFormat, availableOnly, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"properties." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
+    /**
+     * Changes after the given event id as JSON, for clients that poll instead of streaming.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<ApiResponse<PropertyChangeBatch>> getChanges(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "100") int limit) {
+        int cappedLimit = Math.max(1, Math.min(limit, 500));
+        return ResponseEntity.ok(ApiResponse.success(propertyChangeFeed.changesAfter(after, cappedLimit)));
+    }
+
+    /**
+     * Server-Sent Events stream of property changes. EventSource resends the last id in the
+     * Last-Event-ID header on reconnect; lastEventId serves the first connection of a client
+     * that already holds a position.
+     */
+    @GetMapping(value = "/changes/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+            @RequestParam(required = false) String lastEventId) {
+        return propertyChangeFeed.subscribe(lastEventIdHeader != null ? lastEventIdHeader : lastEventId);
+    }
+
     @GetMapping("/available/paged")
     public ResponseEntity<ApiResponse<PageResponse<PropertyResponse>>> getAvailablePropertiesPaged(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
-            @RequestParam(defaultValue = "DESC") String direction) {
-        PageResponse<PropertyResponse> properties = propertyService.getAvailablePropertiesPaged(page, size, sortBy, direction);
-        return ResponseEntity.ok(ApiResponse.success(properties));
+            @RequestParam(defaultValue = "DESC") String direction,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            ServletWebRequest webRequest) {
+        if (webRequest.checkNotModified(propertyETags.pageTag(webRequest.getRequest()))) {
+            return null;
+        }
+        // Passing cursor (empty for the first page) switches to keyset pagination
+        PageResponse<PropertyResponse> properties = cursor != null
+                ? propertyService.getAvailablePropertiesByCursor(cursor, size, sortBy, direction, includeTotal)
+                : propertyService.getAvailablePropertiesPaged(page, size, sortBy, direction);
+        return ResponseEntity.ok().cacheControl(revalidate(null)).body(ApiResponse.success(properties));
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<Property>> getPropertyById(@PathVariable Long id) {
+    public ResponseEntity<ApiResponse<Property>> getPropertyById(
+            @PathVariable Long id,
+            @RequestParam(required = false) Long userId,
+            HttpServletRequest request) {
         return propertyService.getPropertyById(id)
-                .map(property -> ResponseEntity.ok(ApiResponse.success(property)))
+                .map(property -> {
+                    propertyTrending.recordView(id);
+                    propertyViewCounter.record(id, userId, request.getRemoteAddr());
+                    return ResponseEntity.ok(ApiResponse.success(property));
+                })
                 .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body(ApiResponse.error("Property not found with id: " + id)));
     }
@@ -71,14 +176,46 @@ public class PropertyController {
     @GetMapping("/{id}/details")
     public ResponseEntity<ApiResponse<PropertyResponse>> getPropertyDetails(
             @PathVariable Long id,
-            @RequestParam(required = false) Long userId) {
-        try {
-            PropertyResponse response = propertyService.getPropertyResponseById(id, userId);
-            return ResponseEntity.ok(ApiResponse.success(response));
-        } catch (RuntimeException e) {
+            @RequestParam(required = false) Long userId,
+            ServletWebRequest webRequest) throws IOException {
+        Optional<String> version = propertyETags.detailsVersion(id);
+        if (version.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(ApiResponse.error(e.getMessage()));
+                    .body(ApiResponse.error("Property not found with id: " + id));
+        }
+        propertyTrending.recordView(id);
+        propertyViewCounter.record(id, userId, webRequest.getRequest().getRemoteAddr());
+        boolean favorited = userId != null && favoriteService.isFavorited(userId, id);
+        if (webRequest.checkNotModified(propertyETags.detailsTag(version.get(), favorited))) {
+            return null;
+        }
+        // The cached body is shared by all users; their favorite flag is spliced in when writing
+        PropertyDetailsCache.Entry entry = propertyDetailsCache.get(id, version.get());
+        if (entry == null) {
+            try {
+                PropertyResponse response = propertyService.getPropertyResponseById(id, null);
+                entry = propertyDetailsCache.put(id, version.get(), response);
+            } catch (ResourceNotFoundException e) {
+                // Deleted since its version was read
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(ApiResponse.error(e.getMessage()));
+            }
+        }
+        webRequest.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, revalidate(userId).getHeaderValue());
+        propertyDetailsCache.write(entry, favorited, webRequest.getResponse());
+        return null;
+    }
+    
+    @GetMapping("/{id}/views")
+    public ResponseEntity<ApiResponse<PropertyViewStatsResponse>> getPropertyViews(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "30") int days) {
+        if (!propertyRepository.existsById(id)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error("Property not found with id: " + id));
         }
+        int dayCount = Math.max(1, Math.min(days, 366));
+        return ResponseEntity.ok(ApiResponse.success(propertyViewCounter.stats(id, dayCount)));
     }
     
     @PostMapping
@@ -88,6 +225,27 @@ public class PropertyController {
                 .body(ApiResponse.success("Property created successfully", createdProperty));
     }
     
+    /**
+     * Bulk import from a streamed CSV (with a header row) or NDJSON body; the format comes from
+     * the format parameter or else the Content-Type. Valid rows are imported even when others fail.
+     * Form-encoded bodies are refused: the container would consume them as request parameters.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson", MediaType.APPLICATION_JSON_VALUE,
+            MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<ApiResponse<BulkImportResult>> importProperties(
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) Long ownerId,
+            @RequestParam(required = false) Long builderGroupId,
+            @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+            InputStream body) throws IOException {
+        PropertyExportService.Format importFormat = format != null ? PropertyExportService.Format.parse(format)
+                : contentType != null && contentType.toLowerCase().contains("csv") ? PropertyExportService.Format.CSV
+                : PropertyExportService.Format.NDJSON;
+        BulkImportResult result = propertyImportService.importProperties(importFormat, body, ownerId, builderGroupId);
+        String message = String.format("Imported %d of %d properties", result.getImported(), result.getReceived());
+        return ResponseEntity.ok(ApiResponse.success(message, result));
+    }
+    
     @PutMapping("/{id}")
     public ResponseEntity<ApiResponse<Property>> updateProperty(
             @PathVariable Long id,
@@ -134,7 +292,7 @@ public class PropertyController {
         
         // Save search history if user is logged in
         if (userId != null) {
-            searchHistoryService.saveSearchHistory(userId, searchRequest, (int) results.getTotalElements());
+            searchHistoryService.saveSearchHistory(userId, searchRequest, resultsCount(results));
         }
         
         return ResponseEntity.ok(ApiResponse.success(results));
@@ -153,11 +311,26 @@ public class PropertyController {
             @RequestParam(required = false) Integer maxBedrooms,
             @RequestParam(required = false) Integer minBathrooms,
             @RequestParam(required = false) Integer maxBathrooms,
+            @RequestParam(required = false) Double latitude,
+            @RequestParam(required = false) Double longitude,
+            @RequestParam(required = false) Double radiusKm,
+            @RequestParam(required = false) Double minLatitude,
+            @RequestParam(required = false) Double maxLatitude,
+            @RequestParam(required = false) Double minLongitude,
+            @RequestParam(required = false) Double maxLongitude,
             @RequestParam(defaultValue = "createdAt") String sortBy,
             @RequestParam(defaultValue = "DESC") String sortDirection,
             @RequestParam(defaultValue = "0") Integer page,
             @RequestParam(defaultValue = "10") Integer size,
-            @RequestParam(required = false) Long userId) {
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            @RequestParam(defaultValue = "false") boolean includeFacets,
+            @RequestParam(required = false) Long userId,
+            ServletWebRequest webRequest) {
+        // A revalidated page was recorded in the search history when it was first served
+        if (webRequest.checkNotModified(propertyETags.pageTag(webRequest.getRequest()))) {
+            return null;
+        }
         
         PropertySearchRequest searchRequest = PropertySearchRequest.builder()
                 .keyword(keyword)
@@ -171,20 +344,30 @@ public class PropertyController {
                 .maxBedrooms(maxBedrooms)
                 .minBathrooms(minBathrooms)
                 .maxBathrooms(maxBathrooms)
+                .latitude(latitude)
+                .longitude(longitude)
+                .radiusKm(radiusKm)
+                .minLatitude(minLatitude)
+                .maxLatitude(maxLatitude)
+                .minLongitude(minLongitude)
+                .maxLongitude(maxLongitude)
                 .sortBy(sortBy)
                 .sortDirection(sortDirection)
                 .page(page)
                 .size(size)
+                .cursor(cursor)
+                .includeTotal(includeTotal)
+                .includeFacets(includeFacets)
                 .build();
         
         PageResponse<PropertyResponse> results = propertyService.searchProperties(searchRequest, userId);
         
         // Save search history if user is logged in
         if (userId != null) {
-            searchHistoryService.saveSearchHistory(userId, searchRequest, (int) results.getTotalElements());
+            searchHistoryService.saveSearchHistory(userId, searchRequest, resultsCount(results));
         }
         
-        return ResponseEntity.ok(ApiResponse.success(results));
+        return ResponseEntity.ok().cacheControl(revalidate(userId)).body(ApiResponse.success(results));
     }
     
     @GetMapping("/city/{city}")
@@ -218,14 +401,37 @@ public class PropertyController {
     public ResponseEntity<ApiResponse<PageResponse<PropertyResponse>>> getPropertiesByOwnerPaged(
             @PathVariable Long ownerId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
-        return ResponseEntity.ok(ApiResponse.success(propertyService.getPropertiesByOwnerPaged(ownerId, page, size)));
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            ServletWebRequest webRequest) {
+        if (webRequest.checkNotModified(propertyETags.pageTag(webRequest.getRequest()))) {
+            return null;
+        }
+        PageResponse<PropertyResponse> properties = cursor != null
+                ? propertyService.getPropertiesByOwnerByCursor(ownerId, cursor, size, includeTotal)
+                : propertyService.getPropertiesByOwnerPaged(ownerId, page, size);
+        return ResponseEntity.ok().cacheControl(revalidate(null)).body(ApiResponse.success(properties));
     }
     
     @GetMapping("/recent")
-    public ResponseEntity<ApiResponse<List<Property>>> getRecentProperties(
+    public ResponseEntity<ApiResponse<List<PropertyResponse>>> getRecentProperties(
+            @RequestParam(required = false) String city,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(ApiResponse.success(propertyService.getRecentProperties(city, Math.max(limit, 1))));
+    }
+    
+    @GetMapping("/cheapest")
+    public ResponseEntity<ApiResponse<List<PropertyResponse>>> getCheapestForSale(
             @RequestParam(defaultValue = "10") int limit) {
-        return ResponseEntity.ok(ApiResponse.success(propertyService.getRecentProperties(limit)));
+        return ResponseEntity.ok(ApiResponse.success(propertyService.getCheapestForSale(Math.max(limit, 1))));
+    }
+    
+    @GetMapping("/trending")
+    public ResponseEntity<ApiResponse<List<PropertyResponse>>> getTrendingProperties(
+            @RequestParam(required = false) String city,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(ApiResponse.success(propertyService.getTrendingProperties(city, limit)));
     }
     
     @GetMapping("/cities")
@@ -238,6 +444,14 @@ public class PropertyController {
         return ResponseEntity.ok(ApiResponse.success(propertyService.getAllStates()));
     }
     
+    @GetMapping("/suggest")
+    public ResponseEntity<ApiResponse<List<Suggestion>>> suggest(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        int cappedLimit = Math.max(1, Math.min(limit, 25));
+        return ResponseEntity.ok(ApiResponse.success(propertyService.getSuggestions(q, cappedLimit)));
+    }
+    
     @GetMapping("/stats/count")
     public ResponseEntity<ApiResponse<Map<String, Long>>> getAvailableCount() {
         Long count = propertyService.getAvailableCount();
@@ -249,13 +463,30 @@ public class PropertyController {
         BigDecimal avgPrice = propertyService.getAveragePriceByCity(city);
         return ResponseEntity.ok(ApiResponse.success(Map.of("averagePrice", avgPrice != null ? avgPrice : BigDecimal.ZERO)));
     }
+    
+    @GetMapping("/stats/market")
+    public ResponseEntity<ApiResponse<MarketStats>> getMarketStats(
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) String state,
+            @RequestParam(required = false) PropertyType propertyType) {
+        return ResponseEntity.ok(ApiResponse.success(propertyService.getMarketStats(city, state, propertyType)));
+    }
 
+    /**
+     * Listings in a city or state that best match the budget and, optionally, a type, listing
+     * type and bedroom count, ranked in process.
+     */
     @GetMapping("/recommendations")
-    public ResponseEntity<ApiResponse<List<Property>>> recommend(@RequestParam String location,
-                                                                  @RequestParam double budget) {
-        List<Property> allProperties = propertyRepository.findAll();
-        List<Property> recommendations = dotNetRecommendationClient.getRecommendations(allProperties, location, budget);
-        return ResponseEntity.ok(ApiResponse.success(recommendations));
+    public CompletableFuture<ResponseEntity<ApiResponse<List<PropertyResponse>>>> recommend(
+            @RequestParam String location,
+            @RequestParam double budget,
+            @RequestParam(required = false) PropertyType propertyType,
+            @RequestParam(required = false) ListingType listingType,
+            @RequestParam(required = false) Integer bedrooms,
+            @RequestParam(defaultValue = "10") int limit) {
+        int cappedLimit = Math.max(1, Math.min(limit, 50));
+        return recommendationService.recommend(location, budget, propertyType, listingType, bedrooms, cappedLimit)
+                .thenApply(recommendations -> ResponseEntity.ok(ApiResponse.success(recommendations)));
     }
 
     @GetMapping("/convert-price")
@@ -264,4 +495,14 @@ public class PropertyController {
         BigDecimal priceInINR = priceInUSD.multiply(conversionRate);
         return ResponseEntity.ok(ApiResponse.success(priceInINR));
     }
+
+    // Per-user responses must not be stored by shared caches; all are revalidated on every use
+    private static CacheControl revalidate(Long userId) {
+        return userId != null ? CacheControl.noCache().cachePrivate() : CacheControl.noCache();
+    }
+
+    // Cursor-mode pages skip the count unless asked, so fall back to what was returned
+    private int resultsCount(PageResponse<PropertyResponse> results) {
+        return results.getTotalElements() >= 0 ? (int) results.getTotalElements() : results.getContent().size();
+    }
 }
@@ -0,0 +1,48 @@
+package com.realestate.controller;
+
+import com.realestate.dto.RecommendationRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Stand-in for the .NET recommendation service, for local runs and tests of the remote mode.
+ * Enabled with the recommendation-stub profile; point recommendations.remote.url at this app's
+ * /stub/recommend. It ranks candidates by how close their price is to the budget, and can be
+ * made slow or flaky to exercise the client's deadline and circuit breaker.
+ */
+@RestController
+@Profile("recommendation-stub")
+public class RecommendationStubController {
+
+    @Value("${recommendations.stub.delay-ms:0}")
+    private long delayMs;
+
+    @Value("${recommendations.stub.failure-rate:0.0}")
+    private double failureRate;
+
+    @PostMapping("/stub/recommend")
+    public ResponseEntity<List<RecommendationRequest.Candidate>> recommend(@RequestBody RecommendationRequest request)
+            throws InterruptedException {
+        if (delayMs > 0) {
+            Thread.sleep(delayMs);
+        }
+        if (ThreadLocalRandom.current().nextDouble() < failureRate) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        double budget = request.getBudget();
+        List<RecommendationRequest.Candidate> ranked = request.getProperties().stream()
+                .filter(candidate -> candidate.getPrice() != null)
+                .sorted(Comparator.comparingDouble(candidate -> Math.abs(candidate.getPrice().doubleValue() - budget)))
+                .toList();
+        return ResponseEntity.ok(ranked);
+    }
+}
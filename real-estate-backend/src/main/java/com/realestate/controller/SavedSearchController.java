@@ -0,0 +1,51 @@
+package com.realestate.controller;
+
+import com.realestate.dto.ApiResponse;
+import com.realestate.dto.PropertySearchRequest;
+import com.realestate.model.SavedSearch;
+import com.realestate.service.SavedSearchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/saved-searches")
+public class SavedSearchController {
+
+    @Autowired
+    private SavedSearchService savedSearchService;
+
+    @PostMapping
+    public ResponseEntity<ApiResponse<SavedSearch>> createSavedSearch(
+            @RequestParam Long userId,
+            @RequestParam(required = false) String name,
+            @RequestBody PropertySearchRequest request) {
+        SavedSearch search = savedSearchService.createSavedSearch(userId, name, request);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponse.success("Search saved", search));
+    }
+
+    @PostMapping("/from-history/{historyId}")
+    public ResponseEntity<ApiResponse<SavedSearch>> createFromHistory(
+            @PathVariable Long historyId,
+            @RequestParam(required = false) String name) {
+        SavedSearch search = savedSearchService.createFromHistory(historyId, name);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponse.success("Search saved", search));
+    }
+
+    @GetMapping("/user/{userId}")
+    public ResponseEntity<ApiResponse<List<SavedSearch>>> getUserSavedSearches(@PathVariable Long userId) {
+        List<SavedSearch> searches = savedSearchService.getUserSavedSearches(userId);
+        return ResponseEntity.ok(ApiResponse.success(searches));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<ApiResponse<Void>> deleteSavedSearch(@PathVariable Long id) {
+        savedSearchService.deleteSavedSearch(id);
+        return ResponseEntity.ok(ApiResponse.success("Saved search deleted", null));
+    }
+}
@@ -0,0 +1,36 @@
+package com.realestate.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk property import: counts plus one entry per rejected row or field.
+ * Only the first errors are listed; {@code failed} always counts every rejected row.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkImportResult {
+
+    private long received;
+    private long imported;
+    private long failed;
+    private long elapsedMs;
+    private List<RowError> errors;
+    private boolean errorsTruncated;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private long line;      // 1-based line in the upload where the row starts
+        private String field;   // null when the error concerns the whole row
+        private String message;
+    }
+}
@@ -0,0 +1,42 @@
+package com.realestate.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Price statistics for the available listings of one market segment.
+ * Median and p90 figures are sketch estimates within 1% of a real listing's value;
+ * price fields are null when the segment has no listings, per-square-foot fields
+ * when none of its listings has a square footage.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MarketStats {
+
+    public enum Scope {
+        ALL,
+        CITY,
+        STATE,
+        PROPERTY_TYPE
+    }
+
+    private Scope scope;
+    private String value;
+
+    private Long count;
+    private BigDecimal averagePrice;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private BigDecimal medianPrice;
+    private BigDecimal p90Price;
+
+    private Long countWithSquareFeet;
+    private BigDecimal averagePricePerSquareFoot;
+    private BigDecimal medianPricePerSquareFoot;
+}
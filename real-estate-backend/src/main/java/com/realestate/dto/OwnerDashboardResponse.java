@@ -0,0 +1,65 @@
+package com.realestate.dto;
+
+import com.realestate.model.ViewingStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Everything an owner's dashboard shows, read in one request. Sections that failed or missed
+ * the request deadline are null and named in {@code incomplete}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OwnerDashboardResponse {
+
+    private PropertyResponse.OwnerSummary owner;
+    private PageResponse<PropertyResponse> properties;
+    private List<ViewingSummary> upcomingViewings;
+    private Map<ViewingStatus, Long> viewingCounts;
+    private List<InquirySummary> recentInquiries;
+    private Long unreadInquiries;
+    private List<String> incomplete;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ViewingSummary {
+        private Long id;
+        private Long propertyId;
+        private String propertyTitle;
+        private Long userId;
+        private String userName;
+        private LocalDate viewingDate;
+        private LocalTime viewingTime;
+        private ViewingStatus status;
+        private String notes;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class InquirySummary {
+        private Long id;
+        private Long propertyId;
+        private String propertyTitle;
+        private String senderName;
+        private String senderEmail;
+        private String senderPhone;
+        private String subject;
+        private String message;
+        private Boolean isRead;
+        private LocalDateTime createdAt;
+    }
+}
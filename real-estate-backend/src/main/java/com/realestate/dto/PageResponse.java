@@ -22,4 +22,15 @@ public class PageResponse<T> {
     private boolean last;
     private boolean hasNext;
     private boolean hasPrevious;
+    
+    // Cursor mode only: opaque token for the next page, null on the last page.
+    // totalElements and totalPages are -1 there unless includeTotal was requested.
+    private String nextCursor;
+    
+    // Property search only, when includeFacets was requested
+    private SearchFacets facets;
+    
+    // Keyword search only: the spelling-corrected keyword the content was found for,
+    // set when the keyword as typed matched nothing
+    private String didYouMean;
 }
@@ -0,0 +1,35 @@
+package com.realestate.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry of the property change feed. {@code eventId} orders entries and is what clients
+ * send back as Last-Event-ID (or {@code after}) to receive only later changes.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PropertyChange {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        AVAILABILITY_CHANGED,
+        DELETED
+    }
+
+    private String eventId;
+    private long sequence;
+    private Type type;
+    private Long propertyId;
+    private LocalDateTime occurredAt;
+
+    // State after the change without owner and images; null for DELETED
+    private PropertyResponse property;
+}
@@ -0,0 +1,24 @@
+package com.realestate.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Changes after a client's last seen event. When {@code reset} is true the feed no longer
+ * holds that position; the client must reload its data and continue from {@code lastEventId}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PropertyChangeBatch {
+
+    private List<PropertyChange> changes;
+    private String lastEventId;
+    private boolean reset;
+    private boolean hasMore;
+}
@@ -31,6 +31,9 @@ public class PropertyResponse {
     private Integer bathrooms;
     private BigDecimal squareFeet;
     private Integer yearBuilt;
+    private Double latitude;
+    private Double longitude;
+    private Double distanceKm;  // only set for searches with a latitude/longitude
     private Boolean available;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
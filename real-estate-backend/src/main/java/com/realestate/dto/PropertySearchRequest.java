@@ -40,11 +40,28 @@ public class PropertySearchRequest {
     
     private Boolean available;
     
+    // Geo: latitude/longitude with radiusKm for a radius search, and/or a bounding box.
+    // A latitude/longitude alone is enough for sortBy=distance.
+    private Double latitude;
+    private Double longitude;
+    private Double radiusKm;
+    private Double minLatitude;
+    private Double maxLatitude;
+    private Double minLongitude;
+    private Double maxLongitude;
+    
     // Sorting
-    private String sortBy = "createdAt";  // price, createdAt, squareFeet, bedrooms
+    private String sortBy = "createdAt";  // price, createdAt, squareFeet, bedrooms, distance
     private String sortDirection = "DESC"; // ASC or DESC
     
     // Pagination
     private Integer page = 0;
     private Integer size = 10;
+    
+    // Cursor pagination: "" for the first page, then the previous page's nextCursor
+    private String cursor;
+    private Boolean includeTotal;
+    
+    // Attach facet counts (city, type, listing type, bedrooms, price) to the results
+    private Boolean includeFacets;
 }
@@ -0,0 +1,38 @@
+package com.realestate.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Detail views of a property per UTC day, including views not yet written to the database.
+ * Unique viewer figures are HyperLogLog estimates, about 6.5% off either way; the total is
+ * the number of distinct viewers over the whole range, not the sum of the daily figures.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PropertyViewStatsResponse {
+
+    private Long propertyId;
+    private LocalDate from;
+    private LocalDate to;
+    private Long totalViews;
+    private Long uniqueViewers;
+    private List<Day> days;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Day {
+        private LocalDate date;
+        private Long views;
+        private Long uniqueViewers;
+    }
+}
@@ -0,0 +1,44 @@
+package com.realestate.dto;
+
+import com.realestate.model.ListingType;
+import com.realestate.model.PropertyType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Body sent to the .NET recommendation service: the query and the pre-filtered candidates it
+ * may re-rank, reduced to the fields ranking uses.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecommendationRequest {
+
+    private String location;
+    private double budget;
+    private List<Candidate> properties;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Candidate {
+        private Long id;
+        private BigDecimal price;
+        private String city;
+        private String state;
+        private PropertyType propertyType;
+        private ListingType listingType;
+        private Integer bedrooms;
+        private Integer bathrooms;
+        private BigDecimal squareFeet;
+        private Double latitude;
+        private Double longitude;
+    }
+}
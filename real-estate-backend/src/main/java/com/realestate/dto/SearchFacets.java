@@ -0,0 +1,39 @@
+package com.realestate.dto;
+
+import com.realestate.model.ListingType;
+import com.realestate.model.PropertyType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Facet counts for a property search. Each dimension is counted against all
+ * other filters of the request but not its own, so the UI can offer alternatives.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchFacets {
+
+    private Map<String, Long> cities;
+    private Map<PropertyType, Long> propertyTypes;
+    private Map<ListingType, Long> listingTypes;
+    private Map<String, Long> bedrooms;
+    private List<PriceBucket> priceBuckets;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PriceBucket {
+        private BigDecimal minPrice;
+        private BigDecimal maxPrice;  // exclusive; null for the open-ended top bucket
+        private long count;
+    }
+}
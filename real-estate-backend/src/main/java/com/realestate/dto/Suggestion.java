@@ -0,0 +1,29 @@
+package com.realestate.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One typeahead completion for the search box.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Suggestion {
+
+    public enum Type {
+        CITY,
+        STATE,
+        ZIP_CODE,
+        BUILDER_GROUP,
+        TERM
+    }
+
+    private String text;
+    private Type type;
+    private Long listingCount;
+    private Long searchCount;
+}
@@ -0,0 +1,34 @@
+package com.realestate.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Published by FavoriteService whenever a user favorites or unfavorites a property.
+ * Listeners receive it after the surrounding transaction commits.
+ */
+@Data
+@AllArgsConstructor
+public class FavoriteChangeEvent {
+
+    public enum Type {
+        ADDED,
+        REMOVED
+    }
+
+    private Type type;
+    private Long userId;
+    private Long propertyId;
+
+    public static FavoriteChangeEvent added(Long userId, Long propertyId) {
+        return new FavoriteChangeEvent(Type.ADDED, userId, propertyId);
+    }
+
+    public static FavoriteChangeEvent removed(Long userId, Long propertyId) {
+        return new FavoriteChangeEvent(Type.REMOVED, userId, propertyId);
+    }
+
+    public long delta() {
+        return type == Type.ADDED ? 1L : -1L;
+    }
+}
@@ -0,0 +1,45 @@
+package com.realestate.event;
+
+import com.realestate.model.Property;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Published by PropertyService whenever a property is created, updated or deleted.
+ * Listeners receive it after the surrounding transaction commits.
+ */
+@Data
+@AllArgsConstructor
+public class PropertyChangeEvent {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private Type type;
+    private Long propertyId;
+
+    // Saved state of the property; null for DELETED
+    private Property property;
+
+    // True when an update listed or unlisted the property
+    private boolean availabilityChanged;
+
+    public static PropertyChangeEvent created(Property property) {
+        return new PropertyChangeEvent(Type.CREATED, property.getId(), property, false);
+    }
+
+    public static PropertyChangeEvent updated(Property property) {
+        return updated(property, false);
+    }
+
+    public static PropertyChangeEvent updated(Property property, boolean availabilityChanged) {
+        return new PropertyChangeEvent(Type.UPDATED, property.getId(), property, availabilityChanged);
+    }
+
+    public static PropertyChangeEvent deleted(Long propertyId) {
+        return new PropertyChangeEvent(Type.DELETED, propertyId, null, false);
+    }
+}
@@ -0,0 +1,31 @@
+package com.realestate.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Published when a user asks about a property: by ContactAgentService for inquiries and by
+ * ScheduleViewingService for viewing requests. Listeners receive it after the surrounding
+ * transaction commits.
+ */
+@Data
+@AllArgsConstructor
+public class PropertyEngagementEvent {
+
+    public enum Type {
+        INQUIRY,
+        VIEWING_REQUEST
+    }
+
+    private Type type;
+    private Long userId;
+    private Long propertyId;
+
+    public static PropertyEngagementEvent inquiry(Long userId, Long propertyId) {
+        return new PropertyEngagementEvent(Type.INQUIRY, userId, propertyId);
+    }
+
+    public static PropertyEngagementEvent viewingRequested(Long userId, Long propertyId) {
+        return new PropertyEngagementEvent(Type.VIEWING_REQUEST, userId, propertyId);
+    }
+}
@@ -0,0 +1,33 @@
+package com.realestate.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * Published by PropertyService when an update changes a property's price.
+ * Listeners receive it after the surrounding transaction commits.
+ */
+@Data
+@AllArgsConstructor
+public class PropertyPriceChangeEvent {
+
+    private Long propertyId;
+    private Long ownerId;
+    private String title;
+    private String city;
+    private BigDecimal oldPrice;
+    private BigDecimal newPrice;
+
+    public boolean isDrop() {
+        return newPrice.compareTo(oldPrice) < 0;
+    }
+
+    /**
+     * This change followed by a later one: the original price, and everything else from the later.
+     */
+    public PropertyPriceChangeEvent followedBy(PropertyPriceChangeEvent later) {
+        return new PropertyPriceChangeEvent(propertyId, later.ownerId, later.title, later.city, oldPrice, later.newPrice);
+    }
+}
@@ -0,0 +1,52 @@
+package com.realestate.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * In-app notification, written in batches by NotificationQueue. User and property ids are
+ * plain columns so queued writes never contend with, or fail on, user and property deletes;
+ * UserService and PropertyService remove the rows themselves.
+ */
+@Entity
+@Table(name = "notifications", indexes = {
+    @Index(name = "idx_notification_user_created", columnList = "user_id, createdAt")
+}, uniqueConstraints = {
+    // A saved search reports a listing once, however often the listing is updated
+    @UniqueConstraint(name = "uk_notification_search_property", columnNames = {"saved_search_id", "property_id"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Notification {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private NotificationType type;
+
+    @Column(name = "property_id")
+    private Long propertyId;
+
+    @Column(name = "saved_search_id")
+    private Long savedSearchId;
+
+    @Column(nullable = false, length = 500)
+    private String message;
+
+    @Column(nullable = false)
+    private Boolean isRead = false;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
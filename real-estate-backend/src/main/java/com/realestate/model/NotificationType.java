@@ -0,0 +1,6 @@
+package com.realestate.model;
+
+public enum NotificationType {
+    SAVED_SEARCH_MATCH,   // A new or updated listing matches one of the user's saved searches
+    PRICE_DROP            // A listing the user favorited got cheaper
+}
@@ -1,6 +1,8 @@
 package com.realestate.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
@@ -9,16 +11,26 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.text.Normalizer;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
 
 @Entity
 @Table(name = "properties", indexes = {
     @Index(name = "idx_city", columnList = "city"),
     @Index(name = "idx_property_type", columnList = "propertyType"),
     @Index(name = "idx_listing_type", columnList = "listingType"),
-    @Index(name = "idx_price", columnList = "price")
+    @Index(name = "idx_price", columnList = "price"),
+    @Index(name = "idx_lat_lng", columnList = "latitude, longitude"),
+    // Composite indexes for the common search shapes: equality columns first, the price range last
+    @Index(name = "idx_avail_city_type_price", columnList = "available, cityKey, propertyType, price"),
+    @Index(name = "idx_avail_state_type_price", columnList = "available, stateKey, propertyType, price"),
+    @Index(name = "idx_avail_type_listing_price", columnList = "available, propertyType, listingType, price"),
+    @Index(name = "idx_avail_listing_price", columnList = "available, listingType, price"),
+    @Index(name = "idx_avail_created", columnList = "available, createdAt")
 })
 @Data
 @Builder
@@ -26,8 +38,17 @@ import java.util.List;
 @AllArgsConstructor
 public class Property {
     
+    public static final int ID_ALLOCATION_SIZE = 500;
+    
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{Alnum}]+");
+    
+    // Pooled, table-backed ids keep Hibernate's JDBC insert batching on; IDENTITY disables it.
+    // IdGeneratorAlignment moves the pool past ids handed out by the old auto-increment column.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "property_id")
+    @TableGenerator(name = "property_id", table = "id_generators", pkColumnName = "name",
+            valueColumnName = "next_val", pkColumnValue = "properties", allocationSize = Property.ID_ALLOCATION_SIZE)
     private Long id;
     
     @NotBlank(message = "Title is required")
@@ -53,6 +74,13 @@ public class Property {
     @NotBlank(message = "State is required")
     private String state;
     
+    // Normalized city and state for exact and prefix matching; derived on every write
+    @JsonIgnore
+    private String cityKey;
+    
+    @JsonIgnore
+    private String stateKey;
+    
     @NotBlank(message = "Zip code is required")
     private String zipCode;
     
@@ -75,12 +103,32 @@ public class Property {
     
     private Integer yearBuilt;
     
+    @DecimalMin(value = "-90.0", message = "Latitude must be between -90 and 90")
+    @DecimalMax(value = "90.0", message = "Latitude must be between -90 and 90")
+    private Double latitude;
+    
+    @DecimalMin(value = "-180.0", message = "Longitude must be between -180 and 180")
+    @DecimalMax(value = "180.0", message = "Longitude must be between -180 and 180")
+    private Double longitude;
+    
     @Deprecated
     private String imageUrl;  // Keep for backward compatibility
     
     @Column(nullable = false)
     private Boolean available = true;
     
+    // Maintained by FavoriteCounterService through bulk updates only, never by saving the entity
+    @Column(nullable = false, updatable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Builder.Default
+    private Long favoriteCount = 0L;
+    
+    // Bumped by PropertyImageService whenever the image set changes; part of the details ETag
+    @Column(nullable = false, updatable = false)
+    @JsonIgnore
+    @Builder.Default
+    private Long imageVersion = 0L;
+    
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
     
@@ -104,9 +152,33 @@ public class Property {
     @JsonIgnoreProperties({"property"})
     private List<PropertyImage> images = new ArrayList<>();
     
+    @PrePersist
+    public void prePersist() {
+        updateLocationKeys();
+    }
+    
     @PreUpdate
     public void preUpdate() {
         this.updatedAt = LocalDateTime.now();
+        updateLocationKeys();
+    }
+    
+    private void updateLocationKeys() {
+        this.cityKey = locationKey(city);
+        this.stateKey = locationKey(state);
+    }
+    
+    /**
+     * Accent-folded, lower-cased words joined by single spaces, so "St. Louis" and "st  louis"
+     * share the key "st louis". Search input goes through the same function before matching.
+     */
+    public static String locationKey(String value) {
+        if (value == null) {
+            return null;
+        }
+        String folded = COMBINING_MARKS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD))
+                .replaceAll("").toLowerCase(Locale.ROOT);
+        return NON_ALPHANUMERIC.matcher(folded).replaceAll(" ").trim();
     }
     
     // Helper methods for managing relationships
@@ -0,0 +1,44 @@
+package com.realestate.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Detail views of one property on one UTC day, written in batches by PropertyViewCounter.
+ * The property id is a plain column rather than a foreign key so flushes never contend with
+ * property writes; PropertyService removes a property's rows when it is deleted.
+ */
+@Entity
+@Table(name = "property_view_stats", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_view_stats_property_date", columnNames = {"property_id", "view_date"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PropertyViewStats {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "property_id", nullable = false)
+    private Long propertyId;
+
+    @Column(name = "view_date", nullable = false)
+    private LocalDate viewDate;
+
+    @Column(nullable = false)
+    private Long views = 0L;
+
+    // Estimated from viewerSketch
+    @Column(nullable = false)
+    private Long uniqueViewers = 0L;
+
+    // HyperLogLog registers, so unique viewers can be combined across days
+    @Column(length = 256)
+    private byte[] viewerSketch;
+}
@@ -0,0 +1,61 @@
+package com.realestate.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A search the user wants to hear about. SavedSearchIndex matches every new or updated
+ * listing against these and queues a notification for each match.
+ */
+@Entity
+@Table(name = "saved_searches", indexes = {
+    @Index(name = "idx_saved_search_user", columnList = "user_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SavedSearch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    @JsonIgnoreProperties({"favorites", "properties", "searchHistories", "savedSearches", "subscription", "hibernateLazyInitializer", "handler"})
+    private User user;
+
+    @Column(nullable = false, length = 100)
+    private String name;
+
+    // Same criteria as SearchHistory; null means any
+    private String searchCity;
+    private String searchState;
+
+    @Enumerated(EnumType.STRING)
+    private PropertyType searchPropertyType;
+
+    @Enumerated(EnumType.STRING)
+    private ListingType searchListingType;
+
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+
+    private Integer minBedrooms;
+    private Integer maxBedrooms;
+
+    private Integer minBathrooms;
+    private Integer maxBathrooms;
+
+    private BigDecimal minSquareFeet;
+    private BigDecimal maxSquareFeet;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
@@ -94,7 +94,13 @@ public class User {
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JsonIgnoreProperties({"user"})
     private List<SearchHistory> searchHistories = new ArrayList<>();
-    
+
+    // Saved searches go with the user; they are listed through /api/saved-searches
+    @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @JsonIgnore
+    @Builder.Default
+    private List<SavedSearch> savedSearches = new ArrayList<>();
+
     // One-to-One relationship: One user has one subscription
     @OneToOne(mappedBy = "user", cascade = CascadeType.ALL)
     @JsonIgnoreProperties({"user"})
@@ -1,6 +1,7 @@
 package com.realestate.repository;
 
 import com.realestate.model.ContactAgent;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -28,6 +29,10 @@ public interface ContactAgentRepository extends JpaRepository<ContactAgent, Long
     @Query("SELECT c FROM ContactAgent c WHERE c.property.owner.id = :ownerId ORDER BY c.createdAt DESC")
     List<ContactAgent> findAllContactsForPropertyOwner(@Param("ownerId") Long ownerId);
 
+    // Property fetched along, for summaries built outside the request thread
+    @Query("SELECT c FROM ContactAgent c JOIN FETCH c.property p WHERE p.owner.id = :ownerId ORDER BY c.createdAt DESC")
+    List<ContactAgent> findRecentForPropertyOwner(@Param("ownerId") Long ownerId, Pageable pageable);
+
     @Query("SELECT c FROM ContactAgent c WHERE c.createdAt >= :startDate AND c.createdAt <= :endDate ORDER BY c.createdAt DESC")
     List<ContactAgent> findContactsInDateRange(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
 
@@ -10,6 +10,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,6 +27,12 @@ public interface FavoriteRepository extends JpaRepository<Favorite, Long> {
     
     List<Favorite> findByPropertyId(Long propertyId);
     
+    // Keyset batches of the users who favorited a property, as (favorite id, user id) rows
+    @Query("SELECT f.id, f.user.id FROM Favorite f WHERE f.property.id = :propertyId AND f.id > :afterId ORDER BY f.id")
+    List<Object[]> findUserIdsByPropertyIdAfter(@Param("propertyId") Long propertyId,
+                                                @Param("afterId") Long afterId,
+                                                Pageable pageable);
+    
     Optional<Favorite> findByUserAndProperty(User user, Property property);
     
     Optional<Favorite> findByUserIdAndPropertyId(Long userId, Long propertyId);
@@ -37,6 +44,9 @@ public interface FavoriteRepository extends JpaRepository<Favorite, Long> {
     @Query("SELECT COUNT(f) FROM Favorite f WHERE f.property.id = :propertyId")
     Long countByPropertyId(@Param("propertyId") Long propertyId);
     
+    @Query("SELECT f.property.id FROM Favorite f WHERE f.user.id = :userId AND f.property.id IN :propertyIds")
+    List<Long> findFavoritedPropertyIds(@Param("userId") Long userId, @Param("propertyIds") Collection<Long> propertyIds);
+    
     @Query("SELECT f.property FROM Favorite f WHERE f.user.id = :userId")
     List<Property> findFavoritePropertiesByUserId(@Param("userId") Long userId);
 }
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -22,4 +23,9 @@ public interface PropertyImageRepository extends JpaRepository<PropertyImage, Lo
 
     @Query("SELECT pi FROM PropertyImage pi JOIN FETCH pi.property WHERE pi.property.id = :propertyId")
     List<PropertyImage> findByPropertyIdWithProperty(@Param("propertyId") Long propertyId);
+
+    // Returns [propertyId, imageUrl] rows for a whole page of properties in display order
+    @Query("SELECT pi.property.id, pi.imageUrl FROM PropertyImage pi WHERE pi.property.id IN :propertyIds " +
+           "ORDER BY pi.property.id, pi.displayOrder ASC")
+    List<Object[]> findImageUrlsByPropertyIds(@Param("propertyIds") Collection<Long> propertyIds);
 }
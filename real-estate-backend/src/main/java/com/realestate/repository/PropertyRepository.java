@@ -7,12 +7,16 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface PropertyRepository extends JpaRepository<Property, Long>, JpaSpecificationExecutor<Property> {
@@ -37,34 +41,6 @@ public interface PropertyRepository extends JpaRepository<Property, Long>, JpaSp
     
     Page<Property> findByOwnerId(Long ownerId, Pageable pageable);
     
-    @Query("SELECT p FROM Property p WHERE p.available = true AND " +
-           "(:city IS NULL OR LOWER(p.city) LIKE LOWER(CONCAT('%', :city, '%'))) AND " +
-           "(:state IS NULL OR LOWER(p.state) LIKE LOWER(CONCAT('%', :state, '%'))) AND " +
-           "(:propertyType IS NULL OR p.propertyType = :propertyType) AND " +
-           "(:listingType IS NULL OR p.listingType = :listingType) AND " +
-           "(:minPrice IS NULL OR p.price >= :minPrice) AND " +
-           "(:maxPrice IS NULL OR p.price <= :maxPrice) AND " +
-           "(:minBedrooms IS NULL OR p.bedrooms >= :minBedrooms) AND " +
-           "(:maxBedrooms IS NULL OR p.bedrooms <= :maxBedrooms) AND " +
-           "(:minBathrooms IS NULL OR p.bathrooms >= :minBathrooms) AND " +
-           "(:maxBathrooms IS NULL OR p.bathrooms <= :maxBathrooms) AND " +
-           "(:minSquareFeet IS NULL OR p.squareFeet >= :minSquareFeet) AND " +
-           "(:maxSquareFeet IS NULL OR p.squareFeet <= :maxSquareFeet)")
-    Page<Property> searchProperties(
-            @Param("city") String city,
-            @Param("state") String state,
-            @Param("propertyType") PropertyType propertyType,
-            @Param("listingType") ListingType listingType,
-            @Param("minPrice") BigDecimal minPrice,
-            @Param("maxPrice") BigDecimal maxPrice,
-            @Param("minBedrooms") Integer minBedrooms,
-            @Param("maxBedrooms") Integer maxBedrooms,
-            @Param("minBathrooms") Integer minBathrooms,
-            @Param("maxBathrooms") Integer maxBathrooms,
-            @Param("minSquareFeet") BigDecimal minSquareFeet,
-            @Param("maxSquareFeet") BigDecimal maxSquareFeet,
-            Pageable pageable);
-    
     @Query("SELECT p FROM Property p WHERE p.available = true AND " +
            "(LOWER(p.title) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
            "LOWER(p.description) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
@@ -87,6 +63,39 @@ public interface PropertyRepository extends JpaRepository<Property, Long>, JpaSp
     @Query("SELECT AVG(p.price) FROM Property p WHERE p.city = :city AND p.available = true")
     BigDecimal getAveragePriceByCity(@Param("city") String city);
     
+    // One [count, sum, min, max] row of available prices in a scope; keys are Property.locationKey values
+    @Query("SELECT COUNT(p), SUM(p.price), MIN(p.price), MAX(p.price) FROM Property p " +
+           "WHERE p.available = true AND p.cityKey = :cityKey")
+    List<Object[]> getPriceSummaryByCityKey(@Param("cityKey") String cityKey);
+    
+    @Query("SELECT COUNT(p), SUM(p.price), MIN(p.price), MAX(p.price) FROM Property p " +
+           "WHERE p.available = true AND p.stateKey = :stateKey")
+    List<Object[]> getPriceSummaryByStateKey(@Param("stateKey") String stateKey);
+    
+    @Query("SELECT COUNT(p), SUM(p.price), MIN(p.price), MAX(p.price) FROM Property p " +
+           "WHERE p.available = true AND p.propertyType = :propertyType")
+    List<Object[]> getPriceSummaryByPropertyType(@Param("propertyType") PropertyType propertyType);
+    
+    @Query("SELECT COUNT(p), SUM(p.price), MIN(p.price), MAX(p.price) FROM Property p WHERE p.available = true")
+    List<Object[]> getPriceSummary();
+    
+    // Rows written before the key columns existed; filled in once on startup
+    @Query("SELECT DISTINCT p.city FROM Property p WHERE p.cityKey IS NULL AND p.city IS NOT NULL")
+    List<String> findCitiesWithoutKey();
+    
+    @Query("SELECT DISTINCT p.state FROM Property p WHERE p.stateKey IS NULL AND p.state IS NOT NULL")
+    List<String> findStatesWithoutKey();
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE Property p SET p.cityKey = :cityKey WHERE p.city = :city AND p.cityKey IS NULL")
+    int setCityKey(@Param("city") String city, @Param("cityKey") String cityKey);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE Property p SET p.stateKey = :stateKey WHERE p.state = :state AND p.stateKey IS NULL")
+    int setStateKey(@Param("state") String state, @Param("stateKey") String stateKey);
+    
     List<Property> findByBuilderGroupId(Long builderGroupId);
 
     Page<Property> findByBuilderGroupId(Long builderGroupId, Pageable pageable);
@@ -112,9 +121,49 @@ public interface PropertyRepository extends JpaRepository<Property, Long>, JpaSp
             @Param("maxPrice") BigDecimal maxPrice,
             Pageable pageable);
 
-    @Query("SELECT p FROM Property p WHERE p.available = true ORDER BY p.createdAt DESC")
+    @Query("SELECT p FROM Property p WHERE p.available = true ORDER BY p.createdAt DESC, p.id DESC")
     List<Property> findRecentProperties(Pageable pageable);
     
-    @Query("SELECT p FROM Property p WHERE p.available = true AND p.listingType = 'FOR_SALE' ORDER BY p.price ASC")
+    @Query("SELECT p FROM Property p WHERE p.available = true AND p.cityKey = :cityKey " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Property> findRecentByCityKey(@Param("cityKey") String cityKey, Pageable pageable);
+    
+    @Query("SELECT p FROM Property p WHERE p.available = true AND p.listingType = 'FOR_SALE' ORDER BY p.price ASC, p.id ASC")
     List<Property> findCheapestForSale(Pageable pageable);
+    
+    // Walks the whole table in id order, one chunk at a time, for loading in-memory indexes
+    @Query("SELECT p FROM Property p WHERE p.id > :afterId ORDER BY p.id ASC")
+    List<Property> findBatchAfterId(@Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query("SELECT p.favoriteCount FROM Property p WHERE p.id = :propertyId")
+    Optional<Long> findFavoriteCount(@Param("propertyId") Long propertyId);
+    
+    @Modifying
+    @Query("UPDATE Property p SET p.imageVersion = p.imageVersion + 1 WHERE p.id = :propertyId")
+    int incrementImageVersion(@Param("propertyId") Long propertyId);
+    
+    // Everything the details response depends on besides the caller's favorite flag, in one row:
+    // updatedAt, imageVersion, favoriteCount, owner id and owner updatedAt
+    @Query("SELECT p.updatedAt, p.imageVersion, p.favoriteCount, o.id, o.updatedAt FROM Property p " +
+           "LEFT JOIN p.owner o WHERE p.id = :propertyId")
+    List<Object[]> findDetailsVersion(@Param("propertyId") Long propertyId);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE Property p SET p.favoriteCount = p.favoriteCount + :delta WHERE p.id IN :propertyIds")
+    int incrementFavoriteCounts(@Param("propertyIds") Collection<Long> propertyIds, @Param("delta") long delta);
+    
+    // Sets favoriteCount to the actual number of favorites for ids in [fromId, toId]; returns the rows corrected
+    @Modifying
+    @Transactional
+    @Query("UPDATE Property p SET p.favoriteCount = (SELECT COUNT(f) FROM Favorite f WHERE f.property.id = p.id) " +
+           "WHERE p.id BETWEEN :fromId AND :toId " +
+           "AND p.favoriteCount <> (SELECT COUNT(f) FROM Favorite f WHERE f.property.id = p.id)")
+    int reconcileFavoriteCounts(@Param("fromId") Long fromId, @Param("toId") Long toId);
+    
+    @Query("SELECT MAX(p.id) FROM Property p")
+    Optional<Long> findMaxId();
+    
+    @Query("SELECT MIN(p.id) FROM Property p WHERE p.id >= :fromId")
+    Optional<Long> findMinIdFrom(@Param("fromId") Long fromId);
 }
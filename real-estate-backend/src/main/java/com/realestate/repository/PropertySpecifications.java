@@ -0,0 +1,112 @@
+package com.realestate.repository;
+
+import com.realestate.dto.PropertySearchRequest;
+import com.realestate.model.Property;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reusable criteria for PropertyRepository's JpaSpecificationExecutor methods.
+ */
+public final class PropertySpecifications {
+
+    private PropertySpecifications() {
+    }
+
+    public static Specification<Property> availableOnly() {
+        return (root, query, cb) -> cb.isTrue(root.get("available"));
+    }
+
+    public static Specification<Property> ownedBy(Long ownerId) {
+        return (root, query, cb) -> cb.equal(root.get("owner").get("id"), ownerId);
+    }
+
+    // Same matching rules as PropertyRepository.searchByKeyword
+    public static Specification<Property> keywordContains(String keyword) {
+        return (root, query, cb) -> {
+            String pattern = "%" + keyword.toLowerCase() + "%";
+            return cb.and(
+                    cb.isTrue(root.get("available")),
+                    cb.or(
+                            cb.like(cb.lower(root.get("title")), pattern),
+                            cb.like(cb.lower(root.get("description")), pattern),
+                            cb.like(cb.lower(root.get("city")), pattern),
+                            cb.like(cb.lower(root.get("address")), pattern)));
+        };
+    }
+
+    /**
+     * Structured search over available properties with only the predicates the request sets.
+     * City and state are prefix matches on the normalized key columns, so "spring" finds
+     * "Springfield"; the predicates line up with the composite indexes on Property.
+     */
+    public static Specification<Property> matchesSearch(PropertySearchRequest request) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.isTrue(root.get("available")));
+            addPrefix(predicates, cb, root.get("cityKey"), request.getCity());
+            addPrefix(predicates, cb, root.get("stateKey"), request.getState());
+            if (request.getPropertyType() != null) {
+                predicates.add(cb.equal(root.get("propertyType"), request.getPropertyType()));
+            }
+            if (request.getListingType() != null) {
+                predicates.add(cb.equal(root.get("listingType"), request.getListingType()));
+            }
+            addRange(predicates, cb, root.get("price"), request.getMinPrice(), request.getMaxPrice());
+            addRange(predicates, cb, root.get("bedrooms"), request.getMinBedrooms(), request.getMaxBedrooms());
+            addRange(predicates, cb, root.get("bathrooms"), request.getMinBathrooms(), request.getMaxBathrooms());
+            addRange(predicates, cb, root.get("squareFeet"), request.getMinSquareFeet(), request.getMaxSquareFeet());
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    // Coordinates inside a latitude/longitude box; rows without coordinates never match
+    public static Specification<Property> withinBox(double minLatitude, double maxLatitude,
+                                                    double minLongitude, double maxLongitude) {
+        return (root, query, cb) -> cb.and(
+                cb.between(root.get("latitude"), minLatitude, maxLatitude),
+                cb.between(root.get("longitude"), minLongitude, maxLongitude));
+    }
+
+    /**
+     * Seek predicate for keyset pagination: rows strictly after (lastValue, lastId)
+     * in the order sortKey, id. Both columns must be non-null for the seek to be exact.
+     */
+    public static <T extends Comparable<? super T>> Specification<Property> after(
+            String sortKey, T lastValue, Long lastId, boolean ascending) {
+        return (root, query, cb) -> {
+            Path<Long> id = root.get("id");
+            if ("id".equals(sortKey)) {
+                return ascending ? cb.greaterThan(id, lastId) : cb.lessThan(id, lastId);
+            }
+            Path<T> key = root.get(sortKey);
+            Predicate beyondKey = ascending ? cb.greaterThan(key, lastValue) : cb.lessThan(key, lastValue);
+            Predicate beyondId = ascending ? cb.greaterThan(id, lastId) : cb.lessThan(id, lastId);
+            return cb.or(beyondKey, cb.and(cb.equal(key, lastValue), beyondId));
+        };
+    }
+
+    // Keys hold only letters, digits and single spaces, so the pattern needs no escaping
+    private static void addPrefix(List<Predicate> predicates, CriteriaBuilder cb, Expression<String> key, String value) {
+        String prefix = Property.locationKey(value);
+        if (prefix != null && !prefix.isEmpty()) {
+            predicates.add(cb.like(key, prefix + "%"));
+        }
+    }
+
+    private static <T extends Comparable<? super T>> void addRange(List<Predicate> predicates, CriteriaBuilder cb,
+                                                                   Expression<T> attribute, T min, T max) {
+        if (min != null) {
+            predicates.add(cb.greaterThanOrEqualTo(attribute, min));
+        }
+        if (max != null) {
+            predicates.add(cb.lessThanOrEqualTo(attribute, max));
+        }
+    }
+}
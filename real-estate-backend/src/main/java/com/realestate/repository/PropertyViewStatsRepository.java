@@ -0,0 +1,21 @@
+package com.realestate.repository;
+
+import com.realestate.model.PropertyViewStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface PropertyViewStatsRepository extends JpaRepository<PropertyViewStats, Long> {
+
+    List<PropertyViewStats> findByPropertyIdAndViewDateGreaterThanEqualOrderByViewDateAsc(Long propertyId, LocalDate from);
+
+    @Modifying
+    @Query("DELETE FROM PropertyViewStats s WHERE s.propertyId = :propertyId")
+    int deleteByPropertyId(@Param("propertyId") Long propertyId);
+}
@@ -0,0 +1,22 @@
+package com.realestate.repository;
+
+import com.realestate.model.SavedSearch;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SavedSearchRepository extends JpaRepository<SavedSearch, Long> {
+
+    List<SavedSearch> findByUserIdOrderByCreatedAtDesc(Long userId);
+
+    Long countByUserId(Long userId);
+
+    // Keyset batches for loading SavedSearchIndex
+    @Query("SELECT s FROM SavedSearch s WHERE s.id > :afterId ORDER BY s.id")
+    List<SavedSearch> findBatchAfterId(@Param("afterId") Long afterId, Pageable pageable);
+}
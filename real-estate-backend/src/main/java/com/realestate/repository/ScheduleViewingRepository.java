@@ -11,6 +11,7 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -39,6 +40,17 @@ public interface ScheduleViewingRepository extends JpaRepository<ScheduleViewing
     @Query("SELECT s FROM ScheduleViewing s WHERE s.property.owner.id = :ownerId AND s.status = :status ORDER BY s.viewingDate ASC")
     List<ScheduleViewing> findViewingsForPropertyOwnerByStatus(@Param("ownerId") Long ownerId, @Param("status") ViewingStatus status);
 
+    // Property and requester fetched along, for summaries built outside the request thread
+    @Query("SELECT s FROM ScheduleViewing s JOIN FETCH s.property p JOIN FETCH s.user " +
+           "WHERE p.owner.id = :ownerId AND s.viewingDate >= :from AND s.status IN :statuses " +
+           "ORDER BY s.viewingDate ASC, s.viewingTime ASC")
+    List<ScheduleViewing> findUpcomingForPropertyOwner(@Param("ownerId") Long ownerId, @Param("from") LocalDate from,
+                                                       @Param("statuses") Collection<ViewingStatus> statuses,
+                                                       Pageable pageable);
+
+    @Query("SELECT s.status, COUNT(s) FROM ScheduleViewing s WHERE s.property.owner.id = :ownerId GROUP BY s.status")
+    List<Object[]> countByStatusForPropertyOwner(@Param("ownerId") Long ownerId);
+
     @Query("SELECT s FROM ScheduleViewing s WHERE s.viewingDate >= :startDate AND s.viewingDate <= :endDate ORDER BY s.viewingDate ASC")
     List<ScheduleViewing> findViewingsInDateRange(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
 
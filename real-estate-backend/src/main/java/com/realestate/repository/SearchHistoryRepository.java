@@ -30,6 +30,9 @@ public interface SearchHistoryRepository extends JpaRepository<SearchHistory, Lo
     @Query("SELECT sh.searchCity, COUNT(sh) FROM SearchHistory sh WHERE sh.searchCity IS NOT NULL GROUP BY sh.searchCity ORDER BY COUNT(sh) DESC")
     List<Object[]> findMostSearchedCities(Pageable pageable);
     
+    @Query("SELECT sh.searchState, COUNT(sh) FROM SearchHistory sh WHERE sh.searchState IS NOT NULL GROUP BY sh.searchState ORDER BY COUNT(sh) DESC")
+    List<Object[]> findMostSearchedStates(Pageable pageable);
+    
     @Query("SELECT sh.searchPropertyType, COUNT(sh) FROM SearchHistory sh WHERE sh.searchPropertyType IS NOT NULL GROUP BY sh.searchPropertyType ORDER BY COUNT(sh) DESC")
     List<Object[]> findMostSearchedPropertyTypes();
     
@@ -2,6 +2,7 @@ package com.realestate.service;
 
 import com.realestate.dto.ContactAgentRequest;
 import com.realestate.dto.ContactAgentResponse;
+import com.realestate.event.PropertyEngagementEvent;
 import com.realestate.exception.ResourceNotFoundException;
 import com.realestate.model.ContactAgent;
 import com.realestate.model.Property;
@@ -10,6 +11,7 @@ import com.realestate.repository.ContactAgentRepository;
 import com.realestate.repository.PropertyRepository;
 import com.realestate.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -31,6 +33,9 @@ public class ContactAgentService {
     @Autowired
     private PropertyRepository propertyRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public ContactAgent createContact(ContactAgentRequest request) {
         User user = userRepository.findById(request.getUserId())
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", request.getUserId()));
@@ -49,7 +54,9 @@ public class ContactAgentService {
         contact.setAdditionalInfo(request.getAdditionalInfo());
         contact.setIsRead(false);
 
-        return contactAgentRepository.save(contact);
+        ContactAgent saved = contactAgentRepository.save(contact);
+        eventPublisher.publishEvent(PropertyEngagementEvent.inquiry(user.getId(), property.getId()));
+        return saved;
     }
 
     public Optional<ContactAgent> getContactById(Long id) {
@@ -1,50 +1,245 @@
 package com.realestate.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.realestate.dto.RecommendationRequest;
 import com.realestate.model.Property;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.ResponseEntity;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestClientException;
-import org.springframework.web.client.RestTemplate;
 
-import java.util.Arrays;
-import java.util.HashMap;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Client for the optional .NET recommendation service, which re-ranks candidates chosen
+ * locally. Calls are asynchronous over a pooled keep-alive HTTP client and bounded three ways:
+ * a deadline per call, a cap on calls in flight, and a circuit breaker that stops calling a
+ * failing service for a while. Rankings are cached by location, budget bucket and scope.
+ * <p>
+ * The returned future never fails: on any error, timeout, rejection or open breaker it
+ * completes with an empty list and the caller keeps its local ranking.
+ */
 @Service
 public class DotNetRecommendationClient {
 
     private static final Logger logger = LoggerFactory.getLogger(DotNetRecommendationClient.class);
-    private static final String DOT_NET_API_URL = "http://localhost:5000/api/recommend";
+    // Budgets within about 10% of each other share cached rankings
+    private static final double BUDGET_BUCKET_RATIO = 1.1;
+
+    private record CachedRanking(List<Long> ids, long expiresAt) {
+    }
 
     @Autowired
-    private RestTemplate restTemplate;
+    private ObjectMapper objectMapper;
+
+    @Value("${recommendations.remote.url:http://localhost:5000/api/recommend}")
+    private String url;
+
+    @Value("${recommendations.remote.connect-timeout-ms:300}")
+    private long connectTimeoutMs;
+
+    @Value("${recommendations.remote.timeout-ms:800}")
+    private long timeoutMs;
+
+    @Value("${recommendations.remote.max-concurrent:16}")
+    private int maxConcurrent;
+
+    @Value("${recommendations.remote.breaker.failure-threshold:5}")
+    private int failureThreshold;
+
+    @Value("${recommendations.remote.breaker.open-ms:30000}")
+    private long openMs;
+
+    @Value("${recommendations.remote.cache.ttl-ms:60000}")
+    private long cacheTtlMs;
+
+    @Value("${recommendations.remote.cache.max-entries:1000}")
+    private int cacheMaxEntries;
+
+    private ExecutorService executor;
+    private HttpClient httpClient;
+    private Semaphore inFlight;
+    private CircuitBreaker breaker;
+    private Map<String, CachedRanking> cache;  // guarded by itself
 
-    public List<Property> getRecommendations(List<Property> properties, String location, double budget) {
+    @PostConstruct
+    void init() {
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        // HTTP/1.1 keeps a pool of persistent connections per host
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .executor(executor)
+                .build();
+        inFlight = new Semaphore(maxConcurrent);
+        breaker = new CircuitBreaker(failureThreshold, openMs);
+        cache = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedRanking> eldest) {
+                return size() > cacheMaxEntries;
+            }
+        };
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Ids of {@code candidates} in the order the service ranks them, or an empty list when it
+     * can't be asked or doesn't answer in time.
+     *
+     * @param scope whatever besides location and budget shaped the candidates, such as filters,
+     *              so requests with different candidates don't share a cached ranking
+     */
+    public CompletableFuture<List<Long>> rank(String location, double budget, String scope, List<Property> candidates) {
+        String key = Property.locationKey(location) + '|' + budgetBucket(budget) + '|' + scope;
+        List<Long> cached = cached(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        if (!inFlight.tryAcquire()) {
+            logger.warn("Skipping .NET recommendation call: {} calls already in flight", maxConcurrent);
+            return CompletableFuture.completedFuture(List.of());
+        }
+        if (!breaker.tryAcquire()) {
+            inFlight.release();
+            return CompletableFuture.completedFuture(List.of());
+        }
+
+        HttpRequest request;
         try {
-            Map<String, Object> body = new HashMap<>();
-            body.put("properties", properties);
-            body.put("location", location);
-            body.put("budget", budget);
+            request = HttpRequest.newBuilder(URI.create(url))
+                    .timeout(Duration.ofMillis(timeoutMs))
+                    .header("Content-Type", "application/json")
+                    .header("Accept", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(
+                            toRequest(location, budget, candidates))))
+                    .build();
+        } catch (IOException | IllegalArgumentException e) {
+            inFlight.release();
+            breaker.onFailure();
+            logger.error("Could not build .NET recommendation request: {}", e.getMessage(), e);
+            return CompletableFuture.completedFuture(List.of());
+        }
 
-            logger.info("Calling .NET recommendation service for location: {} with budget: {}", location, budget);
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                // The request timeout covers the wait for headers; this bounds the whole call
+                .orTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                .thenApply(this::parseRanking)
+                .handle((ids, failure) -> {
+                    inFlight.release();
+                    if (failure != null) {
+                        breaker.onFailure();
+                        logger.warn("Falling back to local recommendations for {}: {} (breaker {})",
+                                location, describe(failure), breaker.getState());
+                        return List.<Long>of();
+                    }
+                    breaker.onSuccess();
+                    cache(key, ids);
+                    return ids;
+                });
+    }
 
-            ResponseEntity<Property[]> response =
-                    restTemplate.postForEntity(DOT_NET_API_URL, body, Property[].class);
+    public CircuitBreaker.State breakerState() {
+        return breaker.getState();
+    }
 
-            if (response.getBody() != null) {
-                logger.info("Successfully retrieved {} recommendations", response.getBody().length);
-                return Arrays.asList(response.getBody());
+    private List<Long> parseRanking(HttpResponse<byte[]> response) {
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("HTTP " + response.statusCode());
+        }
+        try {
+            JsonNode body = objectMapper.readTree(response.body());
+            if (!body.isArray()) {
+                throw new IllegalStateException("Expected a JSON array");
+            }
+            // Either property objects, as the service used to return, or bare ids
+            List<Long> ids = new ArrayList<>(body.size());
+            for (JsonNode element : body) {
+                JsonNode id = element.isObject() ? element.get("id") : element;
+                if (id != null && id.canConvertToLong()) {
+                    ids.add(id.asLong());
+                }
             }
-            logger.warn("Empty response from .NET recommendation service");
-        } catch (RestClientException e) {
-            logger.error("Error calling .NET recommendation service: {}", e.getMessage(), e);
-        } catch (Exception e) {
-            logger.error("Unexpected error in getRecommendations: {}", e.getMessage(), e);
+            return ids;
+        } catch (IOException e) {
+            throw new IllegalStateException("Malformed response: " + e.getMessage(), e);
         }
-        return List.of();
     }
-}
\ No newline at end of file
+
+    private static RecommendationRequest toRequest(String location, double budget, List<Property> candidates) {
+        List<RecommendationRequest.Candidate> compact = new ArrayList<>(candidates.size());
+        for (Property p : candidates) {
+            compact.add(RecommendationRequest.Candidate.builder()
+                    .id(p.getId())
+                    .price(p.getPrice())
+                    .city(p.getCity())
+                    .state(p.getState())
+                    .propertyType(p.getPropertyType())
+                    .listingType(p.getListingType())
+                    .bedrooms(p.getBedrooms())
+                    .bathrooms(p.getBathrooms())
+                    .squareFeet(p.getSquareFeet())
+                    .latitude(p.getLatitude())
+                    .longitude(p.getLongitude())
+                    .build());
+        }
+        return RecommendationRequest.builder()
+                .location(location)
+                .budget(budget)
+                .properties(compact)
+                .build();
+    }
+
+    private List<Long> cached(String key) {
+        synchronized (cache) {
+            CachedRanking ranking = cache.get(key);
+            if (ranking == null) {
+                return null;
+            }
+            if (System.currentTimeMillis() >= ranking.expiresAt()) {
+                cache.remove(key);
+                return null;
+            }
+            return ranking.ids();
+        }
+    }
+
+    private void cache(String key, List<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        synchronized (cache) {
+            cache.put(key, new CachedRanking(List.copyOf(ids), System.currentTimeMillis() + cacheTtlMs));
+        }
+    }
+
+    private static long budgetBucket(double budget) {
+        return (long) Math.floor(Math.log(Math.max(budget, 1.0)) / Math.log(BUDGET_BUCKET_RATIO));
+    }
+
+    private static String describe(Throwable failure) {
+        Throwable cause = failure.getCause() != null ? failure.getCause() : failure;
+        return cause.getClass().getSimpleName() + (cause.getMessage() != null ? ": " + cause.getMessage() : "");
+    }
+}
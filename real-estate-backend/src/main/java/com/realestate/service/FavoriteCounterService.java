@@ -0,0 +1,151 @@
+package com.realestate.service;
+
+import com.realestate.event.FavoriteChangeEvent;
+import com.realestate.repository.PropertyRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind maintenance of Property.favoriteCount. Committed favorite changes only bump
+ * an in-memory LongAdder per property; a scheduled flush folds the pending deltas into the
+ * column with one bulk UPDATE per distinct delta. Readers add the pending delta to the
+ * column value they already loaded. A reconciliation pass recounts the favorites table
+ * to correct drift from lost deltas (crashes, rolled-back flushes, direct SQL).
+ */
+@Service
+public class FavoriteCounterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FavoriteCounterService.class);
+    private static final int FLUSH_BATCH_SIZE = 500;
+    private static final long RECONCILE_ID_RANGE = 1000L;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Value("${favorite.counts.reconcile-on-startup:true}")
+    private boolean reconcileOnStartup;
+
+    // Entries are never removed: a writer may still hold an adder it just looked up,
+    // and the map is bounded by the number of properties anyway
+    private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFavoriteChange(FavoriteChangeEvent event) {
+        pending.computeIfAbsent(event.getPropertyId(), id -> new LongAdder()).add(event.delta());
+    }
+
+    /**
+     * Favorites recorded but not yet flushed to the property row; may be negative.
+     */
+    public long pendingDelta(Long propertyId) {
+        LongAdder adder = pending.get(propertyId);
+        return adder != null ? adder.sum() : 0L;
+    }
+
+    public long favoriteCount(Long propertyId) {
+        long stored = propertyRepository.findFavoriteCount(propertyId).orElse(0L);
+        return Math.max(0L, stored + pendingDelta(propertyId));
+    }
+
+    /**
+     * The count to show for a property whose stored favoriteCount was just loaded.
+     */
+    public long favoriteCount(Long propertyId, Long storedCount) {
+        long stored = storedCount != null ? storedCount : 0L;
+        return Math.max(0L, stored + pendingDelta(propertyId));
+    }
+
+    @Scheduled(fixedDelayString = "${favorite.counts.flush-interval-ms:5000}")
+    public synchronized void flush() {
+        Map<Long, List<Long>> idsByDelta = new HashMap<>();
+        pending.forEach((propertyId, adder) -> {
+            long delta = adder.sum();
+            if (delta != 0) {
+                idsByDelta.computeIfAbsent(delta, d -> new ArrayList<>()).add(propertyId);
+            }
+        });
+
+        int updated = 0;
+        for (Map.Entry<Long, List<Long>> entry : idsByDelta.entrySet()) {
+            List<Long> ids = entry.getValue();
+            for (int from = 0; from < ids.size(); from += FLUSH_BATCH_SIZE) {
+                List<Long> batch = ids.subList(from, Math.min(from + FLUSH_BATCH_SIZE, ids.size()));
+                try {
+                    updated += propertyRepository.incrementFavoriteCounts(batch, entry.getKey());
+                } catch (Exception e) {
+                    // The deltas stay pending for the next flush
+                    logger.error("Failed to flush favorite counts for {} properties: {}", batch.size(), e.getMessage(), e);
+                    continue;
+                }
+                // Only once the column holds them, and by subtracting what was written so that
+                // favorites recorded meanwhile are kept; readers never see a count below the truth
+                batch.forEach(id -> pending.get(id).add(-entry.getKey()));
+            }
+        }
+        if (updated > 0) {
+            logger.debug("Flushed favorite count deltas for {} properties", updated);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        if (reconcileOnStartup) {
+            reconcile();
+        }
+    }
+
+    /**
+     * Recount favorites per property in id ranges, one short transaction per range.
+     * The deltas pending for a range are taken just before its UPDATE and drained once it
+     * commits, since the recount already includes them. Only a favorite committed during
+     * the range's own statement can be counted twice, until the next run.
+     */
+    @Scheduled(cron = "${favorite.counts.reconcile-cron:0 30 3 * * *}")
+    public synchronized void reconcile() {
+        long started = System.currentTimeMillis();
+        long maxId = propertyRepository.findMaxId().orElse(0L);
+        int corrected = 0;
+        try {
+            // Ranges start at the next existing id, so gaps in the ids cost one lookup each
+            Optional<Long> from = propertyRepository.findMinIdFrom(1L);
+            while (from.isPresent()) {
+                long to = from.get() + RECONCILE_ID_RANGE - 1;
+                Map<Long, Long> drained = pendingDeltas(from.get(), to);
+                corrected += propertyRepository.reconcileFavoriteCounts(from.get(), to);
+                drained.forEach((id, delta) -> pending.get(id).add(-delta));
+                from = to < maxId ? propertyRepository.findMinIdFrom(to + 1) : Optional.empty();
+            }
+        } catch (Exception e) {
+            logger.error("Favorite count reconciliation failed: {}", e.getMessage(), e);
+            return;
+        }
+        logger.info("Reconciled favorite counts up to property {}: {} corrected in {} ms",
+                maxId, corrected, System.currentTimeMillis() - started);
+    }
+
+    private Map<Long, Long> pendingDeltas(long fromId, long toId) {
+        Map<Long, Long> deltas = new HashMap<>();
+        for (long id = fromId; id <= toId; id++) {
+            long delta = pendingDelta(id);
+            if (delta != 0) {
+                deltas.put(id, delta);
+            }
+        }
+        return deltas;
+    }
+}
@@ -2,6 +2,7 @@ package com.realestate.service;
 
 import com.realestate.dto.FavoriteResponse;
 import com.realestate.dto.PageResponse;
+import com.realestate.event.FavoriteChangeEvent;
 import com.realestate.exception.DuplicateResourceException;
 import com.realestate.exception.ResourceNotFoundException;
 import com.realestate.model.Favorite;
@@ -11,6 +12,7 @@ import com.realestate.repository.FavoriteRepository;
 import com.realestate.repository.PropertyRepository;
 import com.realestate.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -35,6 +37,12 @@ public class FavoriteService {
     @Autowired
     private PropertyRepository propertyRepository;
     
+    @Autowired
+    private FavoriteCounterService favoriteCounterService;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
     public Favorite addFavorite(Long userId, Long propertyId, String notes) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
@@ -53,7 +61,9 @@ public class FavoriteService {
                 .notes(notes)
                 .build();
 
-        return favoriteRepository.save(favorite);
+        Favorite saved = favoriteRepository.save(favorite);
+        eventPublisher.publishEvent(FavoriteChangeEvent.added(userId, propertyId));
+        return saved;
     }
     
     public Favorite addFavorite(Long userId, Long propertyId) {
@@ -64,13 +74,14 @@ public class FavoriteService {
         Favorite favorite = favoriteRepository.findByUserIdAndPropertyId(userId, propertyId)
                 .orElseThrow(() -> new ResourceNotFoundException("Favorite not found for user " + userId + " and property " + propertyId));
         favoriteRepository.delete(favorite);
+        eventPublisher.publishEvent(FavoriteChangeEvent.removed(userId, propertyId));
     }
     
     public void removeFavoriteById(Long favoriteId) {
-        if (!favoriteRepository.existsById(favoriteId)) {
-            throw new ResourceNotFoundException("Favorite", "id", favoriteId);
-        }
-        favoriteRepository.deleteById(favoriteId);
+        Favorite favorite = favoriteRepository.findById(favoriteId)
+                .orElseThrow(() -> new ResourceNotFoundException("Favorite", "id", favoriteId));
+        favoriteRepository.delete(favorite);
+        eventPublisher.publishEvent(FavoriteChangeEvent.removed(favorite.getUser().getId(), favorite.getProperty().getId()));
     }
     
     public List<Favorite> getUserFavorites(Long userId) {
@@ -142,7 +153,7 @@ public class FavoriteService {
     }
     
     public Long getFavoriteCount(Long propertyId) {
-        return favoriteRepository.countByPropertyId(propertyId);
+        return favoriteCounterService.favoriteCount(propertyId);
     }
     
     public Optional<Favorite> getFavoriteById(Long favoriteId) {
@@ -161,6 +172,7 @@ public class FavoriteService {
         
         if (existingFavorite.isPresent()) {
             favoriteRepository.delete(existingFavorite.get());
+            eventPublisher.publishEvent(FavoriteChangeEvent.removed(userId, propertyId));
             return null; // Removed
         } else {
             return addFavorite(userId, propertyId);
@@ -0,0 +1,129 @@
+package com.realestate.service;
+
+import com.realestate.dto.PropertySearchRequest;
+
+import java.util.Optional;
+
+/**
+ * The geographic part of a search request: an optional center point, an optional radius
+ * around it and an optional bounding box. The box fields always hold the envelope that
+ * every match lies in, i.e. the requested box intersected with the radius' envelope.
+ */
+public record GeoArea(Double centerLatitude, Double centerLongitude, Double radiusKm,
+                      double minLatitude, double maxLatitude, double minLongitude, double maxLongitude) {
+
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+    public static final double MAX_RADIUS_KM = 1000.0;
+
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180.0;
+
+    /**
+     * Parse and validate the request's geo parameters; empty when it has none.
+     */
+    public static Optional<GeoArea> from(PropertySearchRequest request) {
+        Double latitude = request.getLatitude();
+        Double longitude = request.getLongitude();
+        Double radiusKm = request.getRadiusKm();
+        boolean hasBox = request.getMinLatitude() != null || request.getMaxLatitude() != null
+                || request.getMinLongitude() != null || request.getMaxLongitude() != null;
+        if (latitude == null && longitude == null && radiusKm == null && !hasBox) {
+            return Optional.empty();
+        }
+        if ((latitude == null) != (longitude == null) || (radiusKm != null && latitude == null)) {
+            throw new IllegalArgumentException("latitude and longitude must be given together, and are required with radiusKm");
+        }
+        if (latitude != null) {
+            checkLatitude(latitude);
+            checkLongitude(longitude);
+        }
+
+        double minLat = -90.0;
+        double maxLat = 90.0;
+        double minLon = -180.0;
+        double maxLon = 180.0;
+        if (hasBox) {
+            if (request.getMinLatitude() == null || request.getMaxLatitude() == null
+                    || request.getMinLongitude() == null || request.getMaxLongitude() == null) {
+                throw new IllegalArgumentException("A bounding box needs minLatitude, maxLatitude, minLongitude and maxLongitude");
+            }
+            minLat = checkLatitude(request.getMinLatitude());
+            maxLat = checkLatitude(request.getMaxLatitude());
+            minLon = checkLongitude(request.getMinLongitude());
+            maxLon = checkLongitude(request.getMaxLongitude());
+            if (minLat > maxLat || minLon > maxLon) {
+                throw new IllegalArgumentException("Bounding box minimums must not exceed its maximums");
+            }
+        }
+        if (radiusKm != null) {
+            if (radiusKm <= 0 || radiusKm > MAX_RADIUS_KM) {
+                throw new IllegalArgumentException("radiusKm must be greater than 0 and at most " + MAX_RADIUS_KM);
+            }
+            double latDelta = radiusKm / KM_PER_DEGREE;
+            minLat = Math.max(minLat, latitude - latDelta);
+            maxLat = Math.min(maxLat, latitude + latDelta);
+            // Longitude degrees shrink towards the poles; near them, or across the antimeridian,
+            // the envelope falls back to every longitude and the exact distance check does the rest
+            double cos = Math.cos(Math.toRadians(Math.max(Math.abs(latitude - latDelta), Math.abs(latitude + latDelta))));
+            double lonDelta = cos > 1e-6 ? radiusKm / (KM_PER_DEGREE * cos) : 360.0;
+            if (longitude - lonDelta >= -180.0 && longitude + lonDelta <= 180.0) {
+                minLon = Math.max(minLon, longitude - lonDelta);
+                maxLon = Math.min(maxLon, longitude + lonDelta);
+            }
+        }
+        return Optional.of(new GeoArea(latitude, longitude, radiusKm, minLat, maxLat, minLon, maxLon));
+    }
+
+    /**
+     * Whether the area restricts results at all; a bare center point only orders them.
+     */
+    public boolean isFilter() {
+        return radiusKm != null || minLatitude > -90.0 || maxLatitude < 90.0
+                || minLongitude > -180.0 || maxLongitude < 180.0;
+    }
+
+    public boolean hasCenter() {
+        return centerLatitude != null;
+    }
+
+    public boolean contains(double latitude, double longitude) {
+        if (latitude < minLatitude || latitude > maxLatitude || longitude < minLongitude || longitude > maxLongitude) {
+            return false;
+        }
+        return radiusKm == null || distanceKm(centerLatitude, centerLongitude, latitude, longitude) <= radiusKm;
+    }
+
+    /**
+     * Distance from the center point, or null when there is no center or no coordinates.
+     */
+    public Double distanceFromCenterKm(Double latitude, Double longitude) {
+        if (!hasCenter() || latitude == null || longitude == null) {
+            return null;
+        }
+        return distanceKm(centerLatitude, centerLongitude, latitude, longitude);
+    }
+
+    /**
+     * Great-circle distance by the haversine formula.
+     */
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    private static double checkLatitude(double latitude) {
+        if (latitude < -90.0 || latitude > 90.0) {
+            throw new IllegalArgumentException("Latitude must be between -90 and 90");
+        }
+        return latitude;
+    }
+
+    private static double checkLongitude(double longitude) {
+        if (longitude < -180.0 || longitude > 180.0) {
+            throw new IllegalArgumentException("Longitude must be between -180 and 180");
+        }
+        return longitude;
+    }
+}
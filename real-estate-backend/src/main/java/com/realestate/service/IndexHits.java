@@ -0,0 +1,10 @@
+package com.realestate.service;
+
+import java.util.List;
+
+/**
+ * The leading ids of an in-memory index query, already in result order,
+ * together with the exact number of matches.
+ */
+public record IndexHits(List<Long> ids, int totalMatches) {
+}
@@ -0,0 +1,174 @@
+package com.realestate.service;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Closed intervals of longs, each tagged with an id, answering "which intervals contain this
+ * point" in O(log n + hits) expected time. A treap ordered by (low, id) whose nodes also keep
+ * the highest upper bound in their subtree, so a stabbing query skips every subtree that ends
+ * before the point and stops at the first node starting after it. Priorities come from a hash
+ * of the id, which keeps the tree balanced in expectation whatever the insertion order.
+ * <p>
+ * Not thread-safe; callers guard it.
+ */
+final class IntervalTree {
+
+    private static final class Node {
+        final long low;
+        final long high;
+        final long id;
+        final long priority;
+        long maxHigh;
+        Node left;
+        Node right;
+
+        Node(long low, long high, long id) {
+            this.low = low;
+            this.high = high;
+            this.id = id;
+            this.priority = mix(id);
+            this.maxHigh = high;
+        }
+    }
+
+    private Node root;
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Add [low, high] for the id. An id must be added at most once with the same low bound.
+     */
+    void add(long low, long high, long id) {
+        if (low > high) {
+            throw new IllegalArgumentException("Interval bounds are reversed: " + low + " > " + high);
+        }
+        root = insert(root, new Node(low, high, id));
+        size++;
+    }
+
+    /**
+     * Remove the interval added for the id with this low bound; absent entries are ignored.
+     */
+    void remove(long low, long id) {
+        root = delete(root, low, id);
+    }
+
+    /**
+     * Pass the id of every interval containing the point to {@code hits}.
+     */
+    void stab(long point, LongConsumer hits) {
+        stab(root, point, hits);
+    }
+
+    private static void stab(Node node, long point, LongConsumer hits) {
+        while (node != null && node.maxHigh >= point) {
+            stab(node.left, point, hits);
+            // Everything from here rightwards starts after the point
+            if (node.low > point) {
+                return;
+            }
+            if (node.high >= point) {
+                hits.accept(node.id);
+            }
+            node = node.right;
+        }
+    }
+
+    private static Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (compare(added.low, added.id, node) < 0) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        update(node);
+        return node;
+    }
+
+    private Node delete(Node node, long low, long id) {
+        if (node == null) {
+            return null;
+        }
+        int order = compare(low, id, node);
+        if (order < 0) {
+            node.left = delete(node.left, low, id);
+        } else if (order > 0) {
+            node.right = delete(node.right, low, id);
+        } else {
+            size--;
+            return merge(node.left, node.right);
+        }
+        update(node);
+        return node;
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node top = node.left;
+        node.left = top.right;
+        top.right = node;
+        update(node);
+        update(top);
+        return top;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node top = node.right;
+        node.right = top.left;
+        top.left = node;
+        update(node);
+        update(top);
+        return top;
+    }
+
+    private static void update(Node node) {
+        long maxHigh = node.high;
+        if (node.left != null) {
+            maxHigh = Math.max(maxHigh, node.left.maxHigh);
+        }
+        if (node.right != null) {
+            maxHigh = Math.max(maxHigh, node.right.maxHigh);
+        }
+        node.maxHigh = maxHigh;
+    }
+
+    private static int compare(long low, long id, Node node) {
+        int order = Long.compare(low, node.low);
+        return order != 0 ? order : Long.compare(id, node.id);
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long value) {
+        long z = value + 0x9e3779b97f4a7c15L;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
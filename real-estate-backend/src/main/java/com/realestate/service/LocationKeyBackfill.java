@@ -0,0 +1,43 @@
+package com.realestate.service;
+
+import com.realestate.model.Property;
+import com.realestate.repository.PropertyRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fills Property.cityKey and stateKey on rows written before those columns existed, one
+ * bulk update per distinct city and state. New writes derive the keys in the entity itself,
+ * so after the first run this finds nothing to do.
+ */
+@Component
+public class LocationKeyBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocationKeyBackfill.class);
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        try {
+            int updated = 0;
+            for (String city : propertyRepository.findCitiesWithoutKey()) {
+                updated += propertyRepository.setCityKey(city, Property.locationKey(city));
+            }
+            for (String state : propertyRepository.findStatesWithoutKey()) {
+                updated += propertyRepository.setStateKey(state, Property.locationKey(state));
+            }
+            if (updated > 0) {
+                logger.info("Backfilled {} property city and state keys", updated);
+            }
+        } catch (Exception e) {
+            // Rows without keys only drop out of city/state searches until the next start
+            logger.error("Failed to backfill property location keys: {}", e.getMessage(), e);
+        }
+    }
+}
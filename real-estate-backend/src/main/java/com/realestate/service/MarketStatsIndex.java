@@ -0,0 +1,209 @@
+package com.realestate.service;
+
+import com.realestate.dto.MarketStats;
+import com.realestate.model.Property;
+import com.realestate.model.PropertyType;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Running price statistics of available properties per city, state and property type, plus
+ * the whole catalog. Each write adjusts the few segments the property belongs to: count and
+ * sums, a price multiset for exact min/max and quantile sketches for price and price per
+ * square foot. A segment's summary is computed once after a change and cached, so reads do
+ * not depend on the catalog size.
+ */
+@Component
+public class MarketStatsIndex implements PropertyIndex {
+
+    private static final double SKETCH_ACCURACY = 0.01;
+
+    private static final class IndexedDoc {
+        String cityKey;
+        String city;
+        String stateKey;
+        String state;
+        PropertyType propertyType;
+        long priceCents;
+        long squareFeetCents;  // 0 when unknown
+    }
+
+    private static final class Segment {
+        final MarketStats.Scope scope;
+        final String value;
+        long count;
+        long priceCentsSum;
+        final TreeMap<Long, Integer> prices = new TreeMap<>();
+        final QuantileSketch priceSketch = new QuantileSketch(SKETCH_ACCURACY);
+        long areaCount;
+        long areaPriceCentsSum;  // price sum over listings with a known area
+        long areaCentsSum;
+        final QuantileSketch pricePerSquareFootSketch = new QuantileSketch(SKETCH_ACCURACY);
+        MarketStats summary;  // null when stale
+
+        Segment(MarketStats.Scope scope, String value) {
+            this.scope = scope;
+            this.value = value;
+        }
+
+        void apply(IndexedDoc doc, int sign) {
+            count += sign;
+            priceCentsSum += sign * doc.priceCents;
+            prices.merge(doc.priceCents, sign, Integer::sum);
+            if (prices.get(doc.priceCents) <= 0) {
+                prices.remove(doc.priceCents);
+            }
+            if (sign > 0) {
+                priceSketch.add(doc.priceCents);
+            } else {
+                priceSketch.remove(doc.priceCents);
+            }
+            if (doc.squareFeetCents > 0) {
+                areaCount += sign;
+                areaPriceCentsSum += sign * doc.priceCents;
+                areaCentsSum += sign * doc.squareFeetCents;
+                double pricePerSquareFoot = (double) doc.priceCents / doc.squareFeetCents;
+                if (sign > 0) {
+                    pricePerSquareFootSketch.add(pricePerSquareFoot);
+                } else {
+                    pricePerSquareFootSketch.remove(pricePerSquareFoot);
+                }
+            }
+            summary = null;
+        }
+
+        // Bucket midpoints can fall outside the observed range; the exact bounds are known
+        long priceQuantile(double q) {
+            long estimate = Math.round(priceSketch.quantile(q));
+            return Math.max(prices.firstKey(), Math.min(prices.lastKey(), estimate));
+        }
+
+        MarketStats summarize() {
+            MarketStats.MarketStatsBuilder stats = MarketStats.builder()
+                    .scope(scope)
+                    .value(value)
+                    .count(count)
+                    .countWithSquareFeet(areaCount);
+            if (count > 0) {
+                stats.averagePrice(cents(priceCentsSum).divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP))
+                        .minPrice(cents(prices.firstKey()))
+                        .maxPrice(cents(prices.lastKey()))
+                        .medianPrice(cents(priceQuantile(0.5)))
+                        .p90Price(cents(priceQuantile(0.9)));
+            }
+            if (areaCount > 0) {
+                // Both sums are in hundredths, so their ratio is the price per square foot
+                stats.averagePricePerSquareFoot(BigDecimal.valueOf(areaPriceCentsSum)
+                                .divide(BigDecimal.valueOf(areaCentsSum), 2, RoundingMode.HALF_UP))
+                        .medianPricePerSquareFoot(BigDecimal.valueOf(pricePerSquareFootSketch.quantile(0.5))
+                                .setScale(2, RoundingMode.HALF_UP));
+            }
+            return stats.build();
+        }
+    }
+
+    private final Segment all = new Segment(MarketStats.Scope.ALL, null);
+    private final Map<String, Segment> byCity = new HashMap<>();
+    private final Map<String, Segment> byState = new HashMap<>();
+    private final Map<PropertyType, Segment> byPropertyType = new EnumMap<>(PropertyType.class);
+    private final Map<Long, IndexedDoc> docs = new HashMap<>();
+
+    @Override
+    public synchronized void index(Property property) {
+        removeDoc(property.getId());
+        if (!Boolean.TRUE.equals(property.getAvailable()) || property.getPrice() == null) {
+            return;
+        }
+        IndexedDoc doc = new IndexedDoc();
+        doc.cityKey = key(property.getCity());
+        doc.city = property.getCity();
+        doc.stateKey = key(property.getState());
+        doc.state = property.getState();
+        doc.propertyType = property.getPropertyType();
+        doc.priceCents = toCents(property.getPrice());
+        doc.squareFeetCents = property.getSquareFeet() != null ? toCents(property.getSquareFeet()) : 0L;
+        docs.put(property.getId(), doc);
+
+        all.apply(doc, 1);
+        byCity.computeIfAbsent(doc.cityKey, k -> new Segment(MarketStats.Scope.CITY, doc.city)).apply(doc, 1);
+        byState.computeIfAbsent(doc.stateKey, k -> new Segment(MarketStats.Scope.STATE, doc.state)).apply(doc, 1);
+        if (doc.propertyType != null) {
+            byPropertyType.computeIfAbsent(doc.propertyType,
+                    k -> new Segment(MarketStats.Scope.PROPERTY_TYPE, k.name())).apply(doc, 1);
+        }
+    }
+
+    @Override
+    public synchronized void remove(Long propertyId) {
+        removeDoc(propertyId);
+    }
+
+    public synchronized MarketStats overall() {
+        return summary(all);
+    }
+
+    /**
+     * Statistics for a city, matched case- and accent-insensitively; empty when it has no listings.
+     */
+    public synchronized Optional<MarketStats> forCity(String city) {
+        return Optional.ofNullable(byCity.get(key(city))).map(this::summary);
+    }
+
+    public synchronized Optional<MarketStats> forState(String state) {
+        return Optional.ofNullable(byState.get(key(state))).map(this::summary);
+    }
+
+    public synchronized Optional<MarketStats> forPropertyType(PropertyType propertyType) {
+        return Optional.ofNullable(byPropertyType.get(propertyType)).map(this::summary);
+    }
+
+    private MarketStats summary(Segment segment) {
+        if (segment.summary == null) {
+            segment.summary = segment.summarize();
+        }
+        return segment.summary;
+    }
+
+    private void removeDoc(Long propertyId) {
+        IndexedDoc doc = docs.remove(propertyId);
+        if (doc == null) {
+            return;
+        }
+        all.apply(doc, -1);
+        release(byCity, doc.cityKey, doc);
+        release(byState, doc.stateKey, doc);
+        if (doc.propertyType != null) {
+            release(byPropertyType, doc.propertyType, doc);
+        }
+    }
+
+    private static <K> void release(Map<K, Segment> segments, K key, IndexedDoc doc) {
+        Segment segment = segments.get(key);
+        if (segment != null) {
+            segment.apply(doc, -1);
+            if (segment.count <= 0) {
+                segments.remove(key);
+            }
+        }
+    }
+
+    private static String key(String value) {
+        return Objects.toString(Property.locationKey(value), "");
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue();
+    }
+
+    private static BigDecimal cents(long amount) {
+        return BigDecimal.valueOf(amount, 2);
+    }
+}
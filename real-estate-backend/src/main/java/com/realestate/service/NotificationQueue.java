@@ -0,0 +1,139 @@
+package com.realestate.service;
+
+import com.realestate.model.NotificationType;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Buffers in-app notifications and writes them to the notifications table in JDBC batches on
+ * a schedule, so producers never wait on the database. The buffer is bounded by
+ * {@code notifications.queue-capacity}: when it is full new notifications are dropped and
+ * counted rather than blocking the caller, unless the caller chooses to wait. Queued
+ * notifications are lost if the process dies.
+ */
+@Component
+public class NotificationQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationQueue.class);
+    private static final int FLUSH_BATCH_SIZE = 500;
+
+    // Repeats of a saved-search match hit the unique key and are skipped
+    private static final String INSERT = "INSERT INTO notifications "
+            + "(user_id, type, property_id, saved_search_id, message, is_read, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, FALSE, ?) ON DUPLICATE KEY UPDATE id = id";
+
+    private record Pending(Long userId, NotificationType type, Long propertyId, Long savedSearchId,
+                           String message, LocalDateTime createdAt) {
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Value("${notifications.queue-capacity:10000}")
+    private int capacity;
+
+    private BlockingQueue<Pending> pending;
+    private final AtomicLong dropped = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        pending = new ArrayBlockingQueue<>(capacity);
+    }
+
+    /**
+     * Queue a notification. Returns false, without waiting, when the queue is full.
+     */
+    public boolean enqueue(Long userId, NotificationType type, Long propertyId, Long savedSearchId, String message) {
+        boolean queued = pending.offer(new Pending(userId, type, propertyId, savedSearchId, message, LocalDateTime.now()));
+        if (!queued) {
+            dropped.incrementAndGet();
+        }
+        return queued;
+    }
+
+    /**
+     * Queue a notification, waiting up to the timeout for room. For background producers that
+     * should slow down to the rate notifications are written rather than lose them.
+     */
+    public boolean enqueue(Long userId, NotificationType type, Long propertyId, Long savedSearchId, String message,
+                           long timeout, TimeUnit unit) throws InterruptedException {
+        return pending.offer(new Pending(userId, type, propertyId, savedSearchId, message, LocalDateTime.now()),
+                timeout, unit);
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.flush-interval-ms:2000}")
+    public synchronized void flush() {
+        long lost = dropped.getAndSet(0);
+        if (lost > 0) {
+            logger.warn("Notification queue was full; dropped {} notifications", lost);
+        }
+        List<Pending> batch = new ArrayList<>(FLUSH_BATCH_SIZE);
+        while (pending.drainTo(batch, FLUSH_BATCH_SIZE) > 0) {
+            try {
+                Set<Long> users = existing("users", batch, Pending::userId);
+                Set<Long> properties = existing("properties", batch, Pending::propertyId);
+                List<Object[]> rows = new ArrayList<>(batch.size());
+                for (Pending notification : batch) {
+                    if (!users.contains(notification.userId())
+                            || notification.propertyId() != null && !properties.contains(notification.propertyId())) {
+                        continue;
+                    }
+                    rows.add(new Object[]{notification.userId(), notification.type().name(), notification.propertyId(),
+                            notification.savedSearchId(), notification.message(), Timestamp.valueOf(notification.createdAt())});
+                }
+                if (!rows.isEmpty()) {
+                    jdbcTemplate.batchUpdate(INSERT, rows);
+                }
+            } catch (RuntimeException e) {
+                // Not requeued: a batch the database rejects would fail again on every flush
+                logger.error("Failed to write {} notifications: {}", batch.size(), e.getMessage(), e);
+            }
+            batch.clear();
+        }
+    }
+
+    // A user or property deleted while its notifications were queued has already had its rows removed
+    private Set<Long> existing(String table, List<Pending> batch, Function<Pending, Long> column) {
+        Set<Long> ids = new HashSet<>();
+        batch.forEach(notification -> {
+            Long id = column.apply(notification);
+            if (id != null) {
+                ids.add(id);
+            }
+        });
+        if (ids.isEmpty()) {
+            return ids;
+        }
+        return new HashSet<>(namedParameterJdbcTemplate.queryForList(
+                "SELECT id FROM " + table + " WHERE id IN (:ids)", Map.of("ids", ids), Long.class));
+    }
+
+    @PreDestroy
+    void drain() {
+        flush();
+    }
+}
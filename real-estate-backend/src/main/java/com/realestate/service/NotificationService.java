@@ -0,0 +1,50 @@
+package com.realestate.service;
+
+import com.realestate.exception.ResourceNotFoundException;
+import com.realestate.model.Notification;
+import com.realestate.repository.NotificationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+@Transactional
+public class NotificationService {
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Transactional(readOnly = true)
+    public List<Notification> getUserNotifications(Long userId, boolean unreadOnly, int limit) {
+        PageRequest page = PageRequest.of(0, limit);
+        return unreadOnly
+                ? notificationRepository.findByUserIdAndIsReadFalseOrderByCreatedAtDescIdDesc(userId, page)
+                : notificationRepository.findByUserIdOrderByCreatedAtDescIdDesc(userId, page);
+    }
+
+    @Transactional(readOnly = true)
+    public Long getUnreadCount(Long userId) {
+        return notificationRepository.countByUserIdAndIsReadFalse(userId);
+    }
+
+    public Notification markAsRead(Long id) {
+        Notification notification = notificationRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Notification", "id", id));
+        notification.setIsRead(true);
+        return notificationRepository.save(notification);
+    }
+
+    public int markAllAsRead(Long userId) {
+        return notificationRepository.markAllReadByUserId(userId);
+    }
+
+    public void deleteNotification(Long id) {
+        if (!notificationRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Notification", "id", id);
+        }
+        notificationRepository.deleteById(id);
+    }
+}
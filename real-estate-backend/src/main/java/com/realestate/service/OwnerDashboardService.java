@@ -0,0 +1,204 @@
+package com.realestate.service;
+
+import com.realestate.dto.OwnerDashboardResponse;
+import com.realestate.dto.PageResponse;
+import com.realestate.dto.PropertyResponse;
+import com.realestate.exception.ResourceNotFoundException;
+import com.realestate.model.ContactAgent;
+import com.realestate.model.ScheduleViewing;
+import com.realestate.model.User;
+import com.realestate.model.ViewingStatus;
+import com.realestate.repository.ContactAgentRepository;
+import com.realestate.repository.ScheduleViewingRepository;
+import com.realestate.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Reads an owner's dashboard in one request. The owner is looked up once, then the sections
+ * are read concurrently on virtual threads, each in its own read-only transaction, and the
+ * request waits for them until {@code dashboard.timeout-ms} has passed. Sections still running
+ * then are cancelled and reported as incomplete, as are sections that failed.
+ * <p>
+ * Every section holds a pooled connection while it runs, so the reads of all dashboards
+ * together are capped by {@code dashboard.max-concurrent-reads}; a read that can't get a
+ * permit before the deadline counts as timed out.
+ */
+@Service
+public class OwnerDashboardService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OwnerDashboardService.class);
+    private static final List<ViewingStatus> UPCOMING = List.of(ViewingStatus.PENDING, ViewingStatus.CONFIRMED);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private ScheduleViewingRepository scheduleViewingRepository;
+
+    @Autowired
+    private ContactAgentRepository contactAgentRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${dashboard.timeout-ms:2000}")
+    private long timeoutMs;
+
+    @Value("${dashboard.max-concurrent-reads:6}")
+    private int maxConcurrentReads;
+
+    private ExecutorService executor;
+    private Semaphore reads;
+    private TransactionTemplate readOnly;
+
+    @PostConstruct
+    void init() {
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        reads = new Semaphore(maxConcurrentReads);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * @param pageSize size of the first page of the owner's properties
+     * @param limit    most upcoming viewings and recent inquiries to include
+     */
+    public OwnerDashboardResponse getDashboard(Long ownerId, int pageSize, int limit) {
+        User owner = userRepository.findById(ownerId)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "id", ownerId));
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+
+        Future<PageResponse<PropertyResponse>> properties = submit(deadline,
+                () -> propertyService.getPropertiesByOwnerPaged(ownerId, 0, pageSize));
+        Future<List<OwnerDashboardResponse.ViewingSummary>> upcomingViewings = submit(deadline,
+                () -> readOnly.execute(status -> scheduleViewingRepository
+                        .findUpcomingForPropertyOwner(ownerId, LocalDate.now(), UPCOMING, PageRequest.of(0, limit))
+                        .stream()
+                        .map(OwnerDashboardService::toSummary)
+                        .toList()));
+        Future<Map<ViewingStatus, Long>> viewingCounts = submit(deadline,
+                () -> readOnly.execute(status -> {
+                    Map<ViewingStatus, Long> counts = new EnumMap<>(ViewingStatus.class);
+                    for (Object[] row : scheduleViewingRepository.countByStatusForPropertyOwner(ownerId)) {
+                        counts.put((ViewingStatus) row[0], (Long) row[1]);
+                    }
+                    return counts;
+                }));
+        Future<List<OwnerDashboardResponse.InquirySummary>> recentInquiries = submit(deadline,
+                () -> readOnly.execute(status -> contactAgentRepository
+                        .findRecentForPropertyOwner(ownerId, PageRequest.of(0, limit))
+                        .stream()
+                        .map(OwnerDashboardService::toSummary)
+                        .toList()));
+        Future<Long> unreadInquiries = submit(deadline,
+                () -> readOnly.execute(status -> contactAgentRepository.countByIsReadFalseAndPropertyOwnerId(ownerId)));
+
+        List<String> incomplete = new ArrayList<>();
+        return OwnerDashboardResponse.builder()
+                .owner(PropertyResponse.OwnerSummary.builder()
+                        .id(owner.getId())
+                        .fullName(owner.getFullName())
+                        .email(owner.getEmail())
+                        .phone(owner.getPhone())
+                        .company(owner.getCompany())
+                        .profileImageUrl(owner.getProfileImageUrl())
+                        .build())
+                .properties(await("properties", properties, deadline, ownerId, incomplete))
+                .upcomingViewings(await("upcomingViewings", upcomingViewings, deadline, ownerId, incomplete))
+                .viewingCounts(await("viewingCounts", viewingCounts, deadline, ownerId, incomplete))
+                .recentInquiries(await("recentInquiries", recentInquiries, deadline, ownerId, incomplete))
+                .unreadInquiries(await("unreadInquiries", unreadInquiries, deadline, ownerId, incomplete))
+                .incomplete(incomplete)
+                .build();
+    }
+
+    private <T> Future<T> submit(long deadline, Callable<T> read) {
+        return executor.submit(() -> {
+            if (!reads.tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                throw new TimeoutException("No read permit before the deadline");
+            }
+            try {
+                return read.call();
+            } finally {
+                reads.release();
+            }
+        });
+    }
+
+    private static <T> T await(String section, Future<T> future, long deadline, Long ownerId, List<String> incomplete) {
+        try {
+            return future.get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            logger.warn("Dashboard section {} for owner {} missed the deadline", section, ownerId);
+        } catch (ExecutionException e) {
+            logger.error("Dashboard section {} for owner {} failed: {}", section, ownerId,
+                    e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+        }
+        incomplete.add(section);
+        return null;
+    }
+
+    private static OwnerDashboardResponse.ViewingSummary toSummary(ScheduleViewing viewing) {
+        return OwnerDashboardResponse.ViewingSummary.builder()
+                .id(viewing.getId())
+                .propertyId(viewing.getProperty().getId())
+                .propertyTitle(viewing.getProperty().getTitle())
+                .userId(viewing.getUser().getId())
+                .userName(viewing.getUser().getFullName())
+                .viewingDate(viewing.getViewingDate())
+                .viewingTime(viewing.getViewingTime())
+                .status(viewing.getStatus())
+                .notes(viewing.getNotes())
+                .build();
+    }
+
+    private static OwnerDashboardResponse.InquirySummary toSummary(ContactAgent contact) {
+        return OwnerDashboardResponse.InquirySummary.builder()
+                .id(contact.getId())
+                .propertyId(contact.getProperty().getId())
+                .propertyTitle(contact.getProperty().getTitle())
+                .senderName(contact.getSenderName())
+                .senderEmail(contact.getSenderEmail())
+                .senderPhone(contact.getSenderPhone())
+                .subject(contact.getSubject())
+                .message(contact.getMessage())
+                .isRead(contact.getIsRead())
+                .createdAt(contact.getCreatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,87 @@
+package com.realestate.service;
+
+import com.realestate.model.Property;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Set;
+
+/**
+ * Opaque continuation token for cursor-mode listing endpoints.
+ * A keyset cursor carries the (sortKey, id) of the last row served, so the next
+ * page is a seek rather than an OFFSET. Ranked in-memory results (keyword search)
+ * use an offset cursor into the ranked id list instead.
+ */
+public record PageCursor(String sortBy, boolean ascending, String lastValue, Long lastId, Integer offset) {
+
+    // Non-null columns only; a NULL sort value cannot be sought past
+    public static final Set<String> KEYSET_SORT_KEYS = Set.of("createdAt", "updatedAt", "price", "id");
+
+    private static final String KEYSET = "k";
+    private static final String OFFSET = "o";
+    private static final String SEPARATOR = "|";
+
+    public static PageCursor after(Property last, String sortBy, boolean ascending) {
+        return new PageCursor(sortBy, ascending, String.valueOf(sortValue(last, sortBy)), last.getId(), null);
+    }
+
+    public static PageCursor atOffset(int offset, String sortBy, boolean ascending) {
+        return new PageCursor(sortBy, ascending, null, null, offset);
+    }
+
+    public boolean isOffset() {
+        return offset != null;
+    }
+
+    /**
+     * The last sort value converted back to the attribute's Java type.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Comparable<? super T>> T typedLastValue() {
+        return (T) switch (sortBy) {
+            case "createdAt", "updatedAt" -> LocalDateTime.parse(lastValue);
+            case "price" -> new BigDecimal(lastValue);
+            case "id" -> Long.valueOf(lastValue);
+            default -> throw new IllegalArgumentException("Unsupported cursor sort key: " + sortBy);
+        };
+    }
+
+    public String encode() {
+        String direction = ascending ? "ASC" : "DESC";
+        String raw = isOffset()
+                ? String.join(SEPARATOR, OFFSET, sortBy, direction, String.valueOf(offset))
+                : String.join(SEPARATOR, KEYSET, sortBy, direction, lastValue, String.valueOf(lastId));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PageCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, -1);
+            boolean ascending = "ASC".equals(parts[2]);
+            if (OFFSET.equals(parts[0]) && parts.length == 4) {
+                return atOffset(Integer.parseInt(parts[3]), parts[1], ascending);
+            }
+            if (KEYSET.equals(parts[0]) && parts.length == 5 && KEYSET_SORT_KEYS.contains(parts[1])) {
+                PageCursor cursor = new PageCursor(parts[1], ascending, parts[3], Long.valueOf(parts[4]), null);
+                cursor.typedLastValue();
+                return cursor;
+            }
+        } catch (RuntimeException e) {
+            // fall through to the uniform error below
+        }
+        throw new IllegalArgumentException("Invalid page cursor");
+    }
+
+    private static Object sortValue(Property property, String sortBy) {
+        return switch (sortBy) {
+            case "createdAt" -> property.getCreatedAt();
+            case "updatedAt" -> property.getUpdatedAt();
+            case "price" -> property.getPrice();
+            case "id" -> property.getId();
+            default -> throw new IllegalArgumentException("Unsupported cursor sort key: " + sortBy);
+        };
+    }
+}
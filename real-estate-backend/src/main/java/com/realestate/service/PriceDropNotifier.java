@@ -0,0 +1,152 @@
+package com.realestate.service;
+
+import com.realestate.event.PropertyPriceChangeEvent;
+import com.realestate.model.NotificationType;
+import com.realestate.repository.FavoriteRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.text.NumberFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tells the users who favorited a property when its price drops. The committed price change
+ * only records the property as pending; a small worker pool later walks its favorites in
+ * keyset chunks of {@code price-alerts.chunk-size}, each a short query of its own, and queues
+ * one notification per user on NotificationQueue, waiting for room so that a listing with a
+ * hundred thousand favorites is written at the queue's pace instead of all at once.
+ * <p>
+ * Changes to a property that is still pending are folded into one, from the first old price
+ * to the latest new one, so a price cut and its correction before the fan-out starts notify
+ * nobody. At most {@code price-alerts.max-pending} properties wait for a worker; beyond that
+ * alerts are dropped and logged. Pending alerts are lost if the process stops.
+ */
+@Component
+public class PriceDropNotifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(PriceDropNotifier.class);
+    private static final long ENQUEUE_WAIT_SECONDS = 30;
+
+    @Autowired
+    private FavoriteRepository favoriteRepository;
+
+    @Autowired
+    private NotificationQueue notificationQueue;
+
+    @Value("${price-alerts.threads:2}")
+    private int threads;
+
+    @Value("${price-alerts.max-pending:1000}")
+    private int maxPending;
+
+    @Value("${price-alerts.chunk-size:1000}")
+    private int chunkSize;
+
+    // Latest unsent change per property; a property has a fan-out scheduled while it is here
+    private final Map<Long, PropertyPriceChangeEvent> pending = new ConcurrentHashMap<>();
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxPending), runnable -> {
+                    Thread thread = new Thread(runnable, "price-alerts-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPriceChange(PropertyPriceChangeEvent event) {
+        boolean[] schedule = {false};
+        pending.compute(event.getPropertyId(), (id, queued) -> {
+            if (queued != null) {
+                return queued.followedBy(event);
+            }
+            // A rise only matters when it offsets a drop that hasn't gone out yet
+            if (!event.isDrop()) {
+                return null;
+            }
+            schedule[0] = true;
+            return event;
+        });
+        if (!schedule[0]) {
+            return;
+        }
+        try {
+            executor.execute(() -> fanOut(event.getPropertyId()));
+        } catch (RejectedExecutionException e) {
+            pending.remove(event.getPropertyId());
+            logger.warn("Too many price alerts pending; dropped the alert for property {}", event.getPropertyId());
+        }
+    }
+
+    private void fanOut(Long propertyId) {
+        // Later changes schedule a fan-out of their own from here on
+        PropertyPriceChangeEvent change = pending.remove(propertyId);
+        if (change == null || !change.isDrop()) {
+            return;
+        }
+        String message = message(change);
+        long afterId = 0L;
+        int notified = 0;
+        try {
+            List<Object[]> chunk;
+            do {
+                chunk = favoriteRepository.findUserIdsByPropertyIdAfter(propertyId, afterId, PageRequest.of(0, chunkSize));
+                for (Object[] row : chunk) {
+                    afterId = (Long) row[0];
+                    Long userId = (Long) row[1];
+                    if (userId.equals(change.getOwnerId())) {
+                        continue;
+                    }
+                    if (!notificationQueue.enqueue(userId, NotificationType.PRICE_DROP, propertyId, null, message,
+                            ENQUEUE_WAIT_SECONDS, TimeUnit.SECONDS)) {
+                        logger.warn("Notification queue stayed full; stopped price alerts for property {} after {} users",
+                                propertyId, notified);
+                        return;
+                    }
+                    notified++;
+                }
+            } while (chunk.size() == chunkSize);
+            logger.info("Queued price drop alerts for property {} to {} users", propertyId, notified);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            logger.error("Failed to send price alerts for property {} after {} users: {}",
+                    propertyId, notified, e.getMessage(), e);
+        }
+    }
+
+    private static String message(PropertyPriceChangeEvent change) {
+        String message = "Price drop: " + change.getTitle() + " in " + change.getCity() + " is now "
+                + price(change.getNewPrice()) + ", down from " + price(change.getOldPrice());
+        return message.length() > 500 ? message.substring(0, 500) : message;
+    }
+
+    private static String price(BigDecimal value) {
+        return NumberFormat.getCurrencyInstance(Locale.US).format(value);
+    }
+}
@@ -0,0 +1,403 @@
+package com.realestate.service;
+
+import com.realestate.dto.PropertySearchRequest;
+import com.realestate.dto.SearchFacets;
+import com.realestate.model.ListingType;
+import com.realestate.model.Property;
+import com.realestate.model.PropertyType;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Posting bitmaps per attribute value for available properties, keyed by property id,
+ * plus range-encoded bitmaps for price and square footage. A search request's structured
+ * filters become bitmap intersections that resolve to a sorted id set before the database
+ * is touched, and facet counts are popcounts of those intersections instead of GROUP BY queries.
+ */
+@Component
+public class PropertyAttributeIndex implements PropertyIndex {
+
+    // Lower bounds of the price histogram buckets; the last bucket is open-ended.
+    // Every bound must also be a bound of PRICE_BINS.
+    private static final long[] PRICE_BUCKET_BOUNDS = {
+            0L, 1_000L, 2_500L, 5_000L, 10_000L, 50_000L, 100_000L, 250_000L,
+            500_000L, 1_000_000L, 2_500_000L, 5_000_000L, 10_000_000L
+    };
+
+    // Range-encoding bins, in whole currency units and square feet
+    private static final long[] PRICE_BINS = {
+            0L, 500L, 1_000L, 1_500L, 2_000L, 2_500L, 3_000L, 4_000L, 5_000L, 7_500L, 10_000L,
+            25_000L, 50_000L, 75_000L, 100_000L, 150_000L, 200_000L, 250_000L, 300_000L, 400_000L,
+            500_000L, 650_000L, 800_000L, 1_000_000L, 1_500_000L, 2_000_000L, 2_500_000L, 3_000_000L,
+            5_000_000L, 7_500_000L, 10_000_000L, 25_000_000L
+    };
+    private static final long[] SQUARE_FEET_BINS = {
+            0L, 250L, 500L, 750L, 1_000L, 1_250L, 1_500L, 1_750L, 2_000L, 2_500L, 3_000L,
+            3_500L, 4_000L, 5_000L, 7_500L, 10_000L, 20_000L, 50_000L
+    };
+    private static final int BEDROOM_BUCKET_MAX = 5;
+    private static final int MAX_CITY_FACETS = 50;
+
+    private enum Dimension {
+        CITY, PROPERTY_TYPE, LISTING_TYPE, BEDROOMS, PRICE
+    }
+
+    private static final class IndexedDoc {
+        String cityKey;
+        String stateKey;
+        PropertyType propertyType;
+        ListingType listingType;
+        Integer bedrooms;
+        Integer bathrooms;
+        long priceCents;
+        Long squareFeetCents;  // hundredths of a square foot; null when unknown
+        long createdAt;
+        long updatedAt;
+    }
+
+    private final CompressedBitmap all = new CompressedBitmap();
+    private final NavigableMap<String, CompressedBitmap> byCity = new TreeMap<>();
+    private final Map<String, String> cityNames = new HashMap<>();
+    private final NavigableMap<String, CompressedBitmap> byState = new TreeMap<>();
+    private final Map<PropertyType, CompressedBitmap> byPropertyType = new EnumMap<>(PropertyType.class);
+    private final Map<ListingType, CompressedBitmap> byListingType = new EnumMap<>(ListingType.class);
+    private final NavigableMap<Integer, CompressedBitmap> byBedrooms = new TreeMap<>();
+    private final NavigableMap<Integer, CompressedBitmap> byBathrooms = new TreeMap<>();
+    private final RangeEncodedBitmap byPrice = new RangeEncodedBitmap(toCents(PRICE_BINS));
+    private final RangeEncodedBitmap bySquareFeet = new RangeEncodedBitmap(toCents(SQUARE_FEET_BINS));
+    private final Map<Integer, IndexedDoc> docs = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Override
+    public void index(Property property) {
+        if (!Boolean.TRUE.equals(property.getAvailable())) {
+            remove(property.getId());
+            return;
+        }
+        int id = Math.toIntExact(property.getId());
+        IndexedDoc doc = new IndexedDoc();
+        doc.cityKey = Objects.toString(Property.locationKey(property.getCity()), "");
+        doc.stateKey = Objects.toString(Property.locationKey(property.getState()), "");
+        doc.propertyType = property.getPropertyType();
+        doc.listingType = property.getListingType();
+        doc.bedrooms = property.getBedrooms();
+        doc.bathrooms = property.getBathrooms();
+        doc.priceCents = toCents(property.getPrice(), RoundingMode.HALF_UP);
+        doc.squareFeetCents = property.getSquareFeet() != null
+                ? toCents(property.getSquareFeet(), RoundingMode.HALF_UP) : null;
+        doc.createdAt = property.getCreatedAt() != null ? property.getCreatedAt().toEpochSecond(ZoneOffset.UTC) : 0L;
+        doc.updatedAt = property.getUpdatedAt() != null ? property.getUpdatedAt().toEpochSecond(ZoneOffset.UTC) : 0L;
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            docs.put(id, doc);
+            all.add(id);
+            byCity.computeIfAbsent(doc.cityKey, k -> new CompressedBitmap()).add(id);
+            cityNames.putIfAbsent(doc.cityKey, property.getCity());
+            byState.computeIfAbsent(doc.stateKey, k -> new CompressedBitmap()).add(id);
+            if (doc.propertyType != null) {
+                byPropertyType.computeIfAbsent(doc.propertyType, k -> new CompressedBitmap()).add(id);
+            }
+            if (doc.listingType != null) {
+                byListingType.computeIfAbsent(doc.listingType, k -> new CompressedBitmap()).add(id);
+            }
+            if (doc.bedrooms != null) {
+                byBedrooms.computeIfAbsent(doc.bedrooms, k -> new CompressedBitmap()).add(id);
+            }
+            if (doc.bathrooms != null) {
+                byBathrooms.computeIfAbsent(doc.bathrooms, k -> new CompressedBitmap()).add(id);
+            }
+            byPrice.add(id, doc.priceCents);
+            if (doc.squareFeetCents != null) {
+                bySquareFeet.add(id, doc.squareFeetCents);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long propertyId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(Math.toIntExact(propertyId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Facet counts for the request's structured filters. Each dimension ignores its own filter.
+     *
+     * @param within ids to restrict every count to, e.g. a geo area; null for no restriction
+     */
+    public SearchFacets facets(PropertySearchRequest request, CompressedBitmap within) {
+        lock.readLock().lock();
+        try {
+            CompressedBitmap cityBase = filter(request, Dimension.CITY, within);
+            List<Map.Entry<String, Long>> cityCounts = new ArrayList<>();
+            for (Map.Entry<String, CompressedBitmap> entry : byCity.entrySet()) {
+                long count = cityBase.andCardinality(entry.getValue());
+                if (count > 0) {
+                    cityCounts.add(Map.entry(cityNames.get(entry.getKey()), count));
+                }
+            }
+            cityCounts.sort(Map.Entry.<String, Long>comparingByValue().reversed()
+                    .thenComparing(Map.Entry.comparingByKey()));
+            Map<String, Long> cities = new LinkedHashMap<>();
+            cityCounts.stream().limit(MAX_CITY_FACETS).forEach(e -> cities.put(e.getKey(), e.getValue()));
+
+            CompressedBitmap typeBase = filter(request, Dimension.PROPERTY_TYPE, within);
+            Map<PropertyType, Long> propertyTypes = new EnumMap<>(PropertyType.class);
+            for (PropertyType type : PropertyType.values()) {
+                CompressedBitmap bitmap = byPropertyType.get(type);
+                propertyTypes.put(type, bitmap == null ? 0L : typeBase.andCardinality(bitmap));
+            }
+
+            CompressedBitmap listingBase = filter(request, Dimension.LISTING_TYPE, within);
+            Map<ListingType, Long> listingTypes = new EnumMap<>(ListingType.class);
+            for (ListingType type : ListingType.values()) {
+                CompressedBitmap bitmap = byListingType.get(type);
+                listingTypes.put(type, bitmap == null ? 0L : listingBase.andCardinality(bitmap));
+            }
+
+            CompressedBitmap bedroomBase = filter(request, Dimension.BEDROOMS, within);
+            Map<String, Long> bedrooms = new LinkedHashMap<>();
+            for (int beds = 0; beds <= BEDROOM_BUCKET_MAX; beds++) {
+                boolean openEnded = beds == BEDROOM_BUCKET_MAX;
+                CompressedBitmap bucket = union(openEnded
+                        ? byBedrooms.tailMap(beds, true)
+                        : byBedrooms.subMap(beds, true, beds, true));
+                bedrooms.put(openEnded ? beds + "+" : String.valueOf(beds), (long) bedroomBase.andCardinality(bucket));
+            }
+
+            CompressedBitmap priceBase = filter(request, Dimension.PRICE, within);
+            List<SearchFacets.PriceBucket> priceBuckets = new ArrayList<>();
+            for (int i = 0; i < PRICE_BUCKET_BOUNDS.length; i++) {
+                boolean last = i == PRICE_BUCKET_BOUNDS.length - 1;
+                int fromBin = byPrice.binOf(PRICE_BUCKET_BOUNDS[i] * 100);
+                int toBin = last ? PRICE_BINS.length : byPrice.binOf(PRICE_BUCKET_BOUNDS[i + 1] * 100);
+                priceBuckets.add(SearchFacets.PriceBucket.builder()
+                        .minPrice(BigDecimal.valueOf(PRICE_BUCKET_BOUNDS[i]))
+                        .maxPrice(last ? null : BigDecimal.valueOf(PRICE_BUCKET_BOUNDS[i + 1]))
+                        .count(priceBase.andCardinality(byPrice.bins(fromBin, toBin)))
+                        .build());
+            }
+
+            return SearchFacets.builder()
+                    .cities(cities)
+                    .propertyTypes(propertyTypes)
+                    .listingTypes(listingTypes)
+                    .bedrooms(bedrooms)
+                    .priceBuckets(priceBuckets)
+                    .build();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Resolve the request's structured filters to matching ids, ordered by the given sort key.
+     *
+     * @param sortBy one of createdAt, updatedAt, price, squareFeet, bedrooms, bathrooms, id
+     * @param limit  number of leading ids to return; the total match count is always exact
+     * @param within ids to restrict the matches to, e.g. a geo area; null for no restriction
+     * @return empty when the sort key is not held by the index
+     */
+    public Optional<IndexHits> search(PropertySearchRequest request, CompressedBitmap within,
+                                      String sortBy, boolean ascending, int limit) {
+        Comparator<Integer> order = sortOrder(sortBy);
+        if (order == null) {
+            return Optional.empty();
+        }
+        order = order.thenComparing(Comparator.naturalOrder());
+        if (!ascending) {
+            order = order.reversed();
+        }
+
+        lock.readLock().lock();
+        try {
+            CompressedBitmap matches = filter(request, null, within);
+            return Optional.of(new IndexHits(topN(matches, order, limit), matches.cardinality()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids matching the request's structured filters, for callers that order the matches themselves.
+     * The returned bitmap is the caller's own copy.
+     */
+    public CompressedBitmap matching(PropertySearchRequest request, CompressedBitmap within) {
+        lock.readLock().lock();
+        try {
+            CompressedBitmap matches = filter(request, null, within);
+            return matches == all ? all.copy() : matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Available properties matching the request's structured filters, with the same
+     * semantics as PropertySpecifications.matchesSearch. Caller must hold the read lock.
+     */
+    private CompressedBitmap filter(PropertySearchRequest request, Dimension exclude, CompressedBitmap within) {
+        CompressedBitmap result = within != null ? all.and(within) : all;
+        if (exclude != Dimension.CITY && request.getCity() != null) {
+            result = result.and(withPrefix(byCity, request.getCity()));
+        }
+        if (request.getState() != null) {
+            result = result.and(withPrefix(byState, request.getState()));
+        }
+        if (exclude != Dimension.PROPERTY_TYPE && request.getPropertyType() != null) {
+            result = result.and(byPropertyType.getOrDefault(request.getPropertyType(), new CompressedBitmap()));
+        }
+        if (exclude != Dimension.LISTING_TYPE && request.getListingType() != null) {
+            result = result.and(byListingType.getOrDefault(request.getListingType(), new CompressedBitmap()));
+        }
+        if (exclude != Dimension.BEDROOMS && (request.getMinBedrooms() != null || request.getMaxBedrooms() != null)) {
+            result = result.and(union(range(byBedrooms, request.getMinBedrooms(), request.getMaxBedrooms())));
+        }
+        if (request.getMinBathrooms() != null || request.getMaxBathrooms() != null) {
+            result = result.and(union(range(byBathrooms, request.getMinBathrooms(), request.getMaxBathrooms())));
+        }
+        if (exclude != Dimension.PRICE && (request.getMinPrice() != null || request.getMaxPrice() != null)) {
+            long min = request.getMinPrice() != null ? toCents(request.getMinPrice(), RoundingMode.CEILING) : Long.MIN_VALUE;
+            long max = request.getMaxPrice() != null ? toCents(request.getMaxPrice(), RoundingMode.FLOOR) : Long.MAX_VALUE;
+            result = result.and(byPrice.range(min, max, id -> {
+                long price = docs.get(id).priceCents;
+                return price >= min && price <= max;
+            }));
+        }
+        if (request.getMinSquareFeet() != null || request.getMaxSquareFeet() != null) {
+            long min = request.getMinSquareFeet() != null ? toCents(request.getMinSquareFeet(), RoundingMode.CEILING) : Long.MIN_VALUE;
+            long max = request.getMaxSquareFeet() != null ? toCents(request.getMaxSquareFeet(), RoundingMode.FLOOR) : Long.MAX_VALUE;
+            result = result.and(bySquareFeet.range(min, max, id -> {
+                long area = docs.get(id).squareFeetCents;
+                return area >= min && area <= max;
+            }));
+        }
+        return result;
+    }
+
+    // Caller must hold the read lock while the comparator reads docs
+    private Comparator<Integer> sortOrder(String sortBy) {
+        return switch (sortBy == null ? "" : sortBy) {
+            case "createdAt" -> Comparator.comparingLong(id -> docs.get(id).createdAt);
+            case "updatedAt" -> Comparator.comparingLong(id -> docs.get(id).updatedAt);
+            case "price" -> Comparator.comparingLong(id -> docs.get(id).priceCents);
+            // Unknown values sort first, matching NULLS FIRST for ascending order
+            case "squareFeet" -> Comparator.comparingLong(id -> nullToMin(docs.get(id).squareFeetCents));
+            case "bedrooms" -> Comparator.comparingLong(id -> nullToMin(docs.get(id).bedrooms));
+            case "bathrooms" -> Comparator.comparingLong(id -> nullToMin(docs.get(id).bathrooms));
+            case "id" -> Comparator.naturalOrder();
+            default -> null;
+        };
+    }
+
+    private static long nullToMin(Number value) {
+        return value != null ? value.longValue() : Long.MIN_VALUE;
+    }
+
+    private static List<Long> topN(CompressedBitmap matches, Comparator<Integer> order, int limit) {
+        if (limit <= 0) {
+            return new ArrayList<>();
+        }
+        // Bounded heap whose head is the worst of the current best `limit` ids
+        PriorityQueue<Integer> heap = new PriorityQueue<>(limit + 1, order.reversed());
+        matches.forEach(id -> {
+            heap.offer(id);
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        });
+        List<Integer> sorted = new ArrayList<>(heap);
+        sorted.sort(order);
+        List<Long> ids = new ArrayList<>(sorted.size());
+        sorted.forEach(id -> ids.add(id.longValue()));
+        return ids;
+    }
+
+    // Prefix match on location keys, like PropertySpecifications.matchesSearch: a range of the sorted keys
+    private static CompressedBitmap withPrefix(NavigableMap<String, CompressedBitmap> byKey, String value) {
+        String prefix = Objects.toString(Property.locationKey(value), "");
+        return union(byKey.subMap(prefix, true, prefix + Character.MAX_VALUE, false));
+    }
+
+    private static NavigableMap<Integer, CompressedBitmap> range(NavigableMap<Integer, CompressedBitmap> byValue,
+                                                                  Integer min, Integer max) {
+        return byValue.subMap(min != null ? min : Integer.MIN_VALUE, true, max != null ? max : Integer.MAX_VALUE, true);
+    }
+
+    private static CompressedBitmap union(Map<?, CompressedBitmap> bitmaps) {
+        CompressedBitmap result = new CompressedBitmap();
+        for (CompressedBitmap bitmap : bitmaps.values()) {
+            result = result.or(bitmap);
+        }
+        return result;
+    }
+
+    private static long toCents(BigDecimal amount, RoundingMode rounding) {
+        return amount == null ? 0L : amount.movePointRight(2).setScale(0, rounding).longValue();
+    }
+
+    private static long[] toCents(long[] amounts) {
+        long[] cents = new long[amounts.length];
+        for (int i = 0; i < amounts.length; i++) {
+            cents[i] = amounts[i] * 100;
+        }
+        return cents;
+    }
+
+    private void removeLocked(int id) {
+        IndexedDoc previous = docs.remove(id);
+        if (previous == null) {
+            return;
+        }
+        all.remove(id);
+        removeFrom(byCity, previous.cityKey, id);
+        if (!byCity.containsKey(previous.cityKey)) {
+            cityNames.remove(previous.cityKey);
+        }
+        removeFrom(byState, previous.stateKey, id);
+        removeFrom(byPropertyType, previous.propertyType, id);
+        removeFrom(byListingType, previous.listingType, id);
+        removeFrom(byBedrooms, previous.bedrooms, id);
+        removeFrom(byBathrooms, previous.bathrooms, id);
+        byPrice.remove(id, previous.priceCents);
+        if (previous.squareFeetCents != null) {
+            bySquareFeet.remove(id, previous.squareFeetCents);
+        }
+    }
+
+    private static <K> void removeFrom(Map<K, CompressedBitmap> byKey, K key, int id) {
+        if (key == null) {
+            return;
+        }
+        CompressedBitmap bitmap = byKey.get(key);
+        if (bitmap != null) {
+            bitmap.remove(id);
+            if (bitmap.isEmpty()) {
+                byKey.remove(key);
+            }
+        }
+    }
+}
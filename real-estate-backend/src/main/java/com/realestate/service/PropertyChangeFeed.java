@@ -0,0 +1,270 @@
+package com.realestate.service;
+
+import com.realestate.dto.PropertyChange;
+import com.realestate.dto.PropertyChangeBatch;
+import com.realestate.event.PropertyChangeEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-process feed of committed property changes for incremental client sync. Changes get
+ * increasing sequence numbers and the latest {@code property.feed.capacity} are kept in a
+ * ring buffer. Clients resume from the event id they last saw, over Server-Sent Events or by
+ * polling, and receive only later changes. A client whose position has been overwritten, or
+ * comes from before a restart, gets a reset and must reload.
+ * <p>
+ * Event ids are "epoch-sequence", where the epoch is this process's start time, so ids from
+ * an earlier run are recognized instead of being mistaken for current positions.
+ */
+@Component
+public class PropertyChangeFeed {
+
+    private static final Logger logger = LoggerFactory.getLogger(PropertyChangeFeed.class);
+    private static final int MAX_BATCH = 500;
+
+    private static final class Subscriber {
+        final SseEmitter emitter;
+        long cursor;  // last sequence sent
+        boolean resetPending;
+        final AtomicBoolean scheduled = new AtomicBoolean();
+
+        Subscriber(SseEmitter emitter, long cursor, boolean resetPending) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+            this.resetPending = resetPending;
+        }
+    }
+
+    @Autowired
+    private PropertyResponseAssembler propertyResponseAssembler;
+
+    @Value("${property.feed.capacity:10000}")
+    private int capacity;
+
+    @Value("${property.feed.emitter-timeout-ms:1800000}")
+    private long emitterTimeoutMs;
+
+    private final long epoch = System.currentTimeMillis();
+    private PropertyChange[] ring;
+    private long lastSequence;  // guarded by this
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    // Sends block on slow clients, so each drain runs on its own virtual thread
+    private final ExecutorService dispatcher = Executors.newVirtualThreadPerTaskExecutor();
+
+    @PostConstruct
+    void allocate() {
+        if (capacity <= 0) {
+            throw new IllegalStateException("property.feed.capacity must be positive");
+        }
+        ring = new PropertyChange[capacity];
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPropertyChange(PropertyChangeEvent event) {
+        try {
+            PropertyChange.PropertyChangeBuilder change = PropertyChange.builder()
+                    .type(typeOf(event))
+                    .propertyId(event.getPropertyId())
+                    .occurredAt(LocalDateTime.now())
+                    .property(event.getProperty() != null ? propertyResponseAssembler.toSnapshot(event.getProperty()) : null);
+            synchronized (this) {
+                long sequence = ++lastSequence;
+                ring[slot(sequence)] = change.sequence(sequence).eventId(eventId(sequence)).build();
+            }
+        } catch (Exception e) {
+            logger.error("Failed to record change of property {}: {}", event.getPropertyId(), e.getMessage(), e);
+            return;
+        }
+        subscribers.forEach(this::schedule);
+    }
+
+    /**
+     * Up to {@code limit} changes after {@code after}. Without a position, or with one the feed
+     * no longer holds, the batch is empty and flagged as a reset.
+     */
+    public PropertyChangeBatch changesAfter(String after, int limit) {
+        synchronized (this) {
+            Long from = after != null ? resumePoint(after) : null;
+            if (from == null) {
+                return PropertyChangeBatch.builder()
+                        .changes(new ArrayList<>())
+                        .lastEventId(eventId(lastSequence))
+                        .reset(true)
+                        .build();
+            }
+            List<PropertyChange> changes = changesSince(from, limit);
+            long last = changes.isEmpty() ? from : changes.get(changes.size() - 1).getSequence();
+            return PropertyChangeBatch.builder()
+                    .changes(changes)
+                    .lastEventId(eventId(last))
+                    .hasMore(last < lastSequence)
+                    .build();
+        }
+    }
+
+    /**
+     * Open a Server-Sent Events stream that starts after {@code lastEventId}, or with a reset
+     * event when there is none or it can no longer be served.
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscriber subscriber;
+        synchronized (this) {
+            Long from = lastEventId != null ? resumePoint(lastEventId) : null;
+            subscriber = new Subscriber(emitter, from != null ? from : lastSequence, from == null);
+            subscribers.add(subscriber);
+        }
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        schedule(subscriber);
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    // Comment lines keep proxies from closing idle streams and reveal disconnected clients
+    @Scheduled(fixedDelayString = "${property.feed.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            dispatcher.execute(() -> {
+                try {
+                    subscriber.emitter.send(SseEmitter.event().comment("keep-alive"));
+                } catch (IOException | IllegalStateException e) {
+                    drop(subscriber, e);
+                }
+            });
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        dispatcher.shutdownNow();
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.scheduled.compareAndSet(false, true)) {
+            dispatcher.execute(() -> drain(subscriber));
+        }
+    }
+
+    // Send everything after the subscriber's cursor; runs for one subscriber at a time
+    private void drain(Subscriber subscriber) {
+        try {
+            while (true) {
+                List<PropertyChange> batch;
+                long resetTo = -1;
+                synchronized (this) {
+                    if (subscriber.resetPending || subscriber.cursor < oldestRetained() - 1) {
+                        resetTo = lastSequence;
+                        batch = List.of();
+                    } else {
+                        batch = changesSince(subscriber.cursor, MAX_BATCH);
+                    }
+                }
+                if (resetTo >= 0) {
+                    String id = eventId(resetTo);
+                    subscriber.emitter.send(SseEmitter.event().name("reset").id(id)
+                            .data(Map.of("lastEventId", id), MediaType.APPLICATION_JSON));
+                    subscriber.cursor = resetTo;
+                    subscriber.resetPending = false;
+                    continue;
+                }
+                if (batch.isEmpty()) {
+                    break;
+                }
+                for (PropertyChange change : batch) {
+                    subscriber.emitter.send(SseEmitter.event().id(change.getEventId())
+                            .data(change, MediaType.APPLICATION_JSON));
+                    subscriber.cursor = change.getSequence();
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            drop(subscriber, e);
+            return;
+        } finally {
+            subscriber.scheduled.set(false);
+        }
+        // A change recorded after the last read but before the flag was cleared would be missed
+        boolean behind;
+        synchronized (this) {
+            behind = subscriber.cursor < lastSequence;
+        }
+        if (behind && subscribers.contains(subscriber)) {
+            schedule(subscriber);
+        }
+    }
+
+    private void drop(Subscriber subscriber, Exception cause) {
+        if (subscribers.remove(subscriber)) {
+            logger.debug("Dropping change feed subscriber: {}", cause.getMessage());
+            subscriber.emitter.completeWithError(cause);
+        }
+    }
+
+    // Caller must hold the lock; from must be a valid resume point
+    private List<PropertyChange> changesSince(long from, int limit) {
+        List<PropertyChange> changes = new ArrayList<>();
+        for (long sequence = from + 1; sequence <= lastSequence && changes.size() < limit; sequence++) {
+            changes.add(ring[slot(sequence)]);
+        }
+        return changes;
+    }
+
+    // Sequence to continue after, or null for ids from another run, the future or beyond the ring
+    private Long resumePoint(String eventId) {
+        int dash = eventId.indexOf('-');
+        try {
+            if (dash < 0 || Long.parseLong(eventId.substring(0, dash)) != epoch) {
+                return null;
+            }
+            long sequence = Long.parseLong(eventId.substring(dash + 1));
+            return sequence >= oldestRetained() - 1 && sequence <= lastSequence ? sequence : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private long oldestRetained() {
+        return Math.max(1, lastSequence - capacity + 1);
+    }
+
+    private int slot(long sequence) {
+        return (int) (sequence % capacity);
+    }
+
+    private String eventId(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    private static PropertyChange.Type typeOf(PropertyChangeEvent event) {
+        return switch (event.getType()) {
+            case CREATED -> PropertyChange.Type.CREATED;
+            case DELETED -> PropertyChange.Type.DELETED;
+            case UPDATED -> event.isAvailabilityChanged()
+                    ? PropertyChange.Type.AVAILABILITY_CHANGED : PropertyChange.Type.UPDATED;
+        };
+    }
+}
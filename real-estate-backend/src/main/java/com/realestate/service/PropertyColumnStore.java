@@ -0,0 +1,75 @@
+package com.realestate.service;
+
+import com.realestate.model.Property;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.TreeMap;
+
+/**
+ * Holds the current PropertyColumns snapshot of the available properties.
+ * Writes are buffered and merged into a fresh copy of the columns on a fixed delay,
+ * so readers always scan an immutable snapshot without locking, at the cost of
+ * seeing a write up to one refresh interval late.
+ */
+@Component
+public class PropertyColumnStore implements PropertyIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(PropertyColumnStore.class);
+
+    private volatile PropertyColumns snapshot = PropertyColumns.empty();
+
+    // Property id to its new row, or to null when it should be dropped; guarded by this
+    private TreeMap<Long, PropertyColumns.Row> pending = new TreeMap<>();
+
+    private final Object refreshLock = new Object();
+
+    public PropertyColumns snapshot() {
+        return snapshot;
+    }
+
+    @Override
+    public void index(Property property) {
+        PropertyColumns.Row row = Boolean.TRUE.equals(property.getAvailable()) ? new PropertyColumns.Row(property) : null;
+        synchronized (this) {
+            pending.put(property.getId(), row);
+        }
+    }
+
+    @Override
+    public void remove(Long propertyId) {
+        synchronized (this) {
+            pending.put(propertyId, null);
+        }
+    }
+
+    @Override
+    public void bootstrapped() {
+        refresh();
+    }
+
+    /**
+     * Merge the buffered writes into a new snapshot and publish it.
+     */
+    @Scheduled(fixedDelayString = "${property.columns.refresh-interval-ms:1000}")
+    public void refresh() {
+        // Swap and merge under one lock so batches are applied in the order they were taken
+        synchronized (refreshLock) {
+            TreeMap<Long, PropertyColumns.Row> changes;
+            synchronized (this) {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                changes = pending;
+                pending = new TreeMap<>();
+            }
+            long started = System.nanoTime();
+            snapshot = snapshot.merge(new ArrayList<>(changes.entrySet()));
+            logger.debug("Merged {} property changes into column snapshot of {} rows in {} us",
+                    changes.size(), snapshot.size(), (System.nanoTime() - started) / 1000);
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package com.realestate.service;
+
+import com.realestate.dto.PropertySearchRequest;
+import com.realestate.model.Property;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.IntConsumer;
+
+/**
+ * Immutable column-oriented snapshot of the available properties, one primitive array per
+ * attribute and one row per property in ascending id order. Prices and areas are stored as
+ * long hundredths, small counts as bytes, enums as ordinals and city/state as dictionary codes,
+ * so a filter scan is a tight loop over primitive arrays with no boxing and no allocation.
+ * Snapshots are never modified; PropertyColumnStore publishes a new one after each batch of writes.
+ */
+public final class PropertyColumns {
+
+    static final byte UNKNOWN = -1;
+    static final long UNKNOWN_AREA = -1L;
+
+    final int size;
+    final long[] ids;
+    final long[] priceCents;
+    final long[] squareFeetCents;
+    final byte[] bedrooms;
+    final byte[] bathrooms;
+    final byte[] propertyTypes;
+    final byte[] listingTypes;
+    final int[] cities;
+    final int[] states;
+    final String[] cityDictionary;
+    final String[] stateDictionary;
+
+    private PropertyColumns(int size, String[] cityDictionary, String[] stateDictionary) {
+        this.size = size;
+        this.ids = new long[size];
+        this.priceCents = new long[size];
+        this.squareFeetCents = new long[size];
+        this.bedrooms = new byte[size];
+        this.bathrooms = new byte[size];
+        this.propertyTypes = new byte[size];
+        this.listingTypes = new byte[size];
+        this.cities = new int[size];
+        this.states = new int[size];
+        this.cityDictionary = cityDictionary;
+        this.stateDictionary = stateDictionary;
+    }
+
+    public static PropertyColumns empty() {
+        return new PropertyColumns(0, new String[0], new String[0]);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Number of rows matching the filter.
+     */
+    public int count(Filter filter) {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (filter.matches(this, i)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Visit the row index of every match in ascending id order.
+     */
+    public void forEachMatch(Filter filter, IntConsumer rowConsumer) {
+        for (int i = 0; i < size; i++) {
+            if (filter.matches(this, i)) {
+                rowConsumer.accept(i);
+            }
+        }
+    }
+
+    public long id(int row) {
+        return ids[row];
+    }
+
+    /**
+     * Compile a search request into primitive bounds and dictionary lookups for this snapshot.
+     * Semantics follow PropertySpecifications.matchesSearch.
+     */
+    public Filter compile(PropertySearchRequest request) {
+        Filter filter = new Filter();
+        if (request != null) {
+            filter.cityMatch = request.getCity() != null ? withPrefix(cityDictionary, request.getCity()) : null;
+            filter.stateMatch = request.getState() != null ? withPrefix(stateDictionary, request.getState()) : null;
+            filter.propertyType = request.getPropertyType() != null ? (byte) request.getPropertyType().ordinal() : UNKNOWN;
+            filter.listingType = request.getListingType() != null ? (byte) request.getListingType().ordinal() : UNKNOWN;
+            if (request.getMinPrice() != null) {
+                filter.minPrice = toHundredths(request.getMinPrice(), RoundingMode.CEILING);
+            }
+            if (request.getMaxPrice() != null) {
+                filter.maxPrice = toHundredths(request.getMaxPrice(), RoundingMode.FLOOR);
+            }
+            if (request.getMinSquareFeet() != null || request.getMaxSquareFeet() != null) {
+                // Unknown areas are stored as -1 and fall below any bound
+                filter.minArea = request.getMinSquareFeet() != null
+                        ? toHundredths(request.getMinSquareFeet(), RoundingMode.CEILING) : 0L;
+                if (request.getMaxSquareFeet() != null) {
+                    filter.maxArea = toHundredths(request.getMaxSquareFeet(), RoundingMode.FLOOR);
+                }
+            }
+            if (request.getMinBedrooms() != null || request.getMaxBedrooms() != null) {
+                filter.minBedrooms = clampCount(request.getMinBedrooms(), 0);
+                filter.maxBedrooms = clampCount(request.getMaxBedrooms(), Byte.MAX_VALUE);
+            }
+            if (request.getMinBathrooms() != null || request.getMaxBathrooms() != null) {
+                filter.minBathrooms = clampCount(request.getMinBathrooms(), 0);
+                filter.maxBathrooms = clampCount(request.getMaxBathrooms(), Byte.MAX_VALUE);
+            }
+        }
+        return filter;
+    }
+
+    /**
+     * A compiled predicate over one snapshot's rows. Bounds default to "no constraint".
+     */
+    public static final class Filter {
+        private long minPrice = Long.MIN_VALUE;
+        private long maxPrice = Long.MAX_VALUE;
+        private long minArea = Long.MIN_VALUE;
+        private long maxArea = Long.MAX_VALUE;
+        private byte minBedrooms = Byte.MIN_VALUE;
+        private byte maxBedrooms = Byte.MAX_VALUE;
+        private byte minBathrooms = Byte.MIN_VALUE;
+        private byte maxBathrooms = Byte.MAX_VALUE;
+        private byte propertyType = UNKNOWN;
+        private byte listingType = UNKNOWN;
+        private boolean[] cityMatch;
+        private boolean[] stateMatch;
+
+        // Non-short-circuit operators keep the hot loop free of data-dependent branches
+        boolean matches(PropertyColumns c, int i) {
+            return (c.priceCents[i] >= minPrice) & (c.priceCents[i] <= maxPrice)
+                    & (c.squareFeetCents[i] >= minArea) & (c.squareFeetCents[i] <= maxArea)
+                    & (c.bedrooms[i] >= minBedrooms) & (c.bedrooms[i] <= maxBedrooms)
+                    & (c.bathrooms[i] >= minBathrooms) & (c.bathrooms[i] <= maxBathrooms)
+                    & ((propertyType == UNKNOWN) | (c.propertyTypes[i] == propertyType))
+                    & ((listingType == UNKNOWN) | (c.listingTypes[i] == listingType))
+                    && (cityMatch == null || cityMatch[c.cities[i]])
+                    && (stateMatch == null || stateMatch[c.states[i]]);
+        }
+    }
+
+    /**
+     * Build the next snapshot by merging sorted changes into this one.
+     *
+     * @param changes property id to its new row, or to null when the property left the available set;
+     *                must be sorted by id
+     */
+    PropertyColumns merge(List<Map.Entry<Long, Row>> changes) {
+        Map<String, Integer> cityCodes = codes(cityDictionary);
+        Map<String, Integer> stateCodes = codes(stateDictionary);
+        for (Map.Entry<Long, Row> change : changes) {
+            if (change.getValue() != null) {
+                cityCodes.putIfAbsent(change.getValue().city, cityCodes.size());
+                stateCodes.putIfAbsent(change.getValue().state, stateCodes.size());
+            }
+        }
+
+        // Upper bound on the new row count; trimmed below
+        PropertyColumns next = new PropertyColumns(size + changes.size(), dictionary(cityCodes), dictionary(stateCodes));
+        int row = 0;
+        int i = 0;
+        int j = 0;
+        while (i < size || j < changes.size()) {
+            long oldId = i < size ? ids[i] : Long.MAX_VALUE;
+            long changedId = j < changes.size() ? changes.get(j).getKey() : Long.MAX_VALUE;
+            if (oldId < changedId) {
+                next.copyRow(row++, this, i++);
+            } else {
+                Row changed = changes.get(j++).getValue();
+                if (changed != null) {
+                    next.setRow(row++, changedId, changed, cityCodes, stateCodes);
+                }
+                if (oldId == changedId) {
+                    i++;
+                }
+            }
+        }
+        return next.trim(row);
+    }
+
+    /**
+     * The column values of one property, captured on write.
+     */
+    static final class Row {
+        final long priceCents;
+        final long squareFeetCents;
+        final byte bedrooms;
+        final byte bathrooms;
+        final byte propertyType;
+        final byte listingType;
+        final String city;
+        final String state;
+
+        Row(Property property) {
+            this.priceCents = property.getPrice() != null ? toHundredths(property.getPrice(), RoundingMode.HALF_UP) : 0L;
+            this.squareFeetCents = property.getSquareFeet() != null
+                    ? toHundredths(property.getSquareFeet(), RoundingMode.HALF_UP) : UNKNOWN_AREA;
+            this.bedrooms = property.getBedrooms() != null ? clampCount(property.getBedrooms(), 0) : UNKNOWN;
+            this.bathrooms = property.getBathrooms() != null ? clampCount(property.getBathrooms(), 0) : UNKNOWN;
+            this.propertyType = ordinal(property.getPropertyType());
+            this.listingType = ordinal(property.getListingType());
+            this.city = Objects.toString(Property.locationKey(property.getCity()), "");
+            this.state = Objects.toString(Property.locationKey(property.getState()), "");
+        }
+
+        private static byte ordinal(Enum<?> value) {
+            return value != null ? (byte) value.ordinal() : UNKNOWN;
+        }
+    }
+
+    private void copyRow(int to, PropertyColumns from, int row) {
+        ids[to] = from.ids[row];
+        priceCents[to] = from.priceCents[row];
+        squareFeetCents[to] = from.squareFeetCents[row];
+        bedrooms[to] = from.bedrooms[row];
+        bathrooms[to] = from.bathrooms[row];
+        propertyTypes[to] = from.propertyTypes[row];
+        listingTypes[to] = from.listingTypes[row];
+        // Dictionaries only ever grow, so existing codes stay valid
+        cities[to] = from.cities[row];
+        states[to] = from.states[row];
+    }
+
+    private void setRow(int to, long id, Row source, Map<String, Integer> cityCodes, Map<String, Integer> stateCodes) {
+        ids[to] = id;
+        priceCents[to] = source.priceCents;
+        squareFeetCents[to] = source.squareFeetCents;
+        bedrooms[to] = source.bedrooms;
+        bathrooms[to] = source.bathrooms;
+        propertyTypes[to] = source.propertyType;
+        listingTypes[to] = source.listingType;
+        cities[to] = cityCodes.get(source.city);
+        states[to] = stateCodes.get(source.state);
+    }
+
+    private PropertyColumns trim(int rows) {
+        if (rows == size) {
+            return this;
+        }
+        PropertyColumns trimmed = new PropertyColumns(rows, cityDictionary, stateDictionary);
+        System.arraycopy(ids, 0, trimmed.ids, 0, rows);
+        System.arraycopy(priceCents, 0, trimmed.priceCents, 0, rows);
+        System.arraycopy(squareFeetCents, 0, trimmed.squareFeetCents, 0, rows);
+        System.arraycopy(bedrooms, 0, trimmed.bedrooms, 0, rows);
+        System.arraycopy(bathrooms, 0, trimmed.bathrooms, 0, rows);
+        System.arraycopy(propertyTypes, 0, trimmed.propertyTypes, 0, rows);
+        System.arraycopy(listingTypes, 0, trimmed.listingTypes, 0, rows);
+        System.arraycopy(cities, 0, trimmed.cities, 0, rows);
+        System.arraycopy(states, 0, trimmed.states, 0, rows);
+        return trimmed;
+    }
+
+    // Dictionary codes whose location key starts with the needle's, like PropertySpecifications.matchesSearch
+    private static boolean[] withPrefix(String[] dictionary, String value) {
+        String prefix = Objects.toString(Property.locationKey(value), "");
+        boolean[] matches = new boolean[dictionary.length];
+        for (int code = 0; code < dictionary.length; code++) {
+            matches[code] = dictionary[code].startsWith(prefix);
+        }
+        return matches;
+    }
+
+    private static Map<String, Integer> codes(String[] dictionary) {
+        Map<String, Integer> codes = new HashMap<>(dictionary.length * 2);
+        for (int code = 0; code < dictionary.length; code++) {
+            codes.put(dictionary[code], code);
+        }
+        return codes;
+    }
+
+    private static String[] dictionary(Map<String, Integer> codes) {
+        String[] dictionary = new String[codes.size()];
+        codes.forEach((value, code) -> dictionary[code] = value);
+        return dictionary;
+    }
+
+    private static long toHundredths(BigDecimal amount, RoundingMode rounding) {
+        return amount.movePointRight(2).setScale(0, rounding).longValue();
+    }
+
+    private static byte clampCount(Integer value, int whenNull) {
+        int count = value != null ? value : whenNull;
+        return (byte) Math.max(0, Math.min(Byte.MAX_VALUE, count));
+    }
+}
@@ -0,0 +1,179 @@
+package com.realestate.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.realestate.dto.PropertyResponse;
+import com.realestate.event.PropertyChangeEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Size-bounded cache of serialized property details for the few listings that get most of the
+ * detail traffic. An entry holds the UTF-8 JSON of a PropertyResponse split around its
+ * isFavorited value and is keyed by property id and details version (see PropertyETags). A hit
+ * is written straight to the servlet output stream with the caller's flag and a fresh response
+ * envelope around it, without assembling or serializing anything.
+ * <p>
+ * Entries are weighed by their size in bytes and evicted least recently used once they exceed
+ * {@code property.details-cache.max-bytes}. A property's entry is dropped when it changes and
+ * an entry for an older version is replaced on the next miss.
+ */
+@Component
+public class PropertyDetailsCache {
+
+    private static final byte[] FAVORITED_FIELD = bytes("\"isFavorited\":");
+    private static final byte[] ENVELOPE_HEAD = bytes("{\"success\":true,\"message\":\"Success\",\"data\":");
+    private static final byte[] TIMESTAMP_FIELD = bytes(",\"timestamp\":\"");
+    private static final byte[] ENVELOPE_TAIL = bytes("\"}");
+    private static final byte[] TRUE = bytes("true");
+    private static final byte[] FALSE = bytes("false");
+    // Rough cost of the map node, entry object and array headers
+    private static final int ENTRY_OVERHEAD = 160;
+
+    /**
+     * Serialized details of one property version, split around the isFavorited value.
+     */
+    public static final class Entry {
+        private final String version;
+        private final byte[] head;
+        private final byte[] tail;
+
+        private Entry(String version, byte[] head, byte[] tail) {
+            this.version = version;
+            this.head = head;
+            this.tail = tail;
+        }
+
+        private int weight() {
+            return head.length + tail.length + version.length() + ENTRY_OVERHEAD;
+        }
+    }
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${property.details-cache.max-bytes:16777216}")
+    private long maxBytes;
+
+    private ObjectWriter writer;
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalBytes;  // guarded by this
+
+    @PostConstruct
+    void init() {
+        // The flag is located by its exact key and colon, which indentation would change
+        writer = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+    }
+
+    /**
+     * The cached details of {@code propertyId} at {@code version}, or null.
+     */
+    public synchronized Entry get(Long propertyId, String version) {
+        Entry entry = entries.get(propertyId);
+        return entry != null && entry.version.equals(version) ? entry : null;
+    }
+
+    /**
+     * Serialize {@code response} and cache it as {@code version} of the property's details. The
+     * response's own isFavorited value is replaced on every write. Responses larger than the
+     * whole cache are returned without being cached.
+     */
+    public Entry put(Long propertyId, String version, PropertyResponse response) throws JsonProcessingException {
+        byte[] json = writer.writeValueAsBytes(response);
+        int field = indexOf(json, FAVORITED_FIELD);
+        if (field < 0) {
+            throw new IllegalStateException("isFavorited missing from serialized property " + propertyId);
+        }
+        int valueStart = field + FAVORITED_FIELD.length;
+        // true, null or false; strings escape their quotes, so the key can't occur inside one
+        int valueEnd = valueStart + (json[valueStart] == 'f' ? 5 : 4);
+        Entry entry = new Entry(version, Arrays.copyOfRange(json, 0, valueStart),
+                Arrays.copyOfRange(json, valueEnd, json.length));
+
+        synchronized (this) {
+            if (entry.weight() > maxBytes) {
+                return entry;
+            }
+            Entry previous = entries.put(propertyId, entry);
+            totalBytes += entry.weight() - (previous != null ? previous.weight() : 0);
+            Iterator<Map.Entry<Long, Entry>> eldest = entries.entrySet().iterator();
+            while (totalBytes > maxBytes && eldest.hasNext()) {
+                totalBytes -= eldest.next().getValue().weight();
+                eldest.remove();
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Write {@code entry} as the body of a successful ApiResponse, the same JSON the controller
+     * would otherwise produce through Jackson.
+     */
+    public void write(Entry entry, boolean favorited, HttpServletResponse response) throws IOException {
+        byte[] flag = favorited ? TRUE : FALSE;
+        String timestamp = DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(LocalDateTime.now());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(ENVELOPE_HEAD.length + entry.head.length + flag.length + entry.tail.length
+                + TIMESTAMP_FIELD.length + timestamp.length() + ENVELOPE_TAIL.length);
+        OutputStream out = response.getOutputStream();
+        out.write(ENVELOPE_HEAD);
+        out.write(entry.head);
+        out.write(flag);
+        out.write(entry.tail);
+        out.write(TIMESTAMP_FIELD);
+        for (int i = 0; i < timestamp.length(); i++) {
+            out.write(timestamp.charAt(i));  // ASCII
+        }
+        out.write(ENVELOPE_TAIL);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long weightBytes() {
+        return totalBytes;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onPropertyChange(PropertyChangeEvent event) {
+        Entry removed = entries.remove(event.getPropertyId());
+        if (removed != null) {
+            totalBytes -= removed.weight();
+        }
+    }
+
+    private static int indexOf(byte[] data, byte[] pattern) {
+        outer:
+        for (int i = 0; i <= data.length - pattern.length; i++) {
+            for (int j = 0; j < pattern.length; j++) {
+                if (data[i + j] != pattern[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
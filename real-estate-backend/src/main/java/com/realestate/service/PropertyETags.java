@@ -0,0 +1,115 @@
+package com.realestate.service;
+
+import com.realestate.event.FavoriteChangeEvent;
+import com.realestate.event.PropertyChangeEvent;
+import com.realestate.repository.PropertyRepository;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Strong ETags for property details and listing pages, computed without assembling the
+ * response so unchanged resources can be answered with 304 straight away.
+ * <p>
+ * A details tag is derived from the stored versions of everything in the response: the
+ * property's updatedAt and image version, its favorite count, its owner's updatedAt and
+ * whether the caller has favorited it. Listing pages can't be versioned per row up front, so
+ * their tags combine the request's path and query with a catalog generation that advances on
+ * every committed property, image, favorite or owner change. The generation lives in memory
+ * and its tags carry the process start time, so they don't survive a restart.
+ */
+@Component
+public class PropertyETags {
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private FavoriteCounterService favoriteCounterService;
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong generation = new AtomicLong();
+
+    // Runs after the other commit listeners, so the indexes and favorite counters already
+    // reflect the change when its generation becomes visible
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPropertyChange(PropertyChangeEvent event) {
+        generation.incrementAndGet();
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFavoriteChange(FavoriteChangeEvent event) {
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Advance the generation once the current transaction commits, for changes that reach
+     * listing pages without a property event, such as an owner's profile.
+     */
+    public void advanceAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            generation.incrementAndGet();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                generation.incrementAndGet();
+            }
+        });
+    }
+
+    /**
+     * Tag for a listing page. Read it before running the query: a change committed in between
+     * then yields newer content under an older tag, which only costs a refetch.
+     */
+    public String pageTag(HttpServletRequest request) {
+        String query = request.getRequestURI() + '?' + Objects.toString(request.getQueryString(), "");
+        return quote("p" + epoch + "." + generation.get() + "." + hash(query));
+    }
+
+    /**
+     * Version of a property's details apart from the caller's favorite flag, or empty when the
+     * property does not exist. Changes whenever anything else in the details response does.
+     */
+    public Optional<String> detailsVersion(Long propertyId) {
+        List<Object[]> rows = propertyRepository.findDetailsVersion(propertyId);
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        Object[] row = rows.get(0);
+        long favoriteCount = favoriteCounterService.favoriteCount(propertyId, (Long) row[2]);
+        return Optional.of(hash(propertyId + "|" + row[0] + "|" + row[1] + "|" + favoriteCount + "|"
+                + row[3] + "|" + row[4]));
+    }
+
+    /**
+     * Tag for details at {@code version} as seen by a caller who has, or has not, favorited the
+     * property. Only that flag depends on the user, so users who agree on it share a tag.
+     */
+    public String detailsTag(String version, boolean favorited) {
+        return quote("d" + version + (favorited ? ".f" : ""));
+    }
+
+    private static String hash(String value) {
+        return DigestUtils.md5DigestAsHex(value.getBytes(StandardCharsets.UTF_8)).substring(0, 20);
+    }
+
+    private static String quote(String tag) {
+        return "\"" + tag + "\"";
+    }
+}
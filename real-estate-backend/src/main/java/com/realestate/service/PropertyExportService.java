@@ -0,0 +1,220 @@
+package com.realestate.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.realestate.model.Property;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.jpa.AvailableHints;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Streams the property catalog to an output stream as NDJSON or CSV. Rows are read through a
+ * forward-only cursor with {@code export.fetch-size}, a streaming result set on MySQL, and detached
+ * once written, so memory stays flat regardless of how many properties are exported. The
+ * connection cannot run other statements while the rows stream, so nothing here may load lazily.
+ */
+@Service
+public class PropertyExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PropertyExportService.class);
+    private static final int FLUSH_EVERY_ROWS = 500;
+
+    private static final String[] COLUMNS = {
+            "id", "title", "description", "price", "address", "city", "state", "zipCode",
+            "propertyType", "listingType", "bedrooms", "bathrooms", "squareFeet", "yearBuilt",
+            "latitude", "longitude", "available", "favoriteCount", "ownerId",
+            "builderGroupId", "createdAt", "updatedAt"
+    };
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format parse(String value) {
+            try {
+                return valueOf(Objects.toString(value, "").trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported export format: " + value + " (expected ndjson or csv)");
+            }
+        }
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private FavoriteCounterService favoriteCounterService;
+
+    // Integer.MIN_VALUE, MySQL's streaming mode, unless configured otherwise
+    @Value("${export.fetch-size:-2147483648}")
+    private int fetchSize;
+
+    /**
+     * Write every property, or only available ones, to {@code out} in id order.
+     *
+     * @return the number of rows written
+     */
+    @Transactional(readOnly = true)
+    public long export(Format format, boolean availableOnly, OutputStream out) throws IOException {
+        String jpql = availableOnly
+                ? "SELECT p FROM Property p WHERE p.available = true ORDER BY p.id"
+                : "SELECT p FROM Property p ORDER BY p.id";
+        long rows = 0;
+        try (Stream<Property> properties = entityManager.createQuery(jpql, Property.class)
+                .setHint(AvailableHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(AvailableHints.HINT_READ_ONLY, true)
+                .getResultStream();
+             Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
+            RowWriter rowWriter = format == Format.CSV ? new CsvRowWriter(writer) : new JsonRowWriter(writer);
+            Iterator<Property> iterator = properties.iterator();
+            while (iterator.hasNext()) {
+                Property property = iterator.next();
+                rowWriter.write(values(property));
+                entityManager.detach(property);
+                if (++rows % FLUSH_EVERY_ROWS == 0) {
+                    writer.flush();
+                }
+            }
+            rowWriter.finish();
+        }
+        logger.info("Exported {} properties as {}", rows, format);
+        return rows;
+    }
+
+    // Column values in COLUMNS order; lazy associations contribute only their ids
+    private Object[] values(Property p) {
+        return new Object[]{
+                p.getId(), p.getTitle(), p.getDescription(), p.getPrice(), p.getAddress(), p.getCity(),
+                p.getState(), p.getZipCode(), p.getPropertyType(), p.getListingType(), p.getBedrooms(),
+                p.getBathrooms(), p.getSquareFeet(), p.getYearBuilt(), p.getLatitude(), p.getLongitude(),
+                p.getAvailable(), favoriteCounterService.favoriteCount(p.getId(), p.getFavoriteCount()),
+                p.getOwner() != null ? p.getOwner().getId() : null,
+                p.getBuilderGroup() != null ? p.getBuilderGroup().getId() : null,
+                p.getCreatedAt(), p.getUpdatedAt()
+        };
+    }
+
+    private interface RowWriter {
+        void write(Object[] values) throws IOException;
+
+        void finish() throws IOException;
+    }
+
+    private final class JsonRowWriter implements RowWriter {
+        private final JsonGenerator generator;
+
+        JsonRowWriter(Writer writer) throws IOException {
+            generator = objectMapper.createGenerator(writer);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Rows are separated by the newline written after each one, not the default space
+            generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(Object[] values) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < COLUMNS.length; i++) {
+                generator.writeFieldName(COLUMNS[i]);
+                generator.writeObject(values[i]);
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.flush();
+        }
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        CsvRowWriter(Writer writer) throws IOException {
+            this.writer = writer;
+            writeLine(COLUMNS);
+        }
+
+        @Override
+        public void write(Object[] values) throws IOException {
+            writeLine(values);
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+
+        private void writeLine(Object[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                if (values[i] != null) {
+                    writeField(text(values[i]));
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        private static String text(Object value) {
+            if (value instanceof BigDecimal decimal) {
+                return decimal.toPlainString();
+            }
+            return value instanceof Enum<?> e ? e.name() : value.toString();
+        }
+
+        // RFC 4180: quote fields holding separators, quotes or line breaks and double the quotes
+        private void writeField(String value) throws IOException {
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.realestate.service;
+
+import com.realestate.model.Property;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Fixed grid over latitude/longitude for available properties that have coordinates.
+ * Each cell holds a bitmap of property ids, so an area query visits only the cells its
+ * envelope overlaps, takes cells lying wholly inside the area as they are and checks the
+ * exact distance only for members of the edge cells. The result is a
+ * bitmap that PropertyAttributeIndex intersects with the structured filters.
+ */
+@Component
+public class PropertyGeoIndex implements PropertyIndex {
+
+    // About 2.2 km of latitude; a 10 km radius touches roughly a hundred cells
+    private static final double CELL_DEGREES = 0.02;
+    private static final int LATITUDE_CELLS = (int) Math.ceil(180.0 / CELL_DEGREES);
+
+    private final Map<Long, CompressedBitmap> cells = new HashMap<>();
+    private final Map<Integer, double[]> coordinates = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Override
+    public void index(Property property) {
+        if (!Boolean.TRUE.equals(property.getAvailable())
+                || property.getLatitude() == null || property.getLongitude() == null) {
+            remove(property.getId());
+            return;
+        }
+        int id = Math.toIntExact(property.getId());
+        double[] point = {property.getLatitude(), property.getLongitude()};
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            coordinates.put(id, point);
+            cells.computeIfAbsent(cellOf(point[0], point[1]), k -> new CompressedBitmap()).add(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long propertyId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(Math.toIntExact(propertyId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of every indexed property inside the area.
+     */
+    public CompressedBitmap within(GeoArea area) {
+        lock.readLock().lock();
+        try {
+            int fromRow = row(area.minLatitude());
+            int toRow = row(area.maxLatitude());
+            int fromColumn = column(area.minLongitude());
+            int toColumn = column(area.maxLongitude());
+            long overlapped = (long) (toRow - fromRow + 1) * (toColumn - fromColumn + 1);
+
+            CompressedBitmap result = new CompressedBitmap();
+            if (overlapped > cells.size()) {
+                // Wide areas: walking the occupied cells is cheaper than probing empty ones
+                cells.values().forEach(cell -> collect(cell, area, result));
+            } else {
+                for (int row = fromRow; row <= toRow; row++) {
+                    for (int column = fromColumn; column <= toColumn; column++) {
+                        CompressedBitmap cell = cells.get(key(row, column));
+                        if (cell != null && coversCell(area, row, column)) {
+                            cell.forEach(result::add);
+                        } else if (cell != null) {
+                            collect(cell, area, result);
+                        }
+                    }
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Order the given ids by distance from the area's center. Ids without coordinates sort last
+     * in either direction; equal distances fall back to id order.
+     *
+     * @param limit number of leading ids to return; the total is the size of {@code ids}
+     */
+    public IndexHits nearest(CompressedBitmap ids, GeoArea area, boolean ascending, int limit) {
+        int total = ids.cardinality();
+        if (limit <= 0) {
+            return new IndexHits(new ArrayList<>(), total);
+        }
+        lock.readLock().lock();
+        try {
+            // Bounded heap whose head is the worst of the current best `limit` entries
+            PriorityQueue<long[]> heap = new PriorityQueue<>(limit + 1, (a, b) -> -compare(a, b, ascending));
+            ids.forEach(id -> {
+                double[] point = coordinates.get(id);
+                double distance = point == null ? Double.NaN
+                        : GeoArea.distanceKm(area.centerLatitude(), area.centerLongitude(), point[0], point[1]);
+                heap.offer(new long[]{id, Double.doubleToLongBits(distance)});
+                if (heap.size() > limit) {
+                    heap.poll();
+                }
+            });
+            List<long[]> sorted = new ArrayList<>(heap);
+            sorted.sort((a, b) -> compare(a, b, ascending));
+            List<Long> result = new ArrayList<>(sorted.size());
+            sorted.forEach(entry -> result.add(entry[0]));
+            return new IndexHits(result, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static int compare(long[] a, long[] b, boolean ascending) {
+        double da = Double.longBitsToDouble(a[1]);
+        double db = Double.longBitsToDouble(b[1]);
+        boolean unknownA = Double.isNaN(da);
+        boolean unknownB = Double.isNaN(db);
+        if (unknownA || unknownB) {
+            return unknownA == unknownB ? Long.compare(a[0], b[0]) : (unknownA ? 1 : -1);
+        }
+        int byDistance = ascending ? Double.compare(da, db) : Double.compare(db, da);
+        return byDistance != 0 ? byDistance : Long.compare(a[0], b[0]);
+    }
+
+    // Cells whose four corners lie in the area need no per-property distance check
+    private static boolean coversCell(GeoArea area, int row, int column) {
+        double south = row * CELL_DEGREES - 90.0;
+        double west = column * CELL_DEGREES - 180.0;
+        return area.contains(south, west) && area.contains(south + CELL_DEGREES, west)
+                && area.contains(south, west + CELL_DEGREES) && area.contains(south + CELL_DEGREES, west + CELL_DEGREES);
+    }
+
+    // Caller must hold the read lock
+    private void collect(CompressedBitmap cell, GeoArea area, CompressedBitmap result) {
+        cell.forEach(id -> {
+            double[] point = coordinates.get(id);
+            if (area.contains(point[0], point[1])) {
+                result.add(id);
+            }
+        });
+    }
+
+    private void removeLocked(int id) {
+        double[] previous = coordinates.remove(id);
+        if (previous == null) {
+            return;
+        }
+        long key = cellOf(previous[0], previous[1]);
+        CompressedBitmap cell = cells.get(key);
+        if (cell != null) {
+            cell.remove(id);
+            if (cell.isEmpty()) {
+                cells.remove(key);
+            }
+        }
+    }
+
+    private static long cellOf(double latitude, double longitude) {
+        return key(row(latitude), column(longitude));
+    }
+
+    private static int row(double latitude) {
+        return Math.min((int) ((latitude + 90.0) / CELL_DEGREES), LATITUDE_CELLS - 1);
+    }
+
+    private static int column(double longitude) {
+        return (int) ((longitude + 180.0) / CELL_DEGREES);
+    }
+
+    private static long key(int row, int column) {
+        return ((long) row << 32) | column;
+    }
+}
@@ -2,12 +2,14 @@ package com.realestate.service;
 
 import com.realestate.dto.PropertyImageRequest;
 import com.realestate.dto.PropertyImageResponse;
+import com.realestate.event.PropertyChangeEvent;
 import com.realestate.exception.ResourceNotFoundException;
 import com.realestate.model.Property;
 import com.realestate.model.PropertyImage;
 import com.realestate.repository.PropertyImageRepository;
 import com.realestate.repository.PropertyRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,6 +26,9 @@ public class PropertyImageService {
     @Autowired
     private PropertyRepository propertyRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public PropertyImageResponse addImage(Long propertyId, PropertyImageRequest request) {
         // Validate imageUrl is provided
         if (request.getImageUrl() == null || request.getImageUrl().trim().isEmpty()) {
@@ -48,6 +53,7 @@ public class PropertyImageService {
                 .build();
 
         PropertyImage savedImage = propertyImageRepository.save(image);
+        imagesChanged(propertyId);
         return toPropertyImageResponse(savedImage);
     }
 
@@ -69,14 +75,16 @@ public class PropertyImageService {
         }
 
         PropertyImage updatedImage = propertyImageRepository.save(image);
+        imagesChanged(image.getProperty().getId());
         return toPropertyImageResponse(updatedImage);
     }
 
     public void deleteImage(Long imageId) {
-        if (!propertyImageRepository.existsById(imageId)) {
-            throw new ResourceNotFoundException("PropertyImage", "id", imageId);
-        }
-        propertyImageRepository.deleteById(imageId);
+        PropertyImage image = propertyImageRepository.findById(imageId)
+                .orElseThrow(() -> new ResourceNotFoundException("PropertyImage", "id", imageId));
+        Long propertyId = image.getProperty().getId();
+        propertyImageRepository.delete(image);
+        imagesChanged(propertyId);
     }
 
     // Updated setPrimaryImage to use the new repository method
@@ -94,6 +102,7 @@ public class PropertyImageService {
         // Set this image as primary
         image.setIsPrimary(true);
         PropertyImage updated = propertyImageRepository.save(image);
+        imagesChanged(propertyId);
 
         return toPropertyImageResponse(updated);
     }
@@ -112,6 +121,7 @@ public class PropertyImageService {
             image.setDisplayOrder(i);
             propertyImageRepository.save(image);
         }
+        imagesChanged(propertyId);
     }
 
     public List<PropertyImageResponse> getPropertyImages(Long propertyId) {
@@ -121,6 +131,14 @@ public class PropertyImageService {
                 .collect(Collectors.toList());
     }
 
+    // Images are part of the property's representation: bump its image version for ETags and
+    // publish an update so listing pages and the change feed pick up the new image set
+    private void imagesChanged(Long propertyId) {
+        propertyRepository.incrementImageVersion(propertyId);
+        propertyRepository.findById(propertyId)
+                .ifPresent(property -> eventPublisher.publishEvent(PropertyChangeEvent.updated(property)));
+    }
+
     public PropertyImageResponse toPropertyImageResponse(PropertyImage image) {
         return PropertyImageResponse.builder()
                 .id(image.getId())
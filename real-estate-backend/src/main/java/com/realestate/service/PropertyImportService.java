@@ -0,0 +1,347 @@
+package com.realestate.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.realestate.dto.BulkImportResult;
+import com.realestate.event.PropertyChangeEvent;
+import com.realestate.exception.ResourceNotFoundException;
+import com.realestate.model.BuilderGroup;
+import com.realestate.model.ListingType;
+import com.realestate.model.Property;
+import com.realestate.model.PropertyImage;
+import com.realestate.model.PropertyType;
+import com.realestate.model.User;
+import com.realestate.repository.BuilderGroupRepository;
+import com.realestate.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Bulk property import from a streamed CSV or NDJSON upload. Each row is parsed, bound to a
+ * Property and validated with the same constraints as POST /api/properties, then inserted in
+ * chunks of {@value #CHUNK_SIZE}, one transaction and one JDBC batch per chunk. Ids come from
+ * the pooled table generator on Property, so Hibernate can batch the inserts. Rows that fail
+ * are reported by line; the others are imported.
+ */
+@Service
+public class PropertyImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PropertyImportService.class);
+    private static final int CHUNK_SIZE = 500;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final int MAX_IMAGE_URL_LENGTH = 255;
+
+    // Field names as in the export; other columns such as id or favoriteCount are ignored
+    private static final Set<String> FIELDS = Set.of(
+            "title", "description", "price", "address", "city", "state", "zipCode", "propertyType",
+            "listingType", "bedrooms", "bathrooms", "squareFeet", "yearBuilt", "latitude", "longitude",
+            "imageUrl", "available");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BuilderGroupRepository builderGroupRepository;
+
+    /**
+     * Import every row of {@code in}, optionally assigning all of them to an owner and a builder group.
+     */
+    public BulkImportResult importProperties(PropertyExportService.Format format, InputStream in,
+                                             Long ownerId, Long builderGroupId) throws IOException {
+        if (ownerId != null && !userRepository.existsById(ownerId)) {
+            throw new ResourceNotFoundException("User", "id", ownerId);
+        }
+        if (builderGroupId != null && !builderGroupRepository.existsById(builderGroupId)) {
+            throw new ResourceNotFoundException("BuilderGroup", "id", builderGroupId);
+        }
+        long started = System.currentTimeMillis();
+        Run run = new Run(ownerId, builderGroupId);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        if (format == PropertyExportService.Format.CSV) {
+            readCsv(reader, run);
+        } else {
+            readNdjson(reader, run);
+        }
+        run.flush();
+
+        logger.info("Imported {} of {} properties in {} ms, {} rows rejected",
+                run.imported, run.received, System.currentTimeMillis() - started, run.failed);
+        return BulkImportResult.builder()
+                .received(run.received)
+                .imported(run.imported)
+                .failed(run.failed)
+                .elapsedMs(System.currentTimeMillis() - started)
+                .errors(run.errors)
+                .errorsTruncated(run.errorsTruncated)
+                .build();
+    }
+
+    private void readCsv(BufferedReader reader, Run run) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        List<String> header = csv.next();
+        if (header == null) {
+            return;
+        }
+        String[] names = new String[header.size()];
+        for (int i = 0; i < header.size(); i++) {
+            names[i] = fieldName(header.get(i));
+        }
+        List<String> record;
+        while ((record = csv.next()) != null) {
+            if (record.size() != names.length) {
+                run.received++;
+                run.reject(csv.recordLine(), null, "Expected " + names.length + " fields but found " + record.size());
+                continue;
+            }
+            Map<String, String> values = new HashMap<>();
+            for (int i = 0; i < names.length; i++) {
+                if (names[i] != null && !record.get(i).isEmpty()) {
+                    values.put(names[i], record.get(i));
+                }
+            }
+            run.accept(csv.recordLine(), values);
+        }
+    }
+
+    private void readNdjson(BufferedReader reader, Run run) throws IOException {
+        String text;
+        long line = 0;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (text.isBlank()) {
+                continue;
+            }
+            JsonNode node;
+            try {
+                node = objectMapper.readTree(text);
+            } catch (JsonProcessingException e) {
+                run.received++;
+                run.reject(line, null, "Malformed JSON: " + e.getOriginalMessage());
+                continue;
+            }
+            if (!node.isObject()) {
+                run.received++;
+                run.reject(line, null, "Expected a JSON object");
+                continue;
+            }
+            Map<String, String> values = new HashMap<>();
+            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                String name = fieldName(field.getKey());
+                if (name != null && !field.getValue().isNull()) {
+                    values.put(name, field.getValue().asText());
+                }
+            }
+            run.accept(line, values);
+        }
+    }
+
+    // Canonical field name for a header or JSON key, or null when it is not imported
+    private static String fieldName(String key) {
+        // Spreadsheet tools often start CSV files with a byte order mark
+        String trimmed = key.replace("\uFEFF", "").trim();
+        for (String field : FIELDS) {
+            if (field.equalsIgnoreCase(trimmed)) {
+                return field;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * State of one import: counters, the error report and the chunk waiting to be inserted.
+     */
+    private final class Run {
+        final Long ownerId;
+        final Long builderGroupId;
+        long received;
+        long imported;
+        long failed;
+        final List<BulkImportResult.RowError> errors = new ArrayList<>();
+        boolean errorsTruncated;
+        final List<Property> chunk = new ArrayList<>(CHUNK_SIZE);
+        final List<Long> chunkLines = new ArrayList<>(CHUNK_SIZE);
+        final TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        Run(Long ownerId, Long builderGroupId) {
+            this.ownerId = ownerId;
+            this.builderGroupId = builderGroupId;
+        }
+
+        void accept(long line, Map<String, String> values) {
+            received++;
+            Property property = new Property();
+            List<BulkImportResult.RowError> rowErrors = bind(line, values, property);
+            if (rowErrors.isEmpty()) {
+                for (ConstraintViolation<Property> violation : validator.validate(property)) {
+                    rowErrors.add(error(line, violation.getPropertyPath().toString(), violation.getMessage()));
+                }
+            }
+            if (!rowErrors.isEmpty()) {
+                failed++;
+                rowErrors.forEach(this::report);
+                return;
+            }
+            chunk.add(property);
+            chunkLines.add(line);
+            if (chunk.size() == CHUNK_SIZE) {
+                flush();
+            }
+        }
+
+        void reject(long line, String field, String message) {
+            failed++;
+            report(error(line, field, message));
+        }
+
+        void report(BulkImportResult.RowError error) {
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(error);
+            } else {
+                errorsTruncated = true;
+            }
+        }
+
+        void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            try {
+                insert(chunk);
+                imported += chunk.size();
+            } catch (RuntimeException e) {
+                // Find the offending rows by inserting the chunk one row at a time
+                for (int i = 0; i < chunk.size(); i++) {
+                    Property property = chunk.get(i);
+                    property.setId(null);
+                    property.getImages().forEach(image -> image.setId(null));
+                    try {
+                        insert(List.of(property));
+                        imported++;
+                    } catch (RuntimeException rowFailure) {
+                        reject(chunkLines.get(i), null, Objects.toString(
+                                NestedExceptionUtils.getMostSpecificCause(rowFailure).getMessage(), "Insert failed"));
+                    }
+                }
+            }
+            chunk.clear();
+            chunkLines.clear();
+        }
+
+        void insert(List<Property> properties) {
+            transaction.executeWithoutResult(status -> {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(CHUNK_SIZE);
+                User owner = ownerId != null ? entityManager.getReference(User.class, ownerId) : null;
+                BuilderGroup builderGroup = builderGroupId != null
+                        ? entityManager.getReference(BuilderGroup.class, builderGroupId) : null;
+                for (Property property : properties) {
+                    property.setOwner(owner);
+                    property.setBuilderGroup(builderGroup);
+                    entityManager.persist(property);
+                }
+                entityManager.flush();
+                properties.forEach(property -> eventPublisher.publishEvent(PropertyChangeEvent.created(property)));
+                entityManager.clear();
+            });
+        }
+    }
+
+    private static List<BulkImportResult.RowError> bind(long line, Map<String, String> values, Property property) {
+        List<BulkImportResult.RowError> errors = new ArrayList<>();
+        values.forEach((field, raw) -> {
+            String value = raw.trim();
+            try {
+                switch (field) {
+                    case "title" -> property.setTitle(value);
+                    case "description" -> property.setDescription(value);
+                    case "price" -> property.setPrice(new BigDecimal(value));
+                    case "address" -> property.setAddress(value);
+                    case "city" -> property.setCity(value);
+                    case "state" -> property.setState(value);
+                    case "zipCode" -> property.setZipCode(value);
+                    case "propertyType" -> property.setPropertyType(PropertyType.valueOf(value.toUpperCase(Locale.ROOT)));
+                    case "listingType" -> property.setListingType(ListingType.valueOf(value.toUpperCase(Locale.ROOT)));
+                    case "bedrooms" -> property.setBedrooms(Integer.valueOf(value));
+                    case "bathrooms" -> property.setBathrooms(Integer.valueOf(value));
+                    case "squareFeet" -> property.setSquareFeet(new BigDecimal(value));
+                    case "yearBuilt" -> property.setYearBuilt(Integer.valueOf(value));
+                    case "latitude" -> property.setLatitude(Double.valueOf(value));
+                    case "longitude" -> property.setLongitude(Double.valueOf(value));
+                    case "imageUrl" -> property.addImage(primaryImage(value));
+                    case "available" -> property.setAvailable(parseBoolean(value));
+                    default -> {
+                    }
+                }
+            } catch (IllegalArgumentException e) {
+                // NumberFormatException included
+                errors.add(error(line, field, "Invalid value: " + raw));
+            }
+        });
+        return errors;
+    }
+
+    // The legacy single-image column becomes the property's primary image
+    private static PropertyImage primaryImage(String url) {
+        if (url.length() > MAX_IMAGE_URL_LENGTH) {
+            throw new IllegalArgumentException(url);
+        }
+        return PropertyImage.builder().imageUrl(url).isPrimary(true).displayOrder(0).build();
+    }
+
+    private static Boolean parseBoolean(String value) {
+        if (value.equalsIgnoreCase("true") || value.equals("1")) {
+            return Boolean.TRUE;
+        }
+        if (value.equalsIgnoreCase("false") || value.equals("0")) {
+            return Boolean.FALSE;
+        }
+        throw new IllegalArgumentException(value);
+    }
+
+    private static BulkImportResult.RowError error(long line, String field, String message) {
+        return BulkImportResult.RowError.builder().line(line).field(field).message(message).build();
+    }
+}
@@ -0,0 +1,29 @@
+package com.realestate.service;
+
+import com.realestate.model.Property;
+
+/**
+ * An in-memory structure derived from the properties table.
+ * Implementations are loaded by PropertyIndexCoordinator on startup and
+ * kept in sync with every committed property write afterwards.
+ */
+public interface PropertyIndex {
+
+    /**
+     * Add the property, or replace whatever was previously indexed for its id.
+     * Implementations decide themselves whether unavailable properties are kept.
+     */
+    void index(Property property);
+
+    /**
+     * Drop everything indexed for the given property id. Unknown ids are ignored.
+     */
+    void remove(Long propertyId);
+
+    /**
+     * Called once after the startup pass has loaded every property, before the indexes are
+     * reported ready. Implementations that buffer writes publish their first state here.
+     */
+    default void bootstrapped() {
+    }
+}
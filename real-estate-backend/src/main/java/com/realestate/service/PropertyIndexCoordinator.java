@@ -0,0 +1,161 @@
+package com.realestate.service;
+
+import com.realestate.event.PropertyChangeEvent;
+import com.realestate.model.Property;
+import com.realestate.repository.PropertyRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Feeds every PropertyIndex bean: one chunked pass over the properties table on
+ * startup, then the committed create/update/delete events from PropertyService.
+ */
+@Component
+public class PropertyIndexCoordinator {
+
+    private static final Logger logger = LoggerFactory.getLogger(PropertyIndexCoordinator.class);
+    private static final int BOOTSTRAP_BATCH_SIZE = 500;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private List<PropertyIndex> indexes;
+
+    private volatile boolean ready = false;
+
+    // Set once a property id no longer fits the int ids of the bitmap indexes
+    private volatile boolean idOutOfRange = false;
+
+    // Ids written while the bootstrap pass is running; their loaded rows may be stale
+    private final Set<Long> touchedDuringBootstrap = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock bootstrapLock = new ReentrantLock();
+
+    public boolean isReady() {
+        return ready && !idOutOfRange;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        long started = System.currentTimeMillis();
+        long lastId = 0L;
+        int loaded = 0;
+        try {
+            List<Property> batch;
+            do {
+                batch = propertyRepository.findBatchAfterId(lastId, PageRequest.of(0, BOOTSTRAP_BATCH_SIZE));
+                for (Property property : batch) {
+                    if (!touchedDuringBootstrap.contains(property.getId()) && indexable(property.getId())) {
+                        indexes.forEach(index -> index.index(property));
+                    }
+                    lastId = property.getId();
+                }
+                loaded += batch.size();
+            } while (batch.size() == BOOTSTRAP_BATCH_SIZE);
+            finishBootstrap();
+        } catch (Exception e) {
+            // Callers keep using the database paths while the indexes are not ready
+            logger.error("Failed to load in-memory property indexes: {}", e.getMessage(), e);
+            return;
+        }
+
+        touchedDuringBootstrap.clear();
+        logger.info("Loaded {} properties into {} in-memory indexes in {} ms",
+                loaded, indexes.size(), System.currentTimeMillis() - started);
+    }
+
+    /**
+     * A change can land between the touched check in bootstrap() and the indexing of its stale
+     * row, so every id written during the pass is read again. Changes wait for this, so the last
+     * write wins.
+     */
+    private void finishBootstrap() {
+        bootstrapLock.lock();
+        try {
+            Map<Long, Property> current = propertyRepository.findAllById(touchedDuringBootstrap).stream()
+                    .collect(Collectors.toMap(Property::getId, Function.identity()));
+            for (Long id : touchedDuringBootstrap) {
+                if (!indexable(id)) {
+                    continue;
+                }
+                Property property = current.get(id);
+                for (PropertyIndex index : indexes) {
+                    if (property != null) {
+                        index.index(property);
+                    } else {
+                        index.remove(id);
+                    }
+                }
+            }
+            indexes.forEach(PropertyIndex::bootstrapped);
+            ready = true;
+        } finally {
+            bootstrapLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPropertyChange(PropertyChangeEvent event) {
+        if (!ready) {
+            bootstrapLock.lock();
+            try {
+                if (!ready) {
+                    touchedDuringBootstrap.add(event.getPropertyId());
+                }
+                apply(event);
+            } finally {
+                bootstrapLock.unlock();
+            }
+            return;
+        }
+        apply(event);
+    }
+
+    /**
+     * PropertyAttributeIndex and PropertyGeoIndex key properties by int. A larger id is left out
+     * of every index, and since the indexes would then miss it, they are never reported ready.
+     */
+    private boolean indexable(Long id) {
+        if (id <= Integer.MAX_VALUE) {
+            return true;
+        }
+        if (!idOutOfRange) {
+            idOutOfRange = true;
+            logger.error("Property id {} is beyond the range of the in-memory indexes; "
+                    + "searches will use the database", id);
+        }
+        return false;
+    }
+
+    private void apply(PropertyChangeEvent event) {
+        if (!indexable(event.getPropertyId())) {
+            return;
+        }
+        for (PropertyIndex index : indexes) {
+            try {
+                if (event.getType() == PropertyChangeEvent.Type.DELETED) {
+                    index.remove(event.getPropertyId());
+                } else {
+                    index.index(event.getProperty());
+                }
+            } catch (Exception e) {
+                logger.error("Failed to apply {} of property {} to {}: {}", event.getType(),
+                        event.getPropertyId(), index.getClass().getSimpleName(), e.getMessage(), e);
+            }
+        }
+    }
+}
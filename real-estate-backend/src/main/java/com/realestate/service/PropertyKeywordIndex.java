@@ -0,0 +1,252 @@
+package com.realestate.service;
+
+import com.realestate.model.Property;
+import org.springframework.stereotype.Component;
+
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Tokenized inverted index over the title, description, city and address of
+ * available properties. Replaces the LIKE '%keyword%' table scan for keyword search:
+ * every query term must match (the last one also as a prefix), and hits are ranked
+ * with BM25 over field-weighted term frequencies or by one of the indexed sort keys.
+ */
+@Component
+public class PropertyKeywordIndex implements PropertyIndex {
+
+    private static final float TITLE_WEIGHT = 3.0f;
+    private static final float CITY_WEIGHT = 2.0f;
+    private static final float ADDRESS_WEIGHT = 1.5f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+    private static final double PREFIX_MATCH_WEIGHT = 0.5;
+
+    // BM25 parameters
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    public static final String SORT_RELEVANCE = "relevance";
+
+    private final NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    private final Map<Long, IndexedDoc> docs = new HashMap<>();
+    private double totalLength = 0;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private static final class IndexedDoc {
+        String[] terms;
+        float length;
+        long createdAt;
+        long updatedAt;
+        double price;
+        double squareFeet;
+        int bedrooms;
+    }
+
+    @Override
+    public void index(Property property) {
+        if (!Boolean.TRUE.equals(property.getAvailable())) {
+            remove(property.getId());
+            return;
+        }
+
+        Map<String, Float> weights = new HashMap<>();
+        addField(weights, property.getTitle(), TITLE_WEIGHT);
+        addField(weights, property.getCity(), CITY_WEIGHT);
+        addField(weights, property.getAddress(), ADDRESS_WEIGHT);
+        addField(weights, property.getDescription(), DESCRIPTION_WEIGHT);
+
+        IndexedDoc doc = new IndexedDoc();
+        doc.terms = weights.keySet().toArray(new String[0]);
+        doc.length = (float) weights.values().stream().mapToDouble(Float::doubleValue).sum();
+        doc.createdAt = property.getCreatedAt() != null ? property.getCreatedAt().toEpochSecond(ZoneOffset.UTC) : 0L;
+        doc.updatedAt = property.getUpdatedAt() != null ? property.getUpdatedAt().toEpochSecond(ZoneOffset.UTC) : 0L;
+        doc.price = property.getPrice() != null ? property.getPrice().doubleValue() : 0;
+        doc.squareFeet = property.getSquareFeet() != null ? property.getSquareFeet().doubleValue() : 0;
+        doc.bedrooms = property.getBedrooms() != null ? property.getBedrooms() : 0;
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(property.getId());
+            for (Map.Entry<String, Float> entry : weights.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), t -> new HashMap<>()).put(property.getId(), entry.getValue());
+            }
+            docs.put(property.getId(), doc);
+            totalLength += doc.length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long propertyId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(propertyId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Rank the available properties matching every term of the query.
+     *
+     * @param sortBy    "relevance" or one of createdAt, updatedAt, price, squareFeet, bedrooms
+     * @param limit     number of leading ids to return; the total match count is always exact
+     * @return empty when the query or sort key cannot be served from the index
+     */
+    public Optional<IndexHits> search(String query, String sortBy, boolean ascending, int limit) {
+        List<String> terms = TextAnalyzer.analyze(query);
+        if (terms.isEmpty()) {
+            return Optional.empty();
+        }
+
+        lock.readLock().lock();
+        try {
+            Comparator<Long> order = sortOrder(sortBy, ascending);
+            if (order == null && !SORT_RELEVANCE.equalsIgnoreCase(sortBy)) {
+                return Optional.empty();
+            }
+
+            // One candidate map per query term: doc id -> that term's score contribution
+            List<Map<Long, Double>> termMatches = new ArrayList<>(terms.size());
+            double avgLength = docs.isEmpty() ? 1 : totalLength / docs.size();
+            for (int i = 0; i < terms.size(); i++) {
+                boolean last = i == terms.size() - 1;
+                Map<Long, Double> matches = scoreTerm(terms.get(i), last, avgLength);
+                if (matches.isEmpty()) {
+                    return Optional.of(new IndexHits(Collections.emptyList(), 0));
+                }
+                termMatches.add(matches);
+            }
+            termMatches.sort(Comparator.comparingInt(Map::size));
+
+            Map<Long, Double> scores = new HashMap<>();
+            candidates:
+            for (Map.Entry<Long, Double> candidate : termMatches.get(0).entrySet()) {
+                double score = candidate.getValue();
+                for (int i = 1; i < termMatches.size(); i++) {
+                    Double contribution = termMatches.get(i).get(candidate.getKey());
+                    if (contribution == null) {
+                        continue candidates;
+                    }
+                    score += contribution;
+                }
+                scores.put(candidate.getKey(), score);
+            }
+
+            if (order == null) {
+                order = Comparator.<Long>comparingDouble(scores::get).reversed()
+                        .thenComparing(Comparator.reverseOrder());
+            }
+            return Optional.of(new IndexHits(topN(scores.keySet(), order, limit), scores.size()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Whether some available property has the analyzed term, or a term starting with it.
+     */
+    public boolean contains(String term, boolean asPrefix) {
+        lock.readLock().lock();
+        try {
+            if (!asPrefix) {
+                return postings.containsKey(term);
+            }
+            String next = postings.ceilingKey(term);
+            return next != null && next.startsWith(term);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Long, Double> scoreTerm(String term, boolean allowPrefix, double avgLength) {
+        Map<Long, Double> matches = new HashMap<>();
+        Map<String, Map<Long, Float>> matchingTerms;
+        if (allowPrefix) {
+            matchingTerms = postings.subMap(term, true, term + Character.MAX_VALUE, false);
+        } else {
+            Map<Long, Float> posting = postings.get(term);
+            matchingTerms = posting != null ? Map.of(term, posting) : Collections.emptyMap();
+        }
+
+        for (Map.Entry<String, Map<Long, Float>> entry : matchingTerms.entrySet()) {
+            Map<Long, Float> posting = entry.getValue();
+            double idf = Math.log(1 + (docs.size() - posting.size() + 0.5) / (posting.size() + 0.5));
+            double boost = entry.getKey().equals(term) ? 1.0 : PREFIX_MATCH_WEIGHT;
+            for (Map.Entry<Long, Float> hit : posting.entrySet()) {
+                double tf = hit.getValue();
+                double norm = 1 - B + B * docs.get(hit.getKey()).length / avgLength;
+                double score = boost * idf * tf * (K1 + 1) / (tf + K1 * norm);
+                matches.merge(hit.getKey(), score, Math::max);
+            }
+        }
+        return matches;
+    }
+
+    private Comparator<Long> sortOrder(String sortBy, boolean ascending) {
+        Comparator<Long> order;
+        switch (sortBy == null ? "" : sortBy) {
+            case "createdAt" -> order = Comparator.comparingLong(id -> docs.get(id).createdAt);
+            case "updatedAt" -> order = Comparator.comparingLong(id -> docs.get(id).updatedAt);
+            case "price" -> order = Comparator.comparingDouble(id -> docs.get(id).price);
+            case "squareFeet" -> order = Comparator.comparingDouble(id -> docs.get(id).squareFeet);
+            case "bedrooms" -> order = Comparator.comparingInt(id -> docs.get(id).bedrooms);
+            default -> {
+                return null;
+            }
+        }
+        order = order.thenComparing(Comparator.naturalOrder());
+        return ascending ? order : order.reversed();
+    }
+
+    private static List<Long> topN(Iterable<Long> ids, Comparator<Long> order, int limit) {
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+        // Bounded heap whose head is the worst of the current best `limit` ids
+        PriorityQueue<Long> heap = new PriorityQueue<>(limit + 1, order.reversed());
+        for (Long id : ids) {
+            heap.offer(id);
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+        List<Long> result = new ArrayList<>(heap);
+        result.sort(order);
+        return result;
+    }
+
+    private static void addField(Map<String, Float> weights, String text, float weight) {
+        for (String term : TextAnalyzer.analyze(text)) {
+            weights.merge(term, weight, Float::sum);
+        }
+    }
+
+    private void removeLocked(Long propertyId) {
+        IndexedDoc previous = docs.remove(propertyId);
+        if (previous == null) {
+            return;
+        }
+        totalLength -= previous.length;
+        for (String term : previous.terms) {
+            Map<Long, Float> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(propertyId);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,323 @@
+package com.realestate.service;
+
+import com.realestate.model.ListingType;
+import com.realestate.model.Property;
+import com.realestate.model.PropertyType;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Feature vectors of available properties for location-and-budget recommendations. Each
+ * property keeps log price, log size, bedrooms, bathrooms and type, bucketed by normalized city
+ * and state. A query ranks only the bucket its location names, by weighted distance in units of
+ * the catalog-wide standard deviation of each feature, and returns the nearest K.
+ * <p>
+ * Features the caller leaves open are filled in from what the budget typically buys there:
+ * the median size, bedrooms and bathrooms and the most common type among the listings of that
+ * location priced closest to the budget. Going over budget costs twice as much as staying under.
+ */
+@Component
+public class PropertyRecommendationIndex implements PropertyIndex {
+
+    // Listings whose prices are nearest the budget, used to fill in open features
+    private static final int TYPICAL_SAMPLE = 25;
+
+    private static final double PRICE_WEIGHT = 2.0;
+    private static final double OVER_BUDGET_FACTOR = 2.0;
+    private static final double SIZE_WEIGHT = 1.0;
+    private static final double BEDROOM_WEIGHT = 1.0;
+    private static final double BATHROOM_WEIGHT = 0.5;
+    private static final double REQUESTED_TYPE_PENALTY = 4.0;
+    private static final double TYPICAL_TYPE_PENALTY = 1.0;
+    // Charged per feature a listing lacks but the query has, in squared standard deviations
+    private static final double MISSING_PENALTY = 0.5;
+
+    private static final int LOG_PRICE = 0;
+    private static final int LOG_SIZE = 1;
+    private static final int BEDROOMS = 2;
+    private static final int BATHROOMS = 3;
+    private static final int FEATURES = 4;
+    // Floors for the spread of each feature, so a near-uniform catalog doesn't blow up distances
+    private static final double[] MIN_SPREAD = {0.1, 0.1, 0.5, 0.5};
+
+    private static final class Item {
+        final long id;
+        final String cityKey;
+        final String stateKey;
+        final PropertyType propertyType;
+        final ListingType listingType;
+        final double[] features;  // NaN where the property has no value
+
+        Item(Property property) {
+            id = property.getId();
+            cityKey = Property.locationKey(property.getCity());
+            stateKey = Property.locationKey(property.getState());
+            propertyType = property.getPropertyType();
+            listingType = property.getListingType();
+            features = new double[]{
+                    Math.log(property.getPrice().doubleValue()),
+                    property.getSquareFeet() != null && property.getSquareFeet().signum() > 0
+                            ? Math.log(property.getSquareFeet().doubleValue()) : Double.NaN,
+                    property.getBedrooms() != null ? property.getBedrooms() : Double.NaN,
+                    property.getBathrooms() != null ? property.getBathrooms() : Double.NaN
+            };
+        }
+    }
+
+    private final Map<Long, Item> items = new HashMap<>();
+    private final NavigableMap<String, Map<Long, Item>> byCity = new TreeMap<>();
+    private final Map<String, Map<Long, Item>> byState = new HashMap<>();
+    // Running count, sum and sum of squares per feature over indexed values
+    private final long[] counts = new long[FEATURES];
+    private final double[] sums = new double[FEATURES];
+    private final double[] squares = new double[FEATURES];
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Override
+    public void index(Property property) {
+        if (!Boolean.TRUE.equals(property.getAvailable())
+                || property.getPrice() == null || property.getPrice().signum() <= 0) {
+            remove(property.getId());
+            return;
+        }
+        Item item = new Item(property);
+        lock.writeLock().lock();
+        try {
+            removeLocked(item.id);
+            items.put(item.id, item);
+            if (item.cityKey != null) {
+                byCity.computeIfAbsent(item.cityKey, k -> new HashMap<>()).put(item.id, item);
+            }
+            if (item.stateKey != null) {
+                byState.computeIfAbsent(item.stateKey, k -> new HashMap<>()).put(item.id, item);
+            }
+            accumulate(item, 1);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long propertyId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(propertyId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return items.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of up to {@code limit} listings in {@code location} most similar to what the caller
+     * asks for, best first. The location is a city, a state, or "city, state"; a city that
+     * matches nothing exactly is tried as a prefix. Unknown locations yield no recommendations.
+     *
+     * @param propertyType  wanted type, or null to use what is typical for the budget
+     * @param listingType   restricts results to sales or rentals when given
+     * @param bedrooms      wanted bedrooms, or null to use what is typical for the budget
+     */
+    public List<Long> recommend(String location, double budget, PropertyType propertyType,
+                                ListingType listingType, Integer bedrooms, int limit) {
+        if (budget <= 0 || limit <= 0) {
+            return new ArrayList<>();
+        }
+        lock.readLock().lock();
+        try {
+            List<Item> candidates = new ArrayList<>();
+            for (Item item : candidates(location)) {
+                if (listingType == null || item.listingType == listingType) {
+                    candidates.add(item);
+                }
+            }
+            if (candidates.isEmpty()) {
+                return new ArrayList<>();
+            }
+
+            double[] target = new double[FEATURES];
+            target[LOG_PRICE] = Math.log(budget);
+            List<Item> typical = nearestInPrice(candidates, target[LOG_PRICE]);
+            target[LOG_SIZE] = median(typical, LOG_SIZE);
+            target[BEDROOMS] = bedrooms != null ? bedrooms : median(typical, BEDROOMS);
+            target[BATHROOMS] = median(typical, BATHROOMS);
+            PropertyType wantedType = propertyType != null ? propertyType : mostCommonType(typical);
+            double typePenalty = propertyType != null ? REQUESTED_TYPE_PENALTY : TYPICAL_TYPE_PENALTY;
+            double[] spread = new double[FEATURES];
+            for (int f = 0; f < FEATURES; f++) {
+                spread[f] = spread(f);
+            }
+
+            // Entries are {id, distance}; nearer first, then lower id
+            Comparator<double[]> order = (a, b) -> a[1] != b[1] ? Double.compare(a[1], b[1]) : Double.compare(a[0], b[0]);
+            // Bounded heap whose head is the worst of the current best `limit` items
+            PriorityQueue<double[]> heap = new PriorityQueue<>(limit + 1, order.reversed());
+            for (Item item : candidates) {
+                double distance = distance(item, target, spread)
+                        + (wantedType != null && item.propertyType != wantedType ? typePenalty : 0.0);
+                heap.offer(new double[]{item.id, distance});
+                if (heap.size() > limit) {
+                    heap.poll();
+                }
+            }
+            List<double[]> ranked = new ArrayList<>(heap);
+            ranked.sort(order);
+            List<Long> ids = new ArrayList<>(ranked.size());
+            ranked.forEach(entry -> ids.add((long) entry[0]));
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Caller must hold the read lock
+    private Collection<Item> candidates(String location) {
+        String[] parts = location.split(",", 2);
+        String city = Property.locationKey(parts[0]);
+        String state = parts.length > 1 ? Property.locationKey(parts[1]) : null;
+        if (city == null || city.isEmpty()) {
+            return state != null ? byState.getOrDefault(state, Map.of()).values() : List.of();
+        }
+
+        List<Item> matches = new ArrayList<>();
+        Map<Long, Item> exact = byCity.get(city);
+        Collection<Map<Long, Item>> cities = exact != null ? List.of(exact)
+                : byCity.subMap(city, true, city + Character.MAX_VALUE, false).values();
+        for (Map<Long, Item> bucket : cities) {
+            for (Item item : bucket.values()) {
+                if (state == null || state.isEmpty() || state.equals(item.stateKey)) {
+                    matches.add(item);
+                }
+            }
+        }
+        if (matches.isEmpty() && state == null) {
+            // A single name may be a state
+            return byState.getOrDefault(city, Map.of()).values();
+        }
+        return matches;
+    }
+
+    private static List<Item> nearestInPrice(List<Item> candidates, double logBudget) {
+        if (candidates.size() <= TYPICAL_SAMPLE) {
+            return candidates;
+        }
+        PriorityQueue<Item> heap = new PriorityQueue<>(TYPICAL_SAMPLE + 1, (a, b) -> Double.compare(
+                Math.abs(b.features[LOG_PRICE] - logBudget), Math.abs(a.features[LOG_PRICE] - logBudget)));
+        for (Item item : candidates) {
+            heap.offer(item);
+            if (heap.size() > TYPICAL_SAMPLE) {
+                heap.poll();
+            }
+        }
+        return new ArrayList<>(heap);
+    }
+
+    private static double median(List<Item> sample, int feature) {
+        double[] values = sample.stream()
+                .mapToDouble(item -> item.features[feature])
+                .filter(value -> !Double.isNaN(value))
+                .toArray();
+        if (values.length == 0) {
+            return Double.NaN;
+        }
+        Arrays.sort(values);
+        int middle = values.length / 2;
+        return values.length % 2 == 1 ? values[middle] : (values[middle - 1] + values[middle]) / 2;
+    }
+
+    private static PropertyType mostCommonType(List<Item> sample) {
+        Map<PropertyType, Integer> counts = new EnumMap<>(PropertyType.class);
+        sample.stream()
+                .filter(item -> item.propertyType != null)
+                .forEach(item -> counts.merge(item.propertyType, 1, Integer::sum));
+        return counts.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .map(Map.Entry::getKey)
+                .orElse(null);
+    }
+
+    private static double distance(Item item, double[] target, double[] spread) {
+        double price = (item.features[LOG_PRICE] - target[LOG_PRICE]) / spread[LOG_PRICE];
+        if (price > 0) {
+            price *= OVER_BUDGET_FACTOR;
+        }
+        return PRICE_WEIGHT * price * price
+                + term(item, target, spread, LOG_SIZE, SIZE_WEIGHT)
+                + term(item, target, spread, BEDROOMS, BEDROOM_WEIGHT)
+                + term(item, target, spread, BATHROOMS, BATHROOM_WEIGHT);
+    }
+
+    private static double term(Item item, double[] target, double[] spread, int feature, double weight) {
+        if (Double.isNaN(target[feature])) {
+            return 0.0;
+        }
+        if (Double.isNaN(item.features[feature])) {
+            return weight * MISSING_PENALTY;
+        }
+        double d = (item.features[feature] - target[feature]) / spread[feature];
+        return weight * d * d;
+    }
+
+    // Caller must hold a lock
+    private double spread(int feature) {
+        if (counts[feature] < 2) {
+            return 1.0;
+        }
+        double mean = sums[feature] / counts[feature];
+        double variance = Math.max(0.0, squares[feature] / counts[feature] - mean * mean);
+        return Math.max(Math.sqrt(variance), MIN_SPREAD[feature]);
+    }
+
+    private void accumulate(Item item, int sign) {
+        for (int f = 0; f < FEATURES; f++) {
+            double value = item.features[f];
+            if (!Double.isNaN(value)) {
+                counts[f] += sign;
+                sums[f] += sign * value;
+                squares[f] += sign * value * value;
+            }
+        }
+    }
+
+    private void removeLocked(Long id) {
+        Item previous = items.remove(id);
+        if (previous == null) {
+            return;
+        }
+        detach(byCity, previous.cityKey, id);
+        detach(byState, previous.stateKey, id);
+        accumulate(previous, -1);
+    }
+
+    private static void detach(Map<String, Map<Long, Item>> buckets, String key, Long id) {
+        if (key == null) {
+            return;
+        }
+        Map<Long, Item> bucket = buckets.get(key);
+        if (bucket != null) {
+            bucket.remove(id);
+            if (bucket.isEmpty()) {
+                buckets.remove(key);
+            }
+        }
+    }
+}
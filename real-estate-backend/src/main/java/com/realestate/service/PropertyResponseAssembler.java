@@ -0,0 +1,147 @@
+package com.realestate.service;
+
+import com.realestate.dto.PropertyResponse;
+import com.realestate.model.Property;
+import com.realestate.model.User;
+import com.realestate.repository.FavoriteRepository;
+import com.realestate.repository.PropertyImageRepository;
+import com.realestate.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Builds PropertyResponse DTOs for a whole page of properties at once.
+ * Images, the caller's favorites and owners are each loaded with a single IN
+ * query keyed by the page's property IDs, so the number of queries per page
+ * stays constant regardless of page size. Favorite counts come from the
+ * denormalized column plus FavoriteCounterService's unflushed deltas.
+ */
+@Component
+@Transactional(readOnly = true)
+public class PropertyResponseAssembler {
+
+    @Autowired
+    private PropertyImageRepository propertyImageRepository;
+
+    @Autowired
+    private FavoriteRepository favoriteRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private FavoriteCounterService favoriteCounterService;
+
+    public PropertyResponse toResponse(Property property, Long userId) {
+        return toResponses(List.of(property), userId).get(0);
+    }
+
+    public List<PropertyResponse> toResponses(List<Property> properties, Long userId) {
+        if (properties.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Set<Long> propertyIds = properties.stream()
+                .map(Property::getId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        Map<Long, List<String>> imageUrls = loadImageUrls(propertyIds);
+        Set<Long> favorited = userId != null
+                ? new HashSet<>(favoriteRepository.findFavoritedPropertyIds(userId, propertyIds))
+                : Collections.emptySet();
+        Map<Long, PropertyResponse.OwnerSummary> owners = loadOwners(properties);
+
+        return properties.stream()
+                .map(p -> scalarFields(p)
+                        .owner(p.getOwner() != null ? owners.get(p.getOwner().getId()) : null)
+                        .imageUrls(imageUrls.getOrDefault(p.getId(), new ArrayList<>()))
+                        .favoriteCount(favoriteCounterService.favoriteCount(p.getId(), p.getFavoriteCount()))
+                        .isFavorited(favorited.contains(p.getId()))
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * The property's own columns and favorite count without owner, images or the caller's
+     * favorite flag, so it needs no queries; for change notifications sent in bulk.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public PropertyResponse toSnapshot(Property property) {
+        return scalarFields(property)
+                .favoriteCount(favoriteCounterService.favoriteCount(property.getId(), property.getFavoriteCount()))
+                .build();
+    }
+
+    /**
+     * Image URLs of each property in display order, for callers holding snapshots.
+     */
+    public Map<Long, List<String>> imageUrls(Collection<Long> propertyIds) {
+        return loadImageUrls(propertyIds);
+    }
+
+    private static PropertyResponse.PropertyResponseBuilder scalarFields(Property p) {
+        return PropertyResponse.builder()
+                .id(p.getId())
+                .title(p.getTitle())
+                .description(p.getDescription())
+                .price(p.getPrice())
+                .address(p.getAddress())
+                .city(p.getCity())
+                .state(p.getState())
+                .zipCode(p.getZipCode())
+                .propertyType(p.getPropertyType())
+                .listingType(p.getListingType())
+                .bedrooms(p.getBedrooms())
+                .bathrooms(p.getBathrooms())
+                .squareFeet(p.getSquareFeet())
+                .yearBuilt(p.getYearBuilt())
+                .latitude(p.getLatitude())
+                .longitude(p.getLongitude())
+                .available(p.getAvailable())
+                .createdAt(p.getCreatedAt())
+                .updatedAt(p.getUpdatedAt());
+    }
+
+    private Map<Long, List<String>> loadImageUrls(Collection<Long> propertyIds) {
+        Map<Long, List<String>> imageUrls = new HashMap<>();
+        for (Object[] row : propertyImageRepository.findImageUrlsByPropertyIds(propertyIds)) {
+            imageUrls.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+        }
+        return imageUrls;
+    }
+
+    private Map<Long, PropertyResponse.OwnerSummary> loadOwners(List<Property> properties) {
+        // Reading the id off a lazy owner proxy does not initialize it
+        Set<Long> ownerIds = properties.stream()
+                .map(Property::getOwner)
+                .filter(owner -> owner != null)
+                .map(User::getId)
+                .collect(Collectors.toSet());
+        if (ownerIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        return userRepository.findAllById(ownerIds).stream()
+                .collect(Collectors.toMap(User::getId, owner -> PropertyResponse.OwnerSummary.builder()
+                        .id(owner.getId())
+                        .fullName(owner.getFullName())
+                        .email(owner.getEmail())
+                        .phone(owner.getPhone())
+                        .company(owner.getCompany())
+                        .profileImageUrl(owner.getProfileImageUrl())
+                        .build()));
+    }
+}
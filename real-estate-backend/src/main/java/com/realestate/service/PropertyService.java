@@ -1,43 +1,107 @@
 package com.realestate.service;
 
+import com.realestate.dto.MarketStats;
 import com.realestate.dto.PageResponse;
 import com.realestate.dto.PropertyResponse;
 import com.realestate.dto.PropertySearchRequest;
+import com.realestate.dto.Suggestion;
+import com.realestate.event.PropertyChangeEvent;
+import com.realestate.event.PropertyPriceChangeEvent;
+import com.realestate.exception.ResourceNotFoundException;
 import com.realestate.model.ListingType;
 import com.realestate.model.Property;
 import com.realestate.model.PropertyType;
-import com.realestate.model.User;
-import com.realestate.repository.FavoriteRepository;
+import com.realestate.repository.NotificationRepository;
 import com.realestate.repository.PropertyRepository;
-import com.realestate.repository.PropertyImageRepository;
+import com.realestate.repository.PropertySpecifications;
+import com.realestate.repository.PropertyViewStatsRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class PropertyService {
     
+    private static final int MAX_NEARBY_CANDIDATES = 10_000;
+    private static final int MAX_PAGE_SIZE = 100;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
     @Autowired
     private PropertyRepository propertyRepository;
     
     @Autowired
-    private FavoriteRepository favoriteRepository;
+    private DotNetRecommendationClient dotNetRecommendationClient;
 
     @Autowired
-    private PropertyImageRepository propertyImageRepository;
+    private PropertyResponseAssembler propertyResponseAssembler;
 
     @Autowired
-    private DotNetRecommendationClient dotNetRecommendationClient;
+    private PropertyKeywordIndex propertyKeywordIndex;
+
+    @Autowired
+    private PropertyAttributeIndex propertyAttributeIndex;
+
+    @Autowired
+    private PropertyColumnStore propertyColumnStore;
+
+    @Autowired
+    private PropertyGeoIndex propertyGeoIndex;
+
+    @Autowired
+    private PropertySuggestionIndex propertySuggestionIndex;
+
+    @Autowired
+    private PropertySpellingIndex propertySpellingIndex;
+
+    @Autowired
+    private MarketStatsIndex marketStatsIndex;
+
+    @Autowired
+    private PropertyIndexCoordinator propertyIndexCoordinator;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PropertyTopListings propertyTopListings;
+
+    @Autowired
+    private PropertyTrending propertyTrending;
+
+    @Autowired
+    private PropertyViewStatsRepository propertyViewStatsRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
 
     public List<Property> getAllProperties() {
         return propertyRepository.findAll();
@@ -57,18 +121,27 @@ public class PropertyService {
         return buildPageResponse(propertyPage, null);
     }
     
+    public PageResponse<PropertyResponse> getAvailablePropertiesByCursor(String cursor, int size, String sortBy,
+                                                                        String direction, boolean includeTotal) {
+        Specification<Property> filter = PropertySpecifications.availableOnly();
+        return seekPage(filter, cursor, size, sortBy, direction,
+                includeTotal ? () -> countMatching(filter, PropertyColumns::size) : null, null);
+    }
+    
     public Optional<Property> getPropertyById(Long id) {
         return propertyRepository.findById(id);
     }
     
     public PropertyResponse getPropertyResponseById(Long id, Long userId) {
         Property property = propertyRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Property not found with id: " + id));
+                .orElseThrow(() -> new ResourceNotFoundException("Property not found with id: " + id));
         return toPropertyResponse(property, userId);
     }
     
     public Property createProperty(Property property) {
-        return propertyRepository.save(property);
+        Property saved = propertyRepository.save(property);
+        eventPublisher.publishEvent(PropertyChangeEvent.created(saved));
+        return saved;
     }
     
     public Property updateProperty(Long id, Property propertyDetails) {
@@ -77,6 +150,7 @@ public class PropertyService {
         
         property.setTitle(propertyDetails.getTitle());
         property.setDescription(propertyDetails.getDescription());
+        BigDecimal oldPrice = property.getPrice();
         property.setPrice(propertyDetails.getPrice());
         property.setAddress(propertyDetails.getAddress());
         property.setCity(propertyDetails.getCity());
@@ -88,14 +162,28 @@ public class PropertyService {
         property.setBathrooms(propertyDetails.getBathrooms());
         property.setSquareFeet(propertyDetails.getSquareFeet());
         property.setYearBuilt(propertyDetails.getYearBuilt());
+        property.setLatitude(propertyDetails.getLatitude());
+        property.setLongitude(propertyDetails.getLongitude());
         property.setImageUrl(propertyDetails.getImageUrl());
+        boolean wasAvailable = Boolean.TRUE.equals(property.getAvailable());
         property.setAvailable(propertyDetails.getAvailable());
         
-        return propertyRepository.save(property);
+        Property saved = propertyRepository.save(property);
+        boolean availabilityChanged = wasAvailable != Boolean.TRUE.equals(saved.getAvailable());
+        eventPublisher.publishEvent(PropertyChangeEvent.updated(saved, availabilityChanged));
+        if (oldPrice != null && saved.getPrice() != null && oldPrice.compareTo(saved.getPrice()) != 0) {
+            eventPublisher.publishEvent(new PropertyPriceChangeEvent(saved.getId(),
+                    saved.getOwner() != null ? saved.getOwner().getId() : null,
+                    saved.getTitle(), saved.getCity(), oldPrice, saved.getPrice()));
+        }
+        return saved;
     }
     
     public void deleteProperty(Long id) {
+        propertyViewStatsRepository.deleteByPropertyId(id);
+        notificationRepository.deleteByPropertyId(id);
         propertyRepository.deleteById(id);
+        eventPublisher.publishEvent(PropertyChangeEvent.deleted(id));
     }
     
     public List<Property> getPropertiesByCity(String city) {
@@ -116,6 +204,34 @@ public class PropertyService {
     
     // Advanced Search
     public PageResponse<PropertyResponse> searchProperties(PropertySearchRequest request, Long userId) {
+        // Keyword searches ignore the structured filters, the geo ones included
+        boolean hasKeyword = request.getKeyword() != null && !request.getKeyword().isEmpty();
+        GeoArea area = hasKeyword ? null : GeoArea.from(request).orElse(null);
+        PageResponse<PropertyResponse> response = runSearch(request, request.getKeyword(), area, userId);
+        
+        if (hasKeyword && response.getContent().isEmpty()) {
+            String corrected = correctSpelling(request.getKeyword());
+            if (corrected != null) {
+                PageResponse<PropertyResponse> correctedResponse = runSearch(request, corrected, null, userId);
+                if (!correctedResponse.getContent().isEmpty()) {
+                    correctedResponse.setDidYouMean(corrected);
+                    return correctedResponse;
+                }
+            }
+        }
+        if (Boolean.TRUE.equals(request.getIncludeFacets()) && !hasKeyword && propertyIndexCoordinator.isReady()) {
+            CompressedBitmap within = area != null && area.isFilter() ? propertyGeoIndex.within(area) : null;
+            response.setFacets(propertyAttributeIndex.facets(request, within));
+        }
+        if (area != null && area.hasCenter()) {
+            response.getContent().forEach(property -> property.setDistanceKm(
+                    area.distanceFromCenterKm(property.getLatitude(), property.getLongitude())));
+        }
+        return response;
+    }
+    
+    private PageResponse<PropertyResponse> runSearch(PropertySearchRequest request, String keyword, GeoArea area,
+                                                     Long userId) {
         String sortBy = request.getSortBy() != null ? request.getSortBy() : "createdAt";
         String sortDirection = request.getSortDirection() != null ? request.getSortDirection() : "DESC";
         int page = request.getPage() != null ? request.getPage() : 0;
@@ -126,33 +242,265 @@ public class PropertyService {
                 : Sort.by(sortBy).descending();
         Pageable pageable = PageRequest.of(page, size, sort);
         
+        boolean hasKeyword = keyword != null && !keyword.isEmpty();
+        boolean includeTotal = Boolean.TRUE.equals(request.getIncludeTotal());
+        if (request.getCursor() != null) {
+            if (area != null) {
+                throw new IllegalArgumentException("Geo search does not support cursor pagination; use page and size");
+            }
+            if (hasKeyword) {
+                return searchByKeywordCursor(keyword, request.getCursor(), size, sortBy, sortDirection,
+                        includeTotal, userId);
+            }
+            Specification<Property> filter = PropertySpecifications.matchesSearch(request);
+            return seekPage(filter, request.getCursor(), size, sortBy, sortDirection,
+                    includeTotal ? () -> countMatching(filter, columns -> columns.count(columns.compile(request))) : null,
+                    userId);
+        }
+        
         Page<Property> propertyPage;
         
         // If keyword is provided, use keyword search
-        if (request.getKeyword() != null && !request.getKeyword().isEmpty()) {
-            propertyPage = propertyRepository.searchByKeyword(request.getKeyword(), pageable);
+        if (hasKeyword) {
+            propertyPage = searchByKeywordIndex(keyword, sortBy, sortDirection, pageable)
+                    .orElseGet(() -> propertyRepository.searchByKeyword(keyword, pageable));
+        } else if (area != null) {
+            propertyPage = searchNearby(request, area, sortBy, sortDirection, pageable);
         } else {
             // Use advanced search
-            propertyPage = propertyRepository.searchProperties(
-                    request.getCity(),
-                    request.getState(),
-                    request.getPropertyType(),
-                    request.getListingType(),
-                    request.getMinPrice(),
-                    request.getMaxPrice(),
-                    request.getMinBedrooms(),
-                    request.getMaxBedrooms(),
-                    request.getMinBathrooms(),
-                    request.getMaxBathrooms(),
-                    request.getMinSquareFeet(),
-                    request.getMaxSquareFeet(),
-                    pageable
-            );
+            propertyPage = searchByAttributeIndex(request, sortBy, sortDirection, pageable)
+                    .orElseGet(() -> propertyRepository.findAll(PropertySpecifications.matchesSearch(request), pageable));
         }
         
         return buildPageResponse(propertyPage, userId);
     }
     
+    // Keyword search served from the in-memory index; empty when the index cannot answer
+    private Optional<Page<Property>> searchByKeywordIndex(String keyword, String sortBy, String sortDirection, Pageable pageable) {
+        if (!propertyIndexCoordinator.isReady()) {
+            return Optional.empty();
+        }
+        int limit = (pageable.getPageNumber() + 1) * pageable.getPageSize();
+        return propertyKeywordIndex.search(keyword, sortBy, sortDirection.equalsIgnoreCase("ASC"), limit)
+                .map(hits -> toPage(hits, pageable));
+    }
+    
+    /**
+     * The keyword with every term that no available property has replaced by the closest indexed
+     * token, or null when there is nothing to correct. Like the search, the last term may be a prefix.
+     */
+    private String correctSpelling(String keyword) {
+        if (!propertyIndexCoordinator.isReady()) {
+            return null;
+        }
+        List<String> tokens = TextAnalyzer.tokenize(keyword);
+        int lastTerm = -1;
+        for (int i = 0; i < tokens.size(); i++) {
+            if (!TextAnalyzer.isStopWord(tokens.get(i))) {
+                lastTerm = i;
+            }
+        }
+        boolean corrected = false;
+        for (int i = 0; i <= lastTerm; i++) {
+            String token = tokens.get(i);
+            if (TextAnalyzer.isStopWord(token) || propertyKeywordIndex.contains(TextAnalyzer.stem(token), i == lastTerm)) {
+                continue;
+            }
+            Optional<String> correction = propertySpellingIndex.correct(token);
+            if (correction.isPresent()) {
+                tokens.set(i, correction.get());
+                corrected = true;
+            }
+        }
+        return corrected ? String.join(" ", tokens) : null;
+    }
+    
+    private Page<Property> toPage(IndexHits hits, Pageable pageable) {
+        int from = Math.min((int) pageable.getOffset(), hits.ids().size());
+        List<Long> pageIds = hits.ids().subList(from, hits.ids().size());
+        return new PageImpl<>(hydrateInOrder(pageIds), pageable, hits.totalMatches());
+    }
+    
+    // Structured filters resolved to a sorted id set from the bitmap index; only the page is read from the database
+    private Optional<Page<Property>> searchByAttributeIndex(PropertySearchRequest request, String sortBy,
+                                                            String sortDirection, Pageable pageable) {
+        if (!propertyIndexCoordinator.isReady()) {
+            return Optional.empty();
+        }
+        int limit = (pageable.getPageNumber() + 1) * pageable.getPageSize();
+        return propertyAttributeIndex.search(request, null, sortBy, sortDirection.equalsIgnoreCase("ASC"), limit)
+                .map(hits -> toPage(hits, pageable));
+    }
+    
+    // Geo search: the grid index narrows to the area and the bitmap index applies the other filters
+    private Page<Property> searchNearby(PropertySearchRequest request, GeoArea area, String sortBy,
+                                        String sortDirection, Pageable pageable) {
+        boolean byDistance = "distance".equals(sortBy);
+        if (byDistance && !area.hasCenter()) {
+            throw new IllegalArgumentException("sortBy=distance requires latitude and longitude");
+        }
+        boolean ascending = sortDirection.equalsIgnoreCase("ASC");
+        if (!propertyIndexCoordinator.isReady()) {
+            return searchNearbyInDatabase(request, area, sortBy, ascending, pageable);
+        }
+        int limit = (pageable.getPageNumber() + 1) * pageable.getPageSize();
+        CompressedBitmap within = area.isFilter() ? propertyGeoIndex.within(area) : null;
+        Optional<IndexHits> hits = byDistance
+                ? Optional.of(propertyGeoIndex.nearest(propertyAttributeIndex.matching(request, within), area, ascending, limit))
+                : propertyAttributeIndex.search(request, within, sortBy, ascending, limit);
+        return hits.map(h -> toPage(h, pageable))
+                .orElseGet(() -> searchNearbyInDatabase(request, area, sortBy, ascending, pageable));
+    }
+    
+    /**
+     * Geo search without the indexes. A bounding box or bare center is exact in SQL, so the database
+     * pages the rows. A radius or the distance order needs the exact distance, so only the ids and
+     * coordinates of the envelope's rows are read, and just the page is loaded as entities; envelopes
+     * holding more than MAX_NEARBY_CANDIDATES rows are rejected.
+     */
+    private Page<Property> searchNearbyInDatabase(PropertySearchRequest request, GeoArea area, String sortBy,
+                                                  boolean ascending, Pageable pageable) {
+        Specification<Property> spec = PropertySpecifications.matchesSearch(request);
+        if (area.isFilter()) {
+            spec = spec.and(PropertySpecifications.withinBox(area.minLatitude(), area.maxLatitude(),
+                    area.minLongitude(), area.maxLongitude()));
+        }
+        boolean byDistance = "distance".equals(sortBy);
+        Sort.Direction direction = ascending ? Sort.Direction.ASC : Sort.Direction.DESC;
+        if (!byDistance && area.radiusKm() == null) {
+            Sort sort = Sort.by(direction, sortBy).and(Sort.by(direction, "id"));
+            return propertyRepository.findAll(spec, PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort));
+        }
+        
+        List<Object[]> candidates = nearbyCandidates(spec, byDistance ? "id" : sortBy, ascending);
+        if (candidates.size() > MAX_NEARBY_CANDIDATES) {
+            throw new IllegalArgumentException("Search area is too large while the search index is loading; "
+                    + "narrow the radius or bounding box");
+        }
+        List<Object[]> matches = candidates.stream()
+                .filter(row -> !area.isFilter() || area.contains((Double) row[1], (Double) row[2]))
+                .collect(Collectors.toList());
+        if (byDistance) {
+            // Properties without coordinates go last in either direction
+            matches.sort(Comparator.comparing(
+                    (Object[] row) -> area.distanceFromCenterKm((Double) row[1], (Double) row[2]),
+                    Comparator.nullsLast(ascending ? Comparator.<Double>naturalOrder() : Comparator.<Double>reverseOrder())));
+        }
+        int from = (int) Math.min(pageable.getOffset(), matches.size());
+        int to = Math.min(from + pageable.getPageSize(), matches.size());
+        List<Long> pageIds = matches.subList(from, to).stream().map(row -> (Long) row[0]).collect(Collectors.toList());
+        return new PageImpl<>(hydrateInOrder(pageIds), pageable, matches.size());
+    }
+    
+    // (id, latitude, longitude) of the matching rows in sortBy, id order; one row past the cap tells it was exceeded
+    private List<Object[]> nearbyCandidates(Specification<Property> spec, String sortBy, boolean ascending) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<Property> root = query.from(Property.class);
+        query.multiselect(root.get("id"), root.get("latitude"), root.get("longitude"))
+                .where(spec.toPredicate(root, query, cb))
+                .orderBy(ascending ? cb.asc(root.get(sortBy)) : cb.desc(root.get(sortBy)),
+                        ascending ? cb.asc(root.get("id")) : cb.desc(root.get("id")));
+        return entityManager.createQuery(query).setMaxResults(MAX_NEARBY_CANDIDATES + 1).getResultList();
+    }
+    
+    // Cursor mode for keyword search: an offset into the ranked index hits, or a seek when the index cannot answer
+    private PageResponse<PropertyResponse> searchByKeywordCursor(String keyword, String cursor, int size, String sortBy,
+                                                                 String sortDirection, boolean includeTotal, Long userId) {
+        PageCursor after = cursor.isEmpty() ? null : PageCursor.decode(cursor);
+        if (after != null) {
+            sortBy = after.sortBy();
+            sortDirection = after.ascending() ? "ASC" : "DESC";
+        }
+        boolean ascending = sortDirection.equalsIgnoreCase("ASC");
+        int offset = after != null && after.isOffset() ? after.offset() : 0;
+        
+        Optional<IndexHits> hits = (after == null || after.isOffset()) && propertyIndexCoordinator.isReady()
+                ? propertyKeywordIndex.search(keyword, sortBy, ascending, offset + size)
+                : Optional.empty();
+        if (hits.isEmpty()) {
+            if (after != null && after.isOffset()) {
+                throw new IllegalArgumentException("Cursor has expired, restart from the first page");
+            }
+            Specification<Property> filter = PropertySpecifications.keywordContains(keyword);
+            return seekPage(filter, cursor, size, sortBy, sortDirection,
+                    includeTotal ? () -> propertyRepository.count(filter) : null, userId);
+        }
+        
+        List<Long> ids = hits.get().ids();
+        List<Property> content = hydrateInOrder(ids.subList(Math.min(offset, ids.size()), ids.size()));
+        boolean hasNext = hits.get().totalMatches() > offset + size;
+        String nextCursor = hasNext ? PageCursor.atOffset(offset + size, sortBy, ascending).encode() : null;
+        return buildCursorPageResponse(content, size, after != null, hasNext, nextCursor,
+                includeTotal ? hits.get().totalMatches() : -1, userId);
+    }
+    
+    /**
+     * Keyset pagination: seeks past the (sortKey, id) carried by the cursor and reads one extra row
+     * to learn whether another page exists, so neither OFFSET nor a COUNT query is needed.
+     * An empty cursor starts from the first page; the total is only counted when a counter is given.
+     * Pages hold at most {@value #MAX_PAGE_SIZE} rows.
+     */
+    private PageResponse<PropertyResponse> seekPage(Specification<Property> filter, String cursor, int requestedSize,
+                                                    String sortBy, String direction, LongSupplier totalCounter,
+                                                    Long userId) {
+        if (requestedSize < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+        int size = Math.min(requestedSize, MAX_PAGE_SIZE);
+        PageCursor after = cursor.isEmpty() ? null : PageCursor.decode(cursor);
+        if (after != null && after.isOffset()) {
+            throw new IllegalArgumentException("Cursor does not belong to this listing");
+        }
+        if (after != null) {
+            sortBy = after.sortBy();
+            direction = after.ascending() ? "ASC" : "DESC";
+        }
+        if (!PageCursor.KEYSET_SORT_KEYS.contains(sortBy)) {
+            throw new IllegalArgumentException("Cursor pagination supports sortBy " + PageCursor.KEYSET_SORT_KEYS);
+        }
+        boolean ascending = direction.equalsIgnoreCase("ASC");
+        Sort.Direction sortDirection = ascending ? Sort.Direction.ASC : Sort.Direction.DESC;
+        Sort sort = Sort.by(sortDirection, sortBy).and(Sort.by(sortDirection, "id"));
+        
+        Specification<Property> spec = after == null
+                ? filter
+                : filter.and(PropertySpecifications.after(sortBy, after.typedLastValue(), after.lastId(), ascending));
+        List<Property> rows = propertyRepository.findBy(spec, query -> query.sortBy(sort).limit(size + 1).all());
+        
+        boolean hasNext = rows.size() > size;
+        List<Property> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? PageCursor.after(content.get(size - 1), sortBy, ascending).encode() : null;
+        long total = totalCounter != null ? totalCounter.getAsLong() : -1;
+        return buildCursorPageResponse(content, size, after != null, hasNext, nextCursor, total, userId);
+    }
+    
+    /**
+     * Count the available properties matching a filter by scanning the column snapshot once the
+     * indexes are loaded, falling back to a COUNT query before that. The snapshot may trail the
+     * latest writes by one refresh interval, which is fine for a total shown next to a page.
+     */
+    private long countMatching(Specification<Property> filter, ToLongFunction<PropertyColumns> columnCount) {
+        if (!propertyIndexCoordinator.isReady()) {
+            return propertyRepository.count(filter);
+        }
+        return columnCount.applyAsLong(propertyColumnStore.snapshot());
+    }
+    
+    // Load properties by id, preserving the given order and skipping ids deleted in the meantime
+    private List<Property> hydrateInOrder(List<Long> ids) {
+        Map<Long, Property> byId = propertyRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Property::getId, Function.identity()));
+        List<Property> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Property property = byId.get(id);
+            if (property != null) {
+                ordered.add(property);
+            }
+        }
+        return ordered;
+    }
+    
     // Get properties by owner
     public List<Property> getPropertiesByOwner(Long ownerId) {
         return propertyRepository.findByOwnerId(ownerId);
@@ -164,9 +512,37 @@ public class PropertyService {
         return buildPageResponse(propertyPage, null);
     }
     
-    // Get recent listings
-    public List<Property> getRecentProperties(int limit) {
-        return propertyRepository.findRecentProperties(PageRequest.of(0, limit));
+    public PageResponse<PropertyResponse> getPropertiesByOwnerByCursor(Long ownerId, String cursor, int size,
+                                                                      boolean includeTotal) {
+        // Owner listings include unavailable properties, which the column snapshot does not hold
+        Specification<Property> filter = PropertySpecifications.ownedBy(ownerId);
+        return seekPage(filter, cursor, size, "createdAt", "DESC",
+                includeTotal ? () -> propertyRepository.count(filter) : null, null);
+    }
+    
+    // Get recent listings, optionally in one city; served from memory once the indexes are loaded
+    public List<PropertyResponse> getRecentProperties(String city, int limit) {
+        if (propertyIndexCoordinator.isReady()) {
+            return city != null ? propertyTopListings.newestInCity(city, limit) : propertyTopListings.newest(limit);
+        }
+        List<Property> recent = city != null
+                ? propertyRepository.findRecentByCityKey(Property.locationKey(city), PageRequest.of(0, limit))
+                : propertyRepository.findRecentProperties(PageRequest.of(0, limit));
+        return propertyResponseAssembler.toResponses(recent, null);
+    }
+    
+    // Get the cheapest listings for sale
+    public List<PropertyResponse> getCheapestForSale(int limit) {
+        if (propertyIndexCoordinator.isReady()) {
+            return propertyTopListings.cheapestForSale(limit);
+        }
+        return propertyResponseAssembler.toResponses(
+                propertyRepository.findCheapestForSale(PageRequest.of(0, limit)), null);
+    }
+    
+    // Get the listings drawing the most interest lately, optionally in one city
+    public List<PropertyResponse> getTrendingProperties(String city, int limit) {
+        return propertyResponseAssembler.toResponses(hydrateInOrder(propertyTrending.trending(city, limit)), null);
     }
     
     // Get all cities
@@ -179,73 +555,87 @@ public class PropertyService {
         return propertyRepository.findAllStates();
     }
     
+    // Typeahead; until the indexes are loaded only city and state names are offered
+    public List<Suggestion> getSuggestions(String query, int limit) {
+        if (propertyIndexCoordinator.isReady()) {
+            return propertySuggestionIndex.suggest(query, limit);
+        }
+        String prefix = query.trim().toLowerCase();
+        List<Suggestion> suggestions = new ArrayList<>();
+        propertyRepository.findAllCities().stream()
+                .filter(city -> city != null && city.toLowerCase().startsWith(prefix))
+                .forEach(city -> suggestions.add(Suggestion.builder().text(city).type(Suggestion.Type.CITY).build()));
+        propertyRepository.findAllStates().stream()
+                .filter(state -> state != null && state.toLowerCase().startsWith(prefix))
+                .forEach(state -> suggestions.add(Suggestion.builder().text(state).type(Suggestion.Type.STATE).build()));
+        return suggestions.stream().limit(limit).collect(Collectors.toList());
+    }
+    
     // Statistics
     public Long getAvailableCount() {
+        if (propertyIndexCoordinator.isReady()) {
+            return (long) propertyColumnStore.snapshot().size();
+        }
         return propertyRepository.countAvailable();
     }
     
     public BigDecimal getAveragePriceByCity(String city) {
+        if (propertyIndexCoordinator.isReady()) {
+            return marketStatsIndex.forCity(city).map(MarketStats::getAveragePrice).orElse(null);
+        }
         return propertyRepository.getAveragePriceByCity(city);
     }
     
-    // Convert to DTO
-    public PropertyResponse toPropertyResponse(Property property, Long userId) {
-        PropertyResponse.OwnerSummary ownerSummary = null;
-        if (property.getOwner() != null) {
-            User owner = property.getOwner();
-            ownerSummary = PropertyResponse.OwnerSummary.builder()
-                    .id(owner.getId())
-                    .fullName(owner.getFullName())
-                    .email(owner.getEmail())
-                    .phone(owner.getPhone())
-                    .company(owner.getCompany())
-                    .profileImageUrl(owner.getProfileImageUrl())
-                    .build();
+    /**
+     * Market statistics for one city, state or property type, or for the whole catalog when none is given.
+     * Until the indexes are loaded only count, average, min and max are available.
+     */
+    public MarketStats getMarketStats(String city, String state, PropertyType propertyType) {
+        long given = Stream.of(city, state, propertyType).filter(Objects::nonNull).count();
+        if (given > 1) {
+            throw new IllegalArgumentException("Give at most one of city, state and propertyType");
         }
+        MarketStats.Scope scope = city != null ? MarketStats.Scope.CITY
+                : state != null ? MarketStats.Scope.STATE
+                : propertyType != null ? MarketStats.Scope.PROPERTY_TYPE
+                : MarketStats.Scope.ALL;
+        String value = city != null ? city : state != null ? state : propertyType != null ? propertyType.name() : null;
         
-        // Explicitly fetch images from database instead of relying on lazy loading
-        List<String> imageUrls = null;
-        try {
-            imageUrls = propertyImageRepository.findByPropertyIdOrderByDisplayOrderAsc(property.getId()).stream()
-                    .map(img -> img.getImageUrl())
-                    .collect(Collectors.toList());
-        } catch (Exception e) {
-            // If there's any error fetching images, use empty list
-            imageUrls = new java.util.ArrayList<>();
+        if (propertyIndexCoordinator.isReady()) {
+            Optional<MarketStats> stats = switch (scope) {
+                case CITY -> marketStatsIndex.forCity(city);
+                case STATE -> marketStatsIndex.forState(state);
+                case PROPERTY_TYPE -> marketStatsIndex.forPropertyType(propertyType);
+                case ALL -> Optional.of(marketStatsIndex.overall());
+            };
+            return stats.orElseGet(() -> MarketStats.builder().scope(scope).value(value).count(0L).countWithSquareFeet(0L).build());
         }
         
-        Long favoriteCount = favoriteRepository.countByPropertyId(property.getId());
-        Boolean isFavorited = userId != null && favoriteRepository.existsByUserIdAndPropertyId(userId, property.getId());
-        
-        return PropertyResponse.builder()
-                .id(property.getId())
-                .title(property.getTitle())
-                .description(property.getDescription())
-                .price(property.getPrice())
-                .address(property.getAddress())
-                .city(property.getCity())
-                .state(property.getState())
-                .zipCode(property.getZipCode())
-                .propertyType(property.getPropertyType())
-                .listingType(property.getListingType())
-                .bedrooms(property.getBedrooms())
-                .bathrooms(property.getBathrooms())
-                .squareFeet(property.getSquareFeet())
-                .yearBuilt(property.getYearBuilt())
-                .available(property.getAvailable())
-                .createdAt(property.getCreatedAt())
-                .updatedAt(property.getUpdatedAt())
-                .owner(ownerSummary)
-                .imageUrls(imageUrls)
-                .favoriteCount(favoriteCount)
-                .isFavorited(isFavorited)
+        List<Object[]> rows = switch (scope) {
+            case CITY -> propertyRepository.getPriceSummaryByCityKey(Property.locationKey(city));
+            case STATE -> propertyRepository.getPriceSummaryByStateKey(Property.locationKey(state));
+            case PROPERTY_TYPE -> propertyRepository.getPriceSummaryByPropertyType(propertyType);
+            case ALL -> propertyRepository.getPriceSummary();
+        };
+        Object[] row = rows.get(0);
+        long count = ((Number) row[0]).longValue();
+        return MarketStats.builder()
+                .scope(scope)
+                .value(value)
+                .count(count)
+                .averagePrice(count > 0 ? ((BigDecimal) row[1]).divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP) : null)
+                .minPrice((BigDecimal) row[2])
+                .maxPrice((BigDecimal) row[3])
                 .build();
     }
     
+    // Convert to DTO
+    public PropertyResponse toPropertyResponse(Property property, Long userId) {
+        return propertyResponseAssembler.toResponse(property, userId);
+    }
+    
     private PageResponse<PropertyResponse> buildPageResponse(Page<Property> page, Long userId) {
-        List<PropertyResponse> content = page.getContent().stream()
-                .map(p -> toPropertyResponse(p, userId))
-                .collect(Collectors.toList());
+        List<PropertyResponse> content = propertyResponseAssembler.toResponses(page.getContent(), userId);
         
         return PageResponse.<PropertyResponse>builder()
                 .content(content)
@@ -259,6 +649,22 @@ public class PropertyService {
                 .hasPrevious(page.hasPrevious())
                 .build();
     }
-
-
+    
+    // totalElements and totalPages are -1 unless the caller asked for the total
+    private PageResponse<PropertyResponse> buildCursorPageResponse(List<Property> content, int size, boolean hasPrevious,
+                                                                   boolean hasNext, String nextCursor, long total,
+                                                                   Long userId) {
+        return PageResponse.<PropertyResponse>builder()
+                .content(propertyResponseAssembler.toResponses(content, userId))
+                .pageNumber(0)
+                .pageSize(size)
+                .totalElements(total)
+                .totalPages(total >= 0 ? (int) ((total + size - 1) / size) : -1)
+                .first(!hasPrevious)
+                .last(!hasNext)
+                .hasNext(hasNext)
+                .hasPrevious(hasPrevious)
+                .nextCursor(nextCursor)
+                .build();
+    }
 }
@@ -0,0 +1,252 @@
+package com.realestate.service;
+
+import com.realestate.model.Property;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Spelling correction for keyword search. The vocabulary is every folded token of the title,
+ * city and address of available properties, with the number of listings using it, and each
+ * token is filed under its character trigrams ("$" marks the word boundaries, so "loft" has
+ * "$lo", "lof", "oft", "ft$"). A misspelled token is corrected by counting shared trigrams to
+ * find candidates and checking those with a Levenshtein distance that gives up past the bound.
+ * <p>
+ * One edit changes at most three trigrams, so a token within {@code k} edits shares at least
+ * {@code trigrams - 3k} of them with the query. The bounds below keep that positive, so only
+ * tokens filed under the query's rarest trigrams are ever compared.
+ */
+@Component
+public class PropertySpellingIndex implements PropertyIndex {
+
+    private static final int MIN_TOKEN_LENGTH = 3;
+    private static final int MIN_CORRECTED_LENGTH = 4;
+    private static final int TWO_EDITS_FROM_LENGTH = 8;
+    private static final char BOUNDARY = '$';
+
+    private static final class Token {
+        final String text;
+        final Set<String> trigrams;
+        int listings;
+
+        Token(String text) {
+            this.text = text;
+            this.trigrams = trigrams(text);
+        }
+    }
+
+    private final Map<String, Token> vocabulary = new HashMap<>();
+    private final Map<String, Set<String>> tokensByTrigram = new HashMap<>();
+    private final Map<Long, String[]> tokensByProperty = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Override
+    public void index(Property property) {
+        if (!Boolean.TRUE.equals(property.getAvailable())) {
+            remove(property.getId());
+            return;
+        }
+        Set<String> tokens = new LinkedHashSet<>();
+        addTokens(tokens, property.getTitle());
+        addTokens(tokens, property.getCity());
+        addTokens(tokens, property.getAddress());
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(property.getId());
+            String[] indexed = new String[tokens.size()];
+            int i = 0;
+            for (String token : tokens) {
+                indexed[i++] = addToken(token);
+            }
+            tokensByProperty.put(property.getId(), indexed);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long propertyId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(propertyId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The indexed token closest to a misspelled one: the fewest edits, then the most listings.
+     * Tokens of up to seven characters may be one edit away, longer ones two.
+     *
+     * @param token a folded query token, see TextAnalyzer.tokenize
+     * @return empty for indexed, short or numeric tokens and when nothing is close enough
+     */
+    public Optional<String> correct(String token) {
+        if (token.length() < MIN_CORRECTED_LENGTH || !isWord(token)) {
+            return Optional.empty();
+        }
+        int maxEdits = token.length() < TWO_EDITS_FROM_LENGTH ? 1 : 2;
+        Set<String> trigrams = trigrams(token);
+        int minShared = trigrams.size() - 3 * maxEdits;
+        if (minShared < 1) {
+            // Repeated trigrams, as in "aaaa": every token would be a candidate
+            return Optional.empty();
+        }
+
+        lock.readLock().lock();
+        try {
+            if (vocabulary.containsKey(token)) {
+                return Optional.empty();
+            }
+            // A close token shares all but 3k of the query's trigrams, so it is on at least one of
+            // the 3k + 1 rarest lists; the other lists never need to be walked
+            List<Set<String>> lists = new ArrayList<>(trigrams.size());
+            for (String trigram : trigrams) {
+                lists.add(tokensByTrigram.getOrDefault(trigram, Collections.emptySet()));
+            }
+            lists.sort(Comparator.comparingInt(Set::size));
+            Set<String> candidates = new HashSet<>();
+            for (Set<String> tokens : lists.subList(0, lists.size() - minShared + 1)) {
+                candidates.addAll(tokens);
+            }
+
+            String best = null;
+            int bestEdits = maxEdits + 1;
+            int bestListings = 0;
+            for (String candidate : candidates) {
+                if (Math.abs(candidate.length() - token.length()) > maxEdits) {
+                    continue;
+                }
+                int edits = editDistance(token, candidate, Math.min(maxEdits, bestEdits));
+                if (edits > maxEdits) {
+                    continue;
+                }
+                int listings = vocabulary.get(candidate).listings;
+                if (edits < bestEdits || (edits == bestEdits && (listings > bestListings
+                        || (listings == bestListings && candidate.compareTo(best) < 0)))) {
+                    best = candidate;
+                    bestEdits = edits;
+                    bestListings = listings;
+                }
+            }
+            return Optional.ofNullable(best);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Levenshtein distance, or {@code max + 1} as soon as it is known to exceed {@code max}.
+     * Only the diagonal band of width {@code 2 * max + 1} is filled in.
+     */
+    static int editDistance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        int outside = max + 1;
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j <= max ? j : outside;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            int from = Math.max(1, i - max);
+            int to = Math.min(b.length(), i + max);
+            current[0] = i <= max ? i : outside;
+            if (from > 1) {
+                current[from - 1] = outside;
+            }
+            int rowMin = current[0];
+            for (int j = from; j <= to; j++) {
+                int substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                int deletion = previous[j] + 1;
+                int insertion = current[j - 1] + 1;
+                current[j] = Math.min(outside, Math.min(substitution, Math.min(deletion, insertion)));
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (to < b.length()) {
+                current[to + 1] = outside;
+            }
+            if (rowMin > max) {
+                return outside;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    private static void addTokens(Set<String> tokens, String text) {
+        for (String token : TextAnalyzer.tokenize(text)) {
+            if (token.length() >= MIN_TOKEN_LENGTH && isWord(token) && !TextAnalyzer.isStopWord(token)) {
+                tokens.add(token);
+            }
+        }
+    }
+
+    // House numbers, unit numbers and zip codes are not spelled
+    private static boolean isWord(String token) {
+        for (int i = 0; i < token.length(); i++) {
+            if (Character.isDigit(token.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Set<String> trigrams(String token) {
+        String padded = BOUNDARY + token + BOUNDARY;
+        Set<String> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    // Returns the vocabulary's own copy so properties share one String per token
+    private String addToken(String token) {
+        Token entry = vocabulary.get(token);
+        if (entry == null) {
+            entry = new Token(token);
+            vocabulary.put(token, entry);
+            for (String trigram : entry.trigrams) {
+                tokensByTrigram.computeIfAbsent(trigram, t -> new HashSet<>()).add(token);
+            }
+        }
+        entry.listings++;
+        return entry.text;
+    }
+
+    private void removeLocked(Long propertyId) {
+        String[] previous = tokensByProperty.remove(propertyId);
+        if (previous == null) {
+            return;
+        }
+        for (String token : previous) {
+            Token entry = vocabulary.get(token);
+            if (entry == null || --entry.listings > 0) {
+                continue;
+            }
+            vocabulary.remove(token);
+            for (String trigram : entry.trigrams) {
+                Set<String> tokens = tokensByTrigram.get(trigram);
+                tokens.remove(token);
+                if (tokens.isEmpty()) {
+                    tokensByTrigram.remove(trigram);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.realestate.service;
+
+import com.realestate.dto.Suggestion;
+import com.realestate.model.BuilderGroup;
+import com.realestate.model.Property;
+import com.realestate.repository.BuilderGroupRepository;
+import com.realestate.repository.SearchHistoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Typeahead over the cities, states, zip codes, builder groups and title terms of available
+ * properties. Each completion is weighted by how many listings it leads to, boosted by how
+ * often it was searched for, and kept in a SuggestionTrie that is updated in place on every
+ * property write. Search counts and builder group names are refreshed on a fixed delay.
+ */
+@Component
+public class PropertySuggestionIndex implements PropertyIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(PropertySuggestionIndex.class);
+    private static final long SEARCH_WEIGHT = 3L;
+    private static final int MAX_SEARCHED_VALUES = 1000;
+    private static final int MIN_TERM_LENGTH = 3;
+
+    private record Key(Suggestion.Type type, String normalized) {
+    }
+
+    private static final class Entry {
+        final Key key;
+        String text;
+        long listings;
+        long searches;
+
+        Entry(Key key, String text) {
+            this.key = key;
+            this.text = text;
+        }
+
+        long weight() {
+            // Completions that lead to no listing are not offered
+            return listings > 0 ? listings + SEARCH_WEIGHT * searches : 0L;
+        }
+    }
+
+    @Autowired
+    private SearchHistoryRepository searchHistoryRepository;
+
+    @Autowired
+    private BuilderGroupRepository builderGroupRepository;
+
+    private final SuggestionTrie<Entry> trie = new SuggestionTrie<>();
+    private final Map<Key, Entry> entries = new HashMap<>();
+    private final Map<Long, Set<Key>> keysByProperty = new HashMap<>();
+    private final Map<Long, String> builderGroupNames = new HashMap<>();
+    private final Map<Long, Long> builderGroupByProperty = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Override
+    public void index(Property property) {
+        if (!Boolean.TRUE.equals(property.getAvailable())) {
+            remove(property.getId());
+            return;
+        }
+        Map<Key, String> texts = new HashMap<>();
+        addText(texts, Suggestion.Type.CITY, property.getCity());
+        addText(texts, Suggestion.Type.STATE, property.getState());
+        addText(texts, Suggestion.Type.ZIP_CODE, property.getZipCode());
+        for (String term : TextAnalyzer.tokenize(property.getTitle())) {
+            if (term.length() >= MIN_TERM_LENGTH && !TextAnalyzer.isStopWord(term) && !isNumeric(term)) {
+                texts.putIfAbsent(new Key(Suggestion.Type.TERM, term), term);
+            }
+        }
+        // Reading the id off a lazy builder group proxy does not initialize it
+        Long builderGroupId = property.getBuilderGroup() != null ? property.getBuilderGroup().getId() : null;
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(property.getId());
+            texts.forEach((key, text) -> adjust(key, text, 1));
+            keysByProperty.put(property.getId(), texts.keySet());
+            if (builderGroupId != null) {
+                builderGroupByProperty.put(property.getId(), builderGroupId);
+                String name = builderGroupNames.get(builderGroupId);
+                if (name != null) {
+                    adjust(builderGroupKey(name), name, 1);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long propertyId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(propertyId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void bootstrapped() {
+        refresh();
+    }
+
+    /**
+     * Up to {@code limit} completions of the query, most useful first.
+     */
+    public List<Suggestion> suggest(String query, int limit) {
+        String prefix = normalize(query);
+        List<Suggestion> suggestions = new ArrayList<>();
+        if (prefix.isEmpty()) {
+            return suggestions;
+        }
+        lock.readLock().lock();
+        try {
+            for (Entry entry : trie.top(prefix, limit)) {
+                suggestions.add(Suggestion.builder()
+                        .text(entry.text)
+                        .type(entry.key.type())
+                        .listingCount(entry.listings)
+                        .searchCount(entry.searches)
+                        .build());
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return suggestions;
+    }
+
+    /**
+     * Reload search frequencies and builder group names; listing counts are maintained live.
+     */
+    @Scheduled(fixedDelayString = "${suggest.refresh-interval-ms:600000}", initialDelayString = "${suggest.refresh-interval-ms:600000}")
+    public void refresh() {
+        Map<Key, Long> searches = new HashMap<>();
+        Map<Long, String> names = new HashMap<>();
+        try {
+            PageRequest top = PageRequest.of(0, MAX_SEARCHED_VALUES);
+            for (Object[] row : searchHistoryRepository.findMostSearchedCities(top)) {
+                searches.merge(new Key(Suggestion.Type.CITY, normalize((String) row[0])), (Long) row[1], Long::sum);
+            }
+            for (Object[] row : searchHistoryRepository.findMostSearchedStates(top)) {
+                searches.merge(new Key(Suggestion.Type.STATE, normalize((String) row[0])), (Long) row[1], Long::sum);
+            }
+            for (BuilderGroup group : builderGroupRepository.findAll()) {
+                if (group.getName() != null && !group.getName().isBlank()) {
+                    names.put(group.getId(), group.getName());
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Failed to refresh suggestion weights: {}", e.getMessage(), e);
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            applyBuilderGroupNames(names);
+            Iterator<Entry> existing = entries.values().iterator();
+            while (existing.hasNext()) {
+                Entry entry = existing.next();
+                long updated = searches.getOrDefault(entry.key, 0L);
+                if (entry.searches != updated) {
+                    entry.searches = updated;
+                    trie.put(entry.key.normalized(), entry, entry.weight());
+                }
+                if (entry.listings <= 0 && entry.searches <= 0) {
+                    existing.remove();
+                }
+            }
+            // Searched values without listings get an entry so the boost applies once one is listed
+            searches.forEach((key, count) -> entries.computeIfAbsent(key, k -> {
+                Entry entry = new Entry(k, k.normalized());
+                entry.searches = count;
+                return entry;
+            }));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Re-count builder group listings when a group was added, renamed or deleted
+    private void applyBuilderGroupNames(Map<Long, String> names) {
+        if (names.equals(builderGroupNames)) {
+            return;
+        }
+        Map<Long, Long> listingsByGroup = new HashMap<>();
+        builderGroupByProperty.values().forEach(groupId -> listingsByGroup.merge(groupId, 1L, Long::sum));
+        builderGroupNames.forEach((groupId, name) ->
+                adjust(builderGroupKey(name), name, -listingsByGroup.getOrDefault(groupId, 0L)));
+        builderGroupNames.clear();
+        builderGroupNames.putAll(names);
+        builderGroupNames.forEach((groupId, name) ->
+                adjust(builderGroupKey(name), name, listingsByGroup.getOrDefault(groupId, 0L)));
+    }
+
+    private void removeLocked(Long propertyId) {
+        Set<Key> previous = keysByProperty.remove(propertyId);
+        if (previous != null) {
+            previous.forEach(key -> adjust(key, null, -1));
+        }
+        Long builderGroupId = builderGroupByProperty.remove(propertyId);
+        String name = builderGroupId != null ? builderGroupNames.get(builderGroupId) : null;
+        if (name != null) {
+            adjust(builderGroupKey(name), name, -1);
+        }
+    }
+
+    // Caller must hold the write lock
+    private void adjust(Key key, String text, long listingDelta) {
+        if (listingDelta == 0) {
+            return;
+        }
+        Entry entry = entries.computeIfAbsent(key, k -> new Entry(k, text != null ? text : k.normalized()));
+        // Entries created from search history only know the normalized form; prefer a listed spelling
+        if (text != null && entry.listings == 0) {
+            entry.text = text;
+        }
+        entry.listings += listingDelta;
+        trie.put(key.normalized(), entry, entry.weight());
+        if (entry.listings <= 0 && entry.searches <= 0) {
+            entries.remove(key);
+        }
+    }
+
+    private static void addText(Map<Key, String> texts, Suggestion.Type type, String text) {
+        String normalized = normalize(text);
+        if (!normalized.isEmpty()) {
+            texts.putIfAbsent(new Key(type, normalized), text.trim());
+        }
+    }
+
+    private static Key builderGroupKey(String name) {
+        return new Key(Suggestion.Type.BUILDER_GROUP, normalize(name));
+    }
+
+    // Folded tokens joined by single spaces, so "New  York," and "new york" share a key
+    private static String normalize(String text) {
+        return String.join(" ", TextAnalyzer.tokenize(Objects.toString(text, "")));
+    }
+
+    private static boolean isNumeric(String term) {
+        for (int i = 0; i < term.length(); i++) {
+            if (!Character.isDigit(term.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,303 @@
+package com.realestate.service;
+
+import com.realestate.dto.PropertyResponse;
+import com.realestate.event.FavoriteChangeEvent;
+import com.realestate.model.ListingType;
+import com.realestate.model.Property;
+import com.realestate.repository.PropertyRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Bounded rankings behind the home page widgets: newest available listings, cheapest
+ * available listings for sale, and newest available listings per city. Each ranking is a
+ * skip list of property snapshots kept in order by every committed property write, so reads
+ * walk its head without locks or queries; writers are serialized on this object.
+ * <p>
+ * A ranking holds exactly the best {@code size} eligible listings. Once it has dropped
+ * listings past its capacity it can't tell what ranks behind its last entry, so from then on
+ * it only admits listings that beat that entry, and when removals leave it shorter than a
+ * request it is reloaded from the database. Image URLs are loaded with one query for the
+ * snapshots a read returns that don't have them yet, typically the first read after a change.
+ */
+@Component
+public class PropertyTopListings implements PropertyIndex {
+
+    private record Rank(long primary, long tieBreak) implements Comparable<Rank> {
+        @Override
+        public int compareTo(Rank other) {
+            int byPrimary = Long.compare(primary, other.primary);
+            return byPrimary != 0 ? byPrimary : Long.compare(tieBreak, other.tieBreak);
+        }
+    }
+
+    private static final class Ranking {
+        final int capacity;
+        final Function<Property, Rank> rankOf;  // null when the property isn't eligible
+        final ConcurrentSkipListMap<Rank, PropertyResponse> entries = new ConcurrentSkipListMap<>();
+        final Map<Long, Rank> ranks = new HashMap<>();  // guarded by the enclosing instance
+        // Whether every eligible listing is held, i.e. none was ever dropped for capacity
+        volatile boolean complete = true;
+
+        Ranking(int capacity, Function<Property, Rank> rankOf) {
+            this.capacity = capacity;
+            this.rankOf = rankOf;
+        }
+
+        // Returns the id dropped to stay within capacity, if any
+        Long offer(Property property, PropertyResponse snapshot) {
+            remove(property.getId());
+            Rank rank = rankOf.apply(property);
+            if (rank == null) {
+                return null;
+            }
+            if (!complete && (entries.isEmpty() || rank.compareTo(entries.lastKey()) > 0)) {
+                return null;
+            }
+            entries.put(rank, snapshot);
+            ranks.put(property.getId(), rank);
+            if (entries.size() <= capacity) {
+                return null;
+            }
+            Long dropped = entries.pollLastEntry().getValue().getId();
+            ranks.remove(dropped);
+            complete = false;
+            return dropped;
+        }
+
+        boolean holds(Long propertyId) {
+            return ranks.containsKey(propertyId);
+        }
+
+        void remove(Long propertyId) {
+            Rank rank = ranks.remove(propertyId);
+            if (rank != null) {
+                entries.remove(rank);
+            }
+        }
+
+        void clear() {
+            entries.clear();
+            ranks.clear();
+            complete = true;
+        }
+
+        PropertyResponse get(Long propertyId) {
+            Rank rank = ranks.get(propertyId);
+            return rank != null ? entries.get(rank) : null;
+        }
+
+        // Null when the ranking can't answer without a reload
+        List<PropertyResponse> head(int limit) {
+            List<PropertyResponse> head = new ArrayList<>(limit);
+            for (PropertyResponse snapshot : entries.values()) {
+                if (head.size() == limit) {
+                    break;
+                }
+                head.add(snapshot);
+            }
+            return head.size() == limit || complete ? head : null;
+        }
+    }
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private PropertyResponseAssembler propertyResponseAssembler;
+
+    @Value("${property.top.capacity:100}")
+    private int capacity;
+
+    @Value("${property.top.city-capacity:20}")
+    private int cityCapacity;
+
+    private Ranking newest;
+    private Ranking cheapestForSale;
+    private final Map<String, Ranking> newestByCity = new ConcurrentHashMap<>();
+    // City ranking holding each listing, so removals don't visit every city
+    private final Map<Long, Ranking> cityRankingOf = new HashMap<>();  // guarded by this
+
+    @PostConstruct
+    void init() {
+        newest = new Ranking(capacity, p -> Boolean.TRUE.equals(p.getAvailable()) ? newestFirst(p) : null);
+        cheapestForSale = new Ranking(capacity, p -> Boolean.TRUE.equals(p.getAvailable())
+                && p.getListingType() == ListingType.FOR_SALE && p.getPrice() != null
+                ? new Rank(p.getPrice().movePointRight(2).longValue(), p.getId()) : null);
+    }
+
+    @Override
+    public synchronized void index(Property property) {
+        remove(property.getId());
+        PropertyResponse snapshot = propertyResponseAssembler.toSnapshot(property);
+        newest.offer(property, snapshot);
+        cheapestForSale.offer(property, snapshot);
+        if (property.getCityKey() != null && Boolean.TRUE.equals(property.getAvailable())) {
+            offerToCity(newestByCity.computeIfAbsent(property.getCityKey(), key -> cityRanking()),
+                    property, snapshot);
+        }
+    }
+
+    @Override
+    public synchronized void remove(Long propertyId) {
+        newest.remove(propertyId);
+        cheapestForSale.remove(propertyId);
+        Ranking city = cityRankingOf.remove(propertyId);
+        if (city != null) {
+            city.remove(propertyId);
+            if (city.complete && city.entries.isEmpty()) {
+                newestByCity.values().remove(city);
+            }
+        }
+    }
+
+    /**
+     * Newest available listings, at most {@code property.top.capacity} of them.
+     */
+    public List<PropertyResponse> newest(int limit) {
+        int bounded = Math.min(limit, capacity);
+        List<PropertyResponse> head = newest.head(bounded);
+        if (head == null) {
+            reload(newest, () -> propertyRepository.findRecentProperties(PageRequest.of(0, capacity)));
+            head = newest.head(bounded);
+        }
+        return withImages(head != null ? head : new ArrayList<>());
+    }
+
+    /**
+     * Cheapest available listings for sale, at most {@code property.top.capacity} of them.
+     */
+    public List<PropertyResponse> cheapestForSale(int limit) {
+        int bounded = Math.min(limit, capacity);
+        List<PropertyResponse> head = cheapestForSale.head(bounded);
+        if (head == null) {
+            reload(cheapestForSale, () -> propertyRepository.findCheapestForSale(PageRequest.of(0, capacity)));
+            head = cheapestForSale.head(bounded);
+        }
+        return withImages(head != null ? head : new ArrayList<>());
+    }
+
+    /**
+     * Newest available listings in {@code city}, at most {@code property.top.city-capacity}.
+     */
+    public List<PropertyResponse> newestInCity(String city, int limit) {
+        String cityKey = Property.locationKey(city);
+        Ranking ranking = cityKey != null ? newestByCity.get(cityKey) : null;
+        if (ranking == null) {
+            return new ArrayList<>();
+        }
+        int bounded = Math.min(limit, cityCapacity);
+        List<PropertyResponse> head = ranking.head(bounded);
+        if (head == null) {
+            reload(ranking, () -> propertyRepository.findRecentByCityKey(cityKey, PageRequest.of(0, cityCapacity)));
+            head = ranking.head(bounded);
+        }
+        return withImages(head != null ? head : new ArrayList<>());
+    }
+
+    // Favorite counts change without a property write
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onFavoriteChange(FavoriteChangeEvent event) {
+        PropertyResponse snapshot = newest.get(event.getPropertyId());
+        if (snapshot == null) {
+            snapshot = cheapestForSale.get(event.getPropertyId());
+        }
+        if (snapshot == null) {
+            Ranking city = cityRankingOf.get(event.getPropertyId());
+            snapshot = city != null ? city.get(event.getPropertyId()) : null;
+        }
+        if (snapshot != null) {
+            long count = snapshot.getFavoriteCount() != null ? snapshot.getFavoriteCount() : 0L;
+            snapshot.setFavoriteCount(Math.max(0L, count + event.delta()));
+        }
+    }
+
+    // Queries under the lock, so no write can land between the query and the swap
+    private synchronized void reload(Ranking ranking, Supplier<List<Property>> best) {
+        if (ranking.complete || ranking.entries.size() >= ranking.capacity) {
+            return;  // another reader got here first
+        }
+        boolean cityRanking = ranking != newest && ranking != cheapestForSale;
+        List<Property> page = best.get();
+        if (cityRanking) {
+            ranking.ranks.keySet().forEach(cityRankingOf::remove);
+        }
+        ranking.clear();
+        for (Property property : page) {
+            if (cityRanking) {
+                offerToCity(ranking, property, snapshotOf(property));
+            } else {
+                ranking.offer(property, snapshotOf(property));
+            }
+        }
+        // A full page means more may rank behind it
+        ranking.complete = page.size() < ranking.capacity;
+    }
+
+    // Reuses the snapshot another ranking holds, so favorite updates reach every copy
+    private PropertyResponse snapshotOf(Property property) {
+        PropertyResponse held = newest.get(property.getId());
+        if (held == null) {
+            held = cheapestForSale.get(property.getId());
+        }
+        if (held == null) {
+            Ranking city = cityRankingOf.get(property.getId());
+            held = city != null ? city.get(property.getId()) : null;
+        }
+        return held != null ? held : propertyResponseAssembler.toSnapshot(property);
+    }
+
+    private void offerToCity(Ranking city, Property property, PropertyResponse snapshot) {
+        Long dropped = city.offer(property, snapshot);
+        if (dropped != null) {
+            cityRankingOf.remove(dropped);
+        }
+        if (city.holds(property.getId())) {
+            cityRankingOf.put(property.getId(), city);
+        }
+    }
+
+    private List<PropertyResponse> withImages(List<PropertyResponse> head) {
+        List<Long> missing = new ArrayList<>();
+        for (PropertyResponse snapshot : head) {
+            if (snapshot.getImageUrls() == null) {
+                missing.add(snapshot.getId());
+            }
+        }
+        if (!missing.isEmpty()) {
+            Map<Long, List<String>> imageUrls = propertyResponseAssembler.imageUrls(missing);
+            for (PropertyResponse snapshot : head) {
+                if (snapshot.getImageUrls() == null) {
+                    // Immutable, so readers on other threads never see it half built
+                    snapshot.setImageUrls(List.copyOf(imageUrls.getOrDefault(snapshot.getId(), List.of())));
+                }
+            }
+        }
+        return head;
+    }
+
+    private Ranking cityRanking() {
+        return new Ranking(cityCapacity, p -> Boolean.TRUE.equals(p.getAvailable()) ? newestFirst(p) : null);
+    }
+
+    private static Rank newestFirst(Property property) {
+        LocalDateTime createdAt = property.getCreatedAt();
+        long micros = createdAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + createdAt.getNano() / 1_000;
+        return new Rank(-micros, -property.getId());
+    }
+}
@@ -0,0 +1,208 @@
+package com.realestate.service;
+
+import com.realestate.event.FavoriteChangeEvent;
+import com.realestate.event.PropertyEngagementEvent;
+import com.realestate.model.Property;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Ranks available listings by current interest. Detail views, favorites, inquiries and viewing
+ * requests add weighted points to a per-property ring of time buckets; a listing's score sums
+ * its buckets, each halved for every {@code trending.half-life-ms} of age, and buckets older
+ * than the ring are ignored and reused.
+ * <p>
+ * Each bucket is one long packing the bucket's number with its points, so recording is a
+ * single compare-and-set with no locks or allocation once the property has a counter.
+ * Rankings are recomputed every {@code trending.refresh-interval-ms}, globally and per city,
+ * and reads return the last ones. Counters that have gone quiet are dropped on refresh; a
+ * signal recorded at that very moment may be lost.
+ */
+@Component
+public class PropertyTrending implements PropertyIndex {
+
+    private static final int POINT_BITS = 24;
+    private static final long MAX_POINTS = (1L << POINT_BITS) - 1;
+
+    private record Rankings(List<Long> global, Map<String, List<Long>> byCity) {
+    }
+
+    private static final class Counter {
+        private final AtomicLongArray buckets;  // (bucket number << POINT_BITS) | points
+
+        Counter(int size) {
+            buckets = new AtomicLongArray(size);
+        }
+
+        void add(long bucket, int points) {
+            int slot = (int) (bucket % buckets.length());
+            while (true) {
+                long current = buckets.get(slot);
+                long next = current >>> POINT_BITS == bucket
+                        ? Math.min(current + points, (bucket << POINT_BITS) | MAX_POINTS)
+                        : (bucket << POINT_BITS) | Math.min(points, MAX_POINTS);
+                if (next == current || buckets.compareAndSet(slot, current, next)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    @Value("${trending.bucket-ms:3600000}")
+    private long bucketMs;
+
+    @Value("${trending.buckets:24}")
+    private int bucketCount;
+
+    @Value("${trending.half-life-ms:21600000}")
+    private long halfLifeMs;
+
+    @Value("${trending.capacity:50}")
+    private int capacity;
+
+    @Value("${trending.weight.view:1}")
+    private int viewWeight;
+
+    @Value("${trending.weight.favorite:5}")
+    private int favoriteWeight;
+
+    @Value("${trending.weight.inquiry:10}")
+    private int inquiryWeight;
+
+    @Value("${trending.weight.viewing-request:15}")
+    private int viewingRequestWeight;
+
+    private final Map<Long, Counter> counters = new ConcurrentHashMap<>();
+    // City of every available listing; others never trend
+    private final Map<Long, String> cityKeys = new ConcurrentHashMap<>();
+    private volatile Rankings rankings = new Rankings(List.of(), Map.of());
+
+    public void recordView(Long propertyId) {
+        record(propertyId, viewWeight);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFavoriteChange(FavoriteChangeEvent event) {
+        if (event.getType() == FavoriteChangeEvent.Type.ADDED) {
+            record(event.getPropertyId(), favoriteWeight);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEngagement(PropertyEngagementEvent event) {
+        record(event.getPropertyId(), event.getType() == PropertyEngagementEvent.Type.INQUIRY
+                ? inquiryWeight : viewingRequestWeight);
+    }
+
+    /**
+     * Ids of the most trending available listings, in {@code city} when given, best first and
+     * as of the last refresh.
+     */
+    public List<Long> trending(String city, int limit) {
+        Rankings current = rankings;
+        List<Long> ranked = city != null
+                ? current.byCity().getOrDefault(Property.locationKey(city), List.of())
+                : current.global();
+        return new ArrayList<>(ranked.subList(0, Math.min(Math.max(limit, 0), ranked.size())));
+    }
+
+    @Override
+    public void index(Property property) {
+        if (Boolean.TRUE.equals(property.getAvailable())) {
+            cityKeys.put(property.getId(), property.getCityKey() != null ? property.getCityKey() : "");
+        } else {
+            cityKeys.remove(property.getId());
+        }
+    }
+
+    @Override
+    public void remove(Long propertyId) {
+        cityKeys.remove(propertyId);
+        counters.remove(propertyId);
+    }
+
+    @Scheduled(fixedDelayString = "${trending.refresh-interval-ms:10000}")
+    public void refresh() {
+        long now = System.currentTimeMillis();
+        long currentBucket = now / bucketMs;
+        Comparator<Map.Entry<Long, Double>> order = Map.Entry.<Long, Double>comparingByValue()
+                .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder()));
+        PriorityQueue<Map.Entry<Long, Double>> global = new PriorityQueue<>(order);
+        Map<String, PriorityQueue<Map.Entry<Long, Double>>> byCity = new HashMap<>();
+
+        for (Map.Entry<Long, Counter> entry : counters.entrySet()) {
+            double score = score(entry.getValue(), now, currentBucket);
+            if (score <= 0.0) {
+                counters.remove(entry.getKey(), entry.getValue());
+                continue;
+            }
+            String cityKey = cityKeys.get(entry.getKey());
+            if (cityKey == null) {
+                continue;
+            }
+            Map.Entry<Long, Double> scored = Map.entry(entry.getKey(), score);
+            offer(global, scored);
+            if (!cityKey.isEmpty()) {
+                offer(byCity.computeIfAbsent(cityKey, k -> new PriorityQueue<>(order)), scored);
+            }
+        }
+
+        Map<String, List<Long>> cities = new HashMap<>();
+        byCity.forEach((cityKey, heap) -> cities.put(cityKey, drain(heap)));
+        rankings = new Rankings(drain(global), cities);
+    }
+
+    private void record(Long propertyId, int points) {
+        if (points <= 0) {
+            return;
+        }
+        Counter counter = counters.get(propertyId);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(propertyId, id -> new Counter(bucketCount));
+        }
+        counter.add(System.currentTimeMillis() / bucketMs, points);
+    }
+
+    // Zero once every bucket has left the ring
+    private double score(Counter counter, long now, long currentBucket) {
+        double score = 0.0;
+        for (int slot = 0; slot < counter.buckets.length(); slot++) {
+            long packed = counter.buckets.get(slot);
+            long bucket = packed >>> POINT_BITS;
+            if (bucket <= currentBucket - bucketCount || bucket > currentBucket) {
+                continue;
+            }
+            // Age from the middle of the bucket, so a fresh bucket isn't worth more than its points
+            double age = Math.max(0.0, now - (bucket * bucketMs + bucketMs / 2.0));
+            score += (packed & MAX_POINTS) * Math.pow(0.5, age / halfLifeMs);
+        }
+        return score;
+    }
+
+    private void offer(PriorityQueue<Map.Entry<Long, Double>> heap, Map.Entry<Long, Double> scored) {
+        heap.offer(scored);
+        if (heap.size() > capacity) {
+            heap.poll();
+        }
+    }
+
+    // Highest score first, then lowest id
+    private static List<Long> drain(PriorityQueue<Map.Entry<Long, Double>> heap) {
+        Long[] ids = new Long[heap.size()];
+        for (int i = ids.length - 1; i >= 0; i--) {
+            ids[i] = heap.poll().getKey();
+        }
+        return List.of(ids);
+    }
+}
@@ -0,0 +1,243 @@
+package com.realestate.service;
+
+import com.realestate.dto.PropertyViewStatsResponse;
+import com.realestate.event.PropertyChangeEvent;
+import com.realestate.model.PropertyViewStats;
+import com.realestate.repository.PropertyViewStatsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts property detail views per UTC day. Recording touches only memory: a LongAdder per
+ * property and day, striped across cells so concurrent viewers of one listing don't contend,
+ * and a 256-byte HyperLogLog of viewer hashes for unique viewers. A scheduled flush upserts
+ * the counts into property_view_stats in JDBC batches, merging each day's sketch with the
+ * stored one first, so restarts and repeated flushes never double count unique viewers.
+ * <p>
+ * Unflushed views are lost if the process dies; at most one flush interval's worth.
+ */
+@Component
+public class PropertyViewCounter {
+
+    private static final Logger logger = LoggerFactory.getLogger(PropertyViewCounter.class);
+    private static final long DAY_MS = 86_400_000L;
+    private static final int FLUSH_BATCH_SIZE = 500;
+
+    private static final String UPSERT = "INSERT INTO property_view_stats "
+            + "(property_id, view_date, views, unique_viewers, viewer_sketch) VALUES (?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE views = views + VALUES(views), "
+            + "unique_viewers = VALUES(unique_viewers), viewer_sketch = VALUES(viewer_sketch)";
+
+    private static final class DayCounter {
+        final LongAdder views = new LongAdder();
+        final HyperLogLog viewers = new HyperLogLog();
+    }
+
+    private record Day(long epochDay, Map<Long, DayCounter> counters) {
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private PropertyViewStatsRepository propertyViewStatsRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Counters by UTC epoch day; a day is dropped once flushed and over
+    private final Map<Long, Day> days = new ConcurrentHashMap<>();
+    private volatile Day today = new Day(Long.MIN_VALUE, Map.of());
+
+    /**
+     * Count a view of the property by a signed-in user, or else by a client address.
+     */
+    public void record(Long propertyId, Long userId, String address) {
+        long hash = userId != null ? mix(userId) : mix(fnv(address));
+        Map<Long, DayCounter> counters = currentDay().counters();
+        DayCounter counter = counters.get(propertyId);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(propertyId, id -> new DayCounter());
+        }
+        counter.views.increment();
+        counter.viewers.offer(hash);
+    }
+
+    /**
+     * Views of the property over the last {@code dayCount} UTC days, today included.
+     */
+    public PropertyViewStatsResponse stats(Long propertyId, int dayCount) {
+        long lastDay = Math.floorDiv(System.currentTimeMillis(), DAY_MS);
+        LocalDate from = LocalDate.ofEpochDay(lastDay - dayCount + 1);
+        Map<Long, Long> views = new HashMap<>();
+        Map<Long, HyperLogLog> viewers = new HashMap<>();
+        for (PropertyViewStats row : propertyViewStatsRepository
+                .findByPropertyIdAndViewDateGreaterThanEqualOrderByViewDateAsc(propertyId, from)) {
+            long epochDay = row.getViewDate().toEpochDay();
+            views.merge(epochDay, row.getViews(), Long::sum);
+            viewers.computeIfAbsent(epochDay, d -> new HyperLogLog()).merge(row.getViewerSketch());
+        }
+        for (Day day : days.values()) {
+            DayCounter counter = day.counters().get(propertyId);
+            if (counter != null && day.epochDay() >= from.toEpochDay()) {
+                views.merge(day.epochDay(), counter.views.sum(), Long::sum);
+                viewers.computeIfAbsent(day.epochDay(), d -> new HyperLogLog()).merge(counter.viewers);
+            }
+        }
+
+        List<PropertyViewStatsResponse.Day> daily = new ArrayList<>();
+        HyperLogLog overall = new HyperLogLog();
+        long total = 0;
+        for (long epochDay = from.toEpochDay(); epochDay <= lastDay; epochDay++) {
+            long count = views.getOrDefault(epochDay, 0L);
+            HyperLogLog sketch = viewers.get(epochDay);
+            if (sketch != null) {
+                overall.merge(sketch);
+            }
+            total += count;
+            daily.add(PropertyViewStatsResponse.Day.builder()
+                    .date(LocalDate.ofEpochDay(epochDay))
+                    .views(count)
+                    .uniqueViewers(sketch != null ? sketch.estimate() : 0L)
+                    .build());
+        }
+        return PropertyViewStatsResponse.builder()
+                .propertyId(propertyId)
+                .from(from)
+                .to(LocalDate.ofEpochDay(lastDay))
+                .totalViews(total)
+                .uniqueViewers(overall.estimate())
+                .days(daily)
+                .build();
+    }
+
+    @Scheduled(fixedDelayString = "${property.views.flush-interval-ms:10000}")
+    public synchronized void flush() {
+        long currentDay = Math.floorDiv(System.currentTimeMillis(), DAY_MS);
+        for (Day day : days.values()) {
+            List<Map.Entry<Long, DayCounter>> pending = new ArrayList<>();
+            for (Map.Entry<Long, DayCounter> entry : day.counters().entrySet()) {
+                if (entry.getValue().views.sum() != 0) {
+                    pending.add(entry);
+                }
+            }
+            try {
+                for (int start = 0; start < pending.size(); start += FLUSH_BATCH_SIZE) {
+                    flushBatch(day, pending.subList(start, Math.min(start + FLUSH_BATCH_SIZE, pending.size())));
+                }
+            } catch (RuntimeException e) {
+                // Whatever wasn't written stays pending for the next flush
+                logger.error("Failed to flush property views for {}: {}",
+                        LocalDate.ofEpochDay(day.epochDay()), e.getMessage(), e);
+                continue;
+            }
+            // A recorder may still be counting into yesterday as the day turns
+            if (day.epochDay() < currentDay - 1) {
+                days.remove(day.epochDay());
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onPropertyChange(PropertyChangeEvent event) {
+        if (event.getType() == PropertyChangeEvent.Type.DELETED) {
+            days.values().forEach(day -> day.counters().remove(event.getPropertyId()));
+        }
+    }
+
+    private void flushBatch(Day day, List<Map.Entry<Long, DayCounter>> batch) {
+        Date viewDate = Date.valueOf(LocalDate.ofEpochDay(day.epochDay()));
+        Map<Long, DayCounter> counters = new HashMap<>();
+        batch.forEach(entry -> counters.put(entry.getKey(), entry.getValue()));
+        Map<Long, Long> deltas = new HashMap<>();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            // property_id has no foreign key: a view recorded while its property was being deleted
+            // can bring the counter back, and must not leave an orphan row behind
+            Set<Long> existing = new HashSet<>(namedParameterJdbcTemplate.queryForList(
+                    "SELECT id FROM properties WHERE id IN (:ids)", Map.of("ids", counters.keySet()), Long.class));
+            counters.keySet().retainAll(existing);
+            if (counters.isEmpty()) {
+                return;
+            }
+            namedParameterJdbcTemplate.query("SELECT property_id, viewer_sketch FROM property_view_stats "
+                            + "WHERE view_date = :viewDate AND property_id IN (:ids)",
+                    new MapSqlParameterSource("viewDate", viewDate).addValue("ids", counters.keySet()),
+                    rs -> {
+                        DayCounter counter = counters.get(rs.getLong(1));
+                        if (counter != null) {
+                            counter.viewers.merge(rs.getBytes(2));
+                        }
+                    });
+
+            List<Object[]> rows = new ArrayList<>(counters.size());
+            for (Map.Entry<Long, DayCounter> entry : counters.entrySet()) {
+                long delta = entry.getValue().views.sum();
+                deltas.put(entry.getKey(), delta);
+                HyperLogLog viewers = entry.getValue().viewers;
+                rows.add(new Object[]{entry.getKey(), viewDate, delta, viewers.estimate(), viewers.toBytes()});
+            }
+            jdbcTemplate.batchUpdate(UPSERT, rows);
+        });
+        for (Map.Entry<Long, DayCounter> entry : batch) {
+            Long delta = deltas.get(entry.getKey());
+            if (delta == null) {
+                // The property is gone
+                day.counters().remove(entry.getKey(), entry.getValue());
+                continue;
+            }
+            // Subtract what was written rather than resetting, so views counted meanwhile are kept
+            entry.getValue().views.add(-delta);
+        }
+    }
+
+    private Day currentDay() {
+        Day day = today;
+        long epochDay = Math.floorDiv(System.currentTimeMillis(), DAY_MS);
+        if (day.epochDay() != epochDay) {
+            day = days.computeIfAbsent(epochDay, d -> new Day(d, new ConcurrentHashMap<>()));
+            today = day;
+        }
+        return day;
+    }
+
+    private static long fnv(String value) {
+        long hash = 0xcbf29ce484222325L;
+        if (value != null) {
+            for (int i = 0; i < value.length(); i++) {
+                hash = (hash ^ value.charAt(i)) * 0x100000001b3L;
+            }
+        }
+        return hash;
+    }
+
+    // SplitMix64 finalizer, so the register index and run length come from well-mixed bits
+    private static long mix(long value) {
+        long z = value + 0x9e3779b97f4a7c15L;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,98 @@
+package com.realestate.service;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Streaming quantile sketch with a relative error guarantee, after DDSketch. Positive values
+ * fall into logarithmically sized buckets (gamma^(i-1), gamma^i], so every estimate is within
+ * the configured relative accuracy of a true sample value, and removing a value is as cheap
+ * as adding one. Memory grows with the log of the value range, not the number of values.
+ * Not thread-safe; owners guard instances with their own locks.
+ */
+public final class QuantileSketch {
+
+    private final double gamma;
+    private final double logGamma;
+    private final TreeMap<Integer, Long> buckets = new TreeMap<>();
+    private long zeroCount;
+    private long count;
+
+    /**
+     * @param relativeAccuracy e.g. 0.01 for estimates within 1% of a true value
+     */
+    public QuantileSketch(double relativeAccuracy) {
+        if (relativeAccuracy <= 0 || relativeAccuracy >= 1) {
+            throw new IllegalArgumentException("Relative accuracy must be between 0 and 1");
+        }
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+    }
+
+    public void add(double value) {
+        if (value <= 0) {
+            zeroCount++;
+        } else {
+            buckets.merge(bucketOf(value), 1L, Long::sum);
+        }
+        count++;
+    }
+
+    /**
+     * Remove one occurrence of a value previously added; values never added are ignored.
+     */
+    public void remove(double value) {
+        if (value <= 0) {
+            if (zeroCount > 0) {
+                zeroCount--;
+                count--;
+            }
+            return;
+        }
+        int bucket = bucketOf(value);
+        Long inBucket = buckets.get(bucket);
+        if (inBucket == null) {
+            return;
+        }
+        if (inBucket == 1) {
+            buckets.remove(bucket);
+        } else {
+            buckets.put(bucket, inBucket - 1);
+        }
+        count--;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Estimated value at quantile q in [0, 1], or NaN when the sketch is empty.
+     */
+    public double quantile(double q) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        long rank = (long) Math.floor(q * (count - 1));
+        if (rank < zeroCount) {
+            return 0.0;
+        }
+        long seen = zeroCount;
+        for (Map.Entry<Integer, Long> bucket : buckets.entrySet()) {
+            seen += bucket.getValue();
+            if (seen > rank) {
+                return valueOf(bucket.getKey());
+            }
+        }
+        return valueOf(buckets.lastKey());
+    }
+
+    private int bucketOf(double value) {
+        return (int) Math.ceil(Math.log(value) / logGamma);
+    }
+
+    // Midpoint of the bucket in the relative sense, within the accuracy of any value in it
+    private double valueOf(int bucket) {
+        return 2 * Math.pow(gamma, bucket) / (gamma + 1);
+    }
+}
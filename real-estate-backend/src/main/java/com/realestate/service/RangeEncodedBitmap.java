@@ -0,0 +1,94 @@
+package com.realestate.service;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * Range-encoded bitmap index over one numeric attribute. Values are binned by fixed
+ * boundaries; cumulative[k] holds every id in bins 0..k. A range query costs one
+ * andNot for the fully covered bins plus an exact check of the ids in the two edge bins.
+ * Not thread-safe; owners guard instances with their own locks.
+ */
+public final class RangeEncodedBitmap {
+
+    private final long[] lowerBounds;
+    private final CompressedBitmap[] bins;
+    private final CompressedBitmap[] cumulative;
+
+    /**
+     * @param lowerBounds ascending lower bound of each bin; values below the first bound go to bin 0
+     */
+    public RangeEncodedBitmap(long[] lowerBounds) {
+        this.lowerBounds = lowerBounds.clone();
+        this.bins = new CompressedBitmap[lowerBounds.length];
+        this.cumulative = new CompressedBitmap[lowerBounds.length];
+        for (int i = 0; i < lowerBounds.length; i++) {
+            bins[i] = new CompressedBitmap();
+            cumulative[i] = new CompressedBitmap();
+        }
+    }
+
+    public void add(int id, long value) {
+        int bin = binOf(value);
+        bins[bin].add(id);
+        for (int k = bin; k < cumulative.length; k++) {
+            cumulative[k].add(id);
+        }
+    }
+
+    public void remove(int id, long value) {
+        int bin = binOf(value);
+        bins[bin].remove(id);
+        for (int k = bin; k < cumulative.length; k++) {
+            cumulative[k].remove(id);
+        }
+    }
+
+    /**
+     * Ids whose value lies in [min, max].
+     *
+     * @param exactCheck tests the actual value of an id from one of the two partially covered edge bins
+     */
+    public CompressedBitmap range(long min, long max, IntPredicate exactCheck) {
+        if (min > max) {
+            return new CompressedBitmap();
+        }
+        int low = binOf(min);
+        int high = binOf(max);
+
+        CompressedBitmap edges = refine(bins[low], exactCheck);
+        if (low == high) {
+            return edges;
+        }
+        edges = edges.or(refine(bins[high], exactCheck));
+        if (high - low < 2) {
+            return edges;
+        }
+        CompressedBitmap covered = cumulative[high - 1].andNot(cumulative[low]);
+        return covered.or(edges);
+    }
+
+    /**
+     * Ids in bins [fromBin, toBin) without any exact checks; used for histogram buckets aligned to bin bounds.
+     */
+    public CompressedBitmap bins(int fromBin, int toBin) {
+        CompressedBitmap upTo = cumulative[toBin - 1];
+        return fromBin == 0 ? upTo : upTo.andNot(cumulative[fromBin - 1]);
+    }
+
+    public int binOf(long value) {
+        int i = Arrays.binarySearch(lowerBounds, value);
+        int bin = i >= 0 ? i : -i - 2;
+        return Math.max(bin, 0);
+    }
+
+    private static CompressedBitmap refine(CompressedBitmap bin, IntPredicate exactCheck) {
+        CompressedBitmap result = new CompressedBitmap();
+        bin.forEach(id -> {
+            if (exactCheck.test(id)) {
+                result.add(id);
+            }
+        });
+        return result;
+    }
+}
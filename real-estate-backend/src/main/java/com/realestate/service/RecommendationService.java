@@ -0,0 +1,148 @@
+package com.realestate.service;
+
+import com.realestate.dto.PropertyResponse;
+import com.realestate.dto.PropertySearchRequest;
+import com.realestate.model.ListingType;
+import com.realestate.model.Property;
+import com.realestate.model.PropertyType;
+import com.realestate.repository.PropertyRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.realestate.repository.PropertySpecifications.matchesSearch;
+
+/**
+ * Location-and-budget recommendations ranked in process by PropertyRecommendationIndex. While
+ * the in-memory indexes load, a bounded set of the location's listings is read from the
+ * database and ranked the same way. The .NET recommendation service is optional: when enabled
+ * it asynchronously re-ranks the best local candidates, and the local ranking stands whenever
+ * it can't answer in time (see DotNetRecommendationClient).
+ */
+@Service
+@Transactional(readOnly = true)
+public class RecommendationService {
+
+    private static final int FALLBACK_CANDIDATES = 5000;
+
+    @Autowired
+    private PropertyRecommendationIndex propertyRecommendationIndex;
+
+    @Autowired
+    private PropertyIndexCoordinator propertyIndexCoordinator;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private DotNetRecommendationClient dotNetRecommendationClient;
+
+    @Autowired
+    private PropertyResponseAssembler propertyResponseAssembler;
+
+    @Value("${recommendations.remote.enabled:false}")
+    private boolean remoteEnabled;
+
+    @Value("${recommendations.remote.candidates:100}")
+    private int remoteCandidates;
+
+    /**
+     * Recommendations best first. Completes at once unless the remote service is enabled and
+     * has to be asked, in which case it completes when it answers or its deadline passes.
+     */
+    public CompletableFuture<List<PropertyResponse>> recommend(String location, double budget, PropertyType propertyType,
+                                                               ListingType listingType, Integer bedrooms, int limit) {
+        if (!remoteEnabled) {
+            List<Long> local = rank(location, budget, propertyType, listingType, bedrooms, limit);
+            return CompletableFuture.completedFuture(toResponses(local));
+        }
+        List<Long> local = rank(location, budget, propertyType, listingType, bedrooms, Math.max(limit, remoteCandidates));
+        if (local.isEmpty()) {
+            return CompletableFuture.completedFuture(new ArrayList<>());
+        }
+        String scope = propertyType + "|" + listingType + "|" + bedrooms;
+        return dotNetRecommendationClient.rank(location, budget, scope, loadInOrder(local))
+                .thenApply(remote -> toResponses(merge(remote, local, limit)));
+    }
+
+    // The remote order for ids that are still local candidates, then the rest in local order;
+    // a cached ranking may be for a nearby budget whose candidates differ slightly
+    private static List<Long> merge(List<Long> remote, List<Long> local, int limit) {
+        Set<Long> candidates = new HashSet<>(local);
+        Set<Long> merged = new LinkedHashSet<>();
+        for (Long id : remote) {
+            if (merged.size() < limit && candidates.contains(id)) {
+                merged.add(id);
+            }
+        }
+        for (Long id : local) {
+            if (merged.size() >= limit) {
+                break;
+            }
+            merged.add(id);
+        }
+        return new ArrayList<>(merged);
+    }
+
+    private List<PropertyResponse> toResponses(List<Long> ids) {
+        return propertyResponseAssembler.toResponses(loadInOrder(ids), null);
+    }
+
+    private List<Long> rank(String location, double budget, PropertyType propertyType,
+                            ListingType listingType, Integer bedrooms, int limit) {
+        if (propertyIndexCoordinator.isReady()) {
+            return propertyRecommendationIndex.recommend(location, budget, propertyType, listingType, bedrooms, limit);
+        }
+        PropertyRecommendationIndex candidates = new PropertyRecommendationIndex();
+        for (Property property : loadCandidates(location, listingType)) {
+            candidates.index(property);
+        }
+        return candidates.recommend(location, budget, propertyType, listingType, bedrooms, limit);
+    }
+
+    private List<Property> loadCandidates(String location, ListingType listingType) {
+        String[] parts = location.split(",", 2);
+        PropertySearchRequest byCity = PropertySearchRequest.builder()
+                .city(parts[0].trim())
+                .state(parts.length > 1 ? parts[1].trim() : null)
+                .listingType(listingType)
+                .build();
+        List<Property> candidates = propertyRepository.findAll(matchesSearch(byCity),
+                PageRequest.of(0, FALLBACK_CANDIDATES)).getContent();
+        if (candidates.isEmpty() && parts.length == 1) {
+            // A single name may be a state
+            PropertySearchRequest byState = PropertySearchRequest.builder()
+                    .state(parts[0].trim())
+                    .listingType(listingType)
+                    .build();
+            candidates = propertyRepository.findAll(matchesSearch(byState),
+                    PageRequest.of(0, FALLBACK_CANDIDATES)).getContent();
+        }
+        return candidates;
+    }
+
+    private List<Property> loadInOrder(List<Long> ids) {
+        Map<Long, Property> byId = propertyRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Property::getId, Function.identity()));
+        List<Property> properties = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Property property = byId.get(id);
+            if (property != null) {
+                properties.add(property);
+            }
+        }
+        return properties;
+    }
+}
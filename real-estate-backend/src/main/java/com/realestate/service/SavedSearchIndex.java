@@ -0,0 +1,423 @@
+package com.realestate.service;
+
+import com.realestate.event.PropertyChangeEvent;
+import com.realestate.model.ListingType;
+import com.realestate.model.NotificationType;
+import com.realestate.model.Property;
+import com.realestate.model.PropertyType;
+import com.realestate.model.SavedSearch;
+import com.realestate.repository.SavedSearchRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongConsumer;
+
+/**
+ * Saved searches indexed as predicates, so each new or updated listing is matched against all
+ * of them without running any query. Each search is filed under one anchor, its most selective
+ * criterion: a city bucket if it names a city, otherwise an interval tree over its price,
+ * square feet or bedroom range, otherwise a property type bucket. City and state are prefix
+ * matches as in PropertySpecifications.matchesSearch, so a listing looks up the city bucket of
+ * every prefix of its city key, then its type bucket, and stabs the three trees with its
+ * values; only the searches found there are checked against their remaining criteria. The cost follows the searches whose
+ * anchor the listing satisfies, not the number of saved searches.
+ * <p>
+ * Every search needs an indexable criterion; SavedSearchService enforces that. Matches of
+ * available listings are queued as notifications once the property write commits. Listings
+ * written before the startup load finishes are not matched.
+ */
+@Component
+public class SavedSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(SavedSearchIndex.class);
+    private static final int BOOTSTRAP_BATCH_SIZE = 500;
+    private static final int MAX_MESSAGE_LENGTH = 500;
+
+    // In order of preference: cities are many and small, property types few and large
+    private enum Anchor {
+        CITY, PRICE, SQUARE_FEET, BEDROOMS, PROPERTY_TYPE
+    }
+
+    // Ranges are closed [min, max] bounds; null when the search doesn't constrain them
+    private record Criteria(long id, long userId, String name, Anchor anchor,
+                            String cityKey, String stateKey, PropertyType propertyType, ListingType listingType,
+                            long[] price, long[] bedrooms, long[] bathrooms, long[] squareFeet) {
+
+        boolean accepts(Property property, Long price, Long squareFeet) {
+            return startsWith(property.getCityKey(), cityKey)
+                    && startsWith(property.getStateKey(), stateKey)
+                    && (propertyType == null || propertyType == property.getPropertyType())
+                    && (listingType == null || listingType == property.getListingType())
+                    && within(this.price, price)
+                    && within(bedrooms, property.getBedrooms() != null ? property.getBedrooms().longValue() : null)
+                    && within(bathrooms, property.getBathrooms() != null ? property.getBathrooms().longValue() : null)
+                    && within(this.squareFeet, squareFeet);
+        }
+
+        private static boolean startsWith(String key, String prefix) {
+            return prefix == null || key != null && key.startsWith(prefix);
+        }
+
+        private static boolean within(long[] range, Long value) {
+            return range == null || value != null && value >= range[0] && value <= range[1];
+        }
+    }
+
+    /**
+     * A saved search that matched a listing.
+     */
+    public record Match(Long savedSearchId, Long userId, String name) {
+    }
+
+    @Autowired
+    private SavedSearchRepository savedSearchRepository;
+
+    @Autowired
+    private NotificationQueue notificationQueue;
+
+    private final Map<Long, Criteria> searches = new HashMap<>();
+    private final Map<String, Set<Long>> byCity = new HashMap<>();
+    private final Map<PropertyType, Set<Long>> byType = new EnumMap<>(PropertyType.class);
+    private final IntervalTree byPrice = new IntervalTree();
+    private final IntervalTree byBedrooms = new IntervalTree();
+    private final IntervalTree bySquareFeet = new IntervalTree();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile boolean ready = false;
+
+    // Searches saved or deleted, and users deleted, while the startup load is running; their loaded rows may be stale
+    private final Set<Long> touchedDuringBootstrap = ConcurrentHashMap.newKeySet();
+    private final Set<Long> usersTouchedDuringBootstrap = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock bootstrapLock = new ReentrantLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        long lastId = 0L;
+        int loaded = 0;
+        try {
+            List<SavedSearch> batch;
+            do {
+                batch = savedSearchRepository.findBatchAfterId(lastId, PageRequest.of(0, BOOTSTRAP_BATCH_SIZE));
+                for (SavedSearch search : batch) {
+                    if (!touchedDuringBootstrap.contains(search.getId())) {
+                        add(search);
+                    }
+                    lastId = search.getId();
+                }
+                loaded += batch.size();
+            } while (batch.size() == BOOTSTRAP_BATCH_SIZE);
+            finishBootstrap();
+        } catch (Exception e) {
+            logger.error("Failed to load saved searches; listings will not be matched: {}", e.getMessage(), e);
+            return;
+        }
+        touchedDuringBootstrap.clear();
+        usersTouchedDuringBootstrap.clear();
+        logger.info("Loaded {} saved searches", loaded);
+    }
+
+    /**
+     * A change can land between the touched check in bootstrap() and the adding of its stale row,
+     * so every search and user written during the load is read again. Changes wait for this, so
+     * the last write wins.
+     */
+    private void finishBootstrap() {
+        bootstrapLock.lock();
+        try {
+            Map<Long, SavedSearch> current = new HashMap<>();
+            savedSearchRepository.findAllById(touchedDuringBootstrap).forEach(search -> current.put(search.getId(), search));
+            for (Long searchId : touchedDuringBootstrap) {
+                SavedSearch search = current.get(searchId);
+                if (search != null) {
+                    add(search);
+                } else {
+                    remove(searchId);
+                }
+            }
+            for (Long userId : usersTouchedDuringBootstrap) {
+                removeUser(userId);
+                savedSearchRepository.findByUserIdOrderByCreatedAtDesc(userId).forEach(this::add);
+            }
+            ready = true;
+        } finally {
+            bootstrapLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPropertyChange(PropertyChangeEvent event) {
+        if (!ready || event.getType() == PropertyChangeEvent.Type.DELETED) {
+            return;
+        }
+        Property property = event.getProperty();
+        for (Match match : match(property)) {
+            notificationQueue.enqueue(match.userId(), NotificationType.SAVED_SEARCH_MATCH, property.getId(),
+                    match.savedSearchId(), message(match, property));
+        }
+    }
+
+    /**
+     * The saved searches an available listing satisfies, leaving out its owner's own.
+     */
+    public List<Match> match(Property property) {
+        if (!Boolean.TRUE.equals(property.getAvailable())) {
+            return List.of();
+        }
+        Long ownerId = property.getOwner() != null ? property.getOwner().getId() : null;
+        Long price = property.getPrice() != null ? hundredths(property.getPrice(), RoundingMode.FLOOR) : null;
+        Long squareFeet = property.getSquareFeet() != null
+                ? hundredths(property.getSquareFeet(), RoundingMode.FLOOR) : null;
+        List<Match> matches = new ArrayList<>();
+        LongConsumer candidate = id -> {
+            Criteria criteria = searches.get(id);
+            if (criteria != null && criteria.accepts(property, price, squareFeet)
+                    && !Long.valueOf(criteria.userId()).equals(ownerId)) {
+                matches.add(new Match(criteria.id(), criteria.userId(), criteria.name()));
+            }
+        };
+
+        lock.readLock().lock();
+        try {
+            String cityKey = property.getCityKey();
+            if (cityKey != null) {
+                for (int length = 1; length <= cityKey.length(); length++) {
+                    byCity.getOrDefault(cityKey.substring(0, length), Set.of()).forEach(candidate::accept);
+                }
+            }
+            if (price != null) {
+                byPrice.stab(price, candidate);
+            }
+            if (squareFeet != null) {
+                bySquareFeet.stab(squareFeet, candidate);
+            }
+            if (property.getBedrooms() != null) {
+                byBedrooms.stab(property.getBedrooms(), candidate);
+            }
+            if (property.getPropertyType() != null) {
+                byType.getOrDefault(property.getPropertyType(), Set.of()).forEach(candidate::accept);
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return searches.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Index the saved search once the current transaction commits.
+     */
+    public void addAfterCommit(SavedSearch search) {
+        afterCommit(search.getId(), null, () -> add(search));
+    }
+
+    /**
+     * Drop the saved search once the current transaction commits.
+     */
+    public void removeAfterCommit(Long searchId) {
+        afterCommit(searchId, null, () -> remove(searchId));
+    }
+
+    /**
+     * Drop every saved search of the user once the current transaction commits.
+     */
+    public void removeUserAfterCommit(Long userId) {
+        afterCommit(null, userId, () -> removeUser(userId));
+    }
+
+    private void afterCommit(Long searchId, Long userId, Runnable change) {
+        if (!ready) {
+            if (searchId != null) {
+                touchedDuringBootstrap.add(searchId);
+            }
+            if (userId != null) {
+                usersTouchedDuringBootstrap.add(userId);
+            }
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(change);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(change);
+            }
+        });
+    }
+
+    // While the load is finishing, changes wait until the touched rows have been read again
+    private void apply(Runnable change) {
+        if (ready) {
+            change.run();
+            return;
+        }
+        bootstrapLock.lock();
+        try {
+            change.run();
+        } finally {
+            bootstrapLock.unlock();
+        }
+    }
+
+    private void removeUser(Long userId) {
+        lock.writeLock().lock();
+        try {
+            new ArrayList<>(searches.values()).stream()
+                    .filter(criteria -> criteria.userId() == userId)
+                    .forEach(criteria -> removeLocked(criteria.id()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void add(SavedSearch search) {
+        Criteria criteria = compile(search);
+        lock.writeLock().lock();
+        try {
+            removeLocked(criteria.id());
+            if (criteria.anchor() == null) {
+                logger.warn("Saved search {} has no indexable criteria and will never match", criteria.id());
+                return;
+            }
+            searches.put(criteria.id(), criteria);
+            switch (criteria.anchor()) {
+                case CITY -> byCity.computeIfAbsent(criteria.cityKey(), k -> new HashSet<>()).add(criteria.id());
+                case PROPERTY_TYPE -> byType.computeIfAbsent(criteria.propertyType(), k -> new HashSet<>()).add(criteria.id());
+                default -> addRange(tree(criteria.anchor()), range(criteria), criteria.id());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void remove(Long searchId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(searchId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeLocked(long searchId) {
+        Criteria criteria = searches.remove(searchId);
+        if (criteria == null) {
+            return;
+        }
+        switch (criteria.anchor()) {
+            case CITY -> removeFromBucket(byCity, criteria.cityKey(), searchId);
+            case PROPERTY_TYPE -> removeFromBucket(byType, criteria.propertyType(), searchId);
+            default -> tree(criteria.anchor()).remove(range(criteria)[0], searchId);
+        }
+    }
+
+    private IntervalTree tree(Anchor anchor) {
+        return switch (anchor) {
+            case PRICE -> byPrice;
+            case SQUARE_FEET -> bySquareFeet;
+            case BEDROOMS -> byBedrooms;
+            default -> throw new IllegalArgumentException("Not a range anchor: " + anchor);
+        };
+    }
+
+    private static long[] range(Criteria criteria) {
+        return switch (criteria.anchor()) {
+            case PRICE -> criteria.price();
+            case SQUARE_FEET -> criteria.squareFeet();
+            case BEDROOMS -> criteria.bedrooms();
+            default -> throw new IllegalArgumentException("Not a range anchor: " + criteria.anchor());
+        };
+    }
+
+    private static <K> void removeFromBucket(Map<K, Set<Long>> buckets, K key, long searchId) {
+        Set<Long> bucket = buckets.get(key);
+        if (bucket != null && bucket.remove(searchId) && bucket.isEmpty()) {
+            buckets.remove(key);
+        }
+    }
+
+    // An empty range, such as a minimum price above the maximum, is left out and never matches
+    private static void addRange(IntervalTree tree, long[] range, long searchId) {
+        if (range[0] <= range[1]) {
+            tree.add(range[0], range[1], searchId);
+        }
+    }
+
+    private static Criteria compile(SavedSearch search) {
+        String cityKey = prefixKey(search.getSearchCity());
+        long[] price = range(search.getMinPrice(), search.getMaxPrice());
+        long[] bedrooms = range(search.getMinBedrooms(), search.getMaxBedrooms());
+        long[] bathrooms = range(search.getMinBathrooms(), search.getMaxBathrooms());
+        long[] squareFeet = range(search.getMinSquareFeet(), search.getMaxSquareFeet());
+        Anchor anchor = cityKey != null ? Anchor.CITY
+                : price != null ? Anchor.PRICE
+                : squareFeet != null ? Anchor.SQUARE_FEET
+                : bedrooms != null ? Anchor.BEDROOMS
+                : search.getSearchPropertyType() != null ? Anchor.PROPERTY_TYPE
+                : null;
+        return new Criteria(search.getId(), search.getUser().getId(), search.getName(), anchor,
+                cityKey, prefixKey(search.getSearchState()), search.getSearchPropertyType(),
+                search.getSearchListingType(), price, bedrooms, bathrooms, squareFeet);
+    }
+
+    // As in PropertySpecifications: a name without letters or digits doesn't constrain the search
+    private static String prefixKey(String value) {
+        String key = Property.locationKey(value);
+        return key != null && !key.isEmpty() ? key : null;
+    }
+
+    private static long[] range(BigDecimal min, BigDecimal max) {
+        if (min == null && max == null) {
+            return null;
+        }
+        return new long[]{
+                min != null ? hundredths(min, RoundingMode.CEILING) : Long.MIN_VALUE,
+                max != null ? hundredths(max, RoundingMode.FLOOR) : Long.MAX_VALUE};
+    }
+
+    private static long[] range(Integer min, Integer max) {
+        if (min == null && max == null) {
+            return null;
+        }
+        return new long[]{min != null ? min : Long.MIN_VALUE, max != null ? max : Long.MAX_VALUE};
+    }
+
+    // Prices and areas as whole hundredths, so the trees compare longs
+    private static long hundredths(BigDecimal value, RoundingMode rounding) {
+        return value.movePointRight(2).setScale(0, rounding).longValue();
+    }
+
+    private static String message(Match match, Property property) {
+        String message = "New listing for your saved search \"" + match.name() + "\": "
+                + property.getTitle() + " in " + property.getCity();
+        return message.length() > MAX_MESSAGE_LENGTH ? message.substring(0, MAX_MESSAGE_LENGTH) : message;
+    }
+}
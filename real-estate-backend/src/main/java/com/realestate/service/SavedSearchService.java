@@ -0,0 +1,156 @@
+package com.realestate.service;
+
+import com.realestate.dto.PropertySearchRequest;
+import com.realestate.exception.ResourceNotFoundException;
+import com.realestate.model.SavedSearch;
+import com.realestate.model.SearchHistory;
+import com.realestate.model.User;
+import com.realestate.repository.SavedSearchRepository;
+import com.realestate.repository.SearchHistoryRepository;
+import com.realestate.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+@Transactional
+public class SavedSearchService {
+
+    @Autowired
+    private SavedSearchRepository savedSearchRepository;
+
+    @Autowired
+    private SearchHistoryRepository searchHistoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SavedSearchIndex savedSearchIndex;
+
+    @Value("${saved-searches.max-per-user:50}")
+    private int maxPerUser;
+
+    /**
+     * Save the structured criteria of a search. Keyword and geo criteria can't be matched
+     * against single listings and are rejected.
+     */
+    public SavedSearch createSavedSearch(Long userId, String name, PropertySearchRequest request) {
+        if (hasText(request.getKeyword()) || hasText(request.getZipCode())
+                || request.getMinYearBuilt() != null || request.getMaxYearBuilt() != null
+                || request.getLatitude() != null || request.getLongitude() != null
+                || request.getMinLatitude() != null || request.getMaxLatitude() != null
+                || request.getMinLongitude() != null || request.getMaxLongitude() != null) {
+            throw new IllegalArgumentException("Saved searches support city, state, property and listing type, "
+                    + "and price, bedroom, bathroom and square feet ranges");
+        }
+        SavedSearch search = new SavedSearch();
+        search.setSearchCity(trimToNull(request.getCity()));
+        search.setSearchState(trimToNull(request.getState()));
+        search.setSearchPropertyType(request.getPropertyType());
+        search.setSearchListingType(request.getListingType());
+        search.setMinPrice(request.getMinPrice());
+        search.setMaxPrice(request.getMaxPrice());
+        search.setMinBedrooms(request.getMinBedrooms());
+        search.setMaxBedrooms(request.getMaxBedrooms());
+        search.setMinBathrooms(request.getMinBathrooms());
+        search.setMaxBathrooms(request.getMaxBathrooms());
+        search.setMinSquareFeet(request.getMinSquareFeet());
+        search.setMaxSquareFeet(request.getMaxSquareFeet());
+        return save(userId, name, search);
+    }
+
+    /**
+     * Save a search the user has already run, from their search history.
+     */
+    public SavedSearch createFromHistory(Long historyId, String name) {
+        SearchHistory history = searchHistoryRepository.findById(historyId)
+                .orElseThrow(() -> new ResourceNotFoundException("SearchHistory", "id", historyId));
+        SavedSearch search = new SavedSearch();
+        search.setSearchCity(trimToNull(history.getSearchCity()));
+        search.setSearchState(trimToNull(history.getSearchState()));
+        search.setSearchPropertyType(history.getSearchPropertyType());
+        search.setSearchListingType(history.getSearchListingType());
+        search.setMinPrice(history.getMinPrice());
+        search.setMaxPrice(history.getMaxPrice());
+        search.setMinBedrooms(history.getMinBedrooms());
+        search.setMaxBedrooms(history.getMaxBedrooms());
+        search.setMinBathrooms(history.getMinBathrooms());
+        search.setMaxBathrooms(history.getMaxBathrooms());
+        search.setMinSquareFeet(history.getMinSquareFeet());
+        search.setMaxSquareFeet(history.getMaxSquareFeet());
+        return save(history.getUser().getId(), name, search);
+    }
+
+    @Transactional(readOnly = true)
+    public List<SavedSearch> getUserSavedSearches(Long userId) {
+        return savedSearchRepository.findByUserIdOrderByCreatedAtDesc(userId);
+    }
+
+    public void deleteSavedSearch(Long id) {
+        if (!savedSearchRepository.existsById(id)) {
+            throw new ResourceNotFoundException("SavedSearch", "id", id);
+        }
+        savedSearchRepository.deleteById(id);
+        savedSearchIndex.removeAfterCommit(id);
+    }
+
+    private SavedSearch save(Long userId, String name, SavedSearch search) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
+        if (savedSearchRepository.countByUserId(userId) >= maxPerUser) {
+            throw new IllegalArgumentException("A user can keep at most " + maxPerUser + " saved searches");
+        }
+        // Matching is driven by the indexed criteria; anything narrower alone would scan every search
+        if (search.getSearchCity() == null && search.getSearchPropertyType() == null
+                && search.getMinPrice() == null && search.getMaxPrice() == null
+                && search.getMinBedrooms() == null && search.getMaxBedrooms() == null
+                && search.getMinSquareFeet() == null && search.getMaxSquareFeet() == null) {
+            throw new IllegalArgumentException("A saved search needs a city, a property type, "
+                    + "or a price, bedroom or square feet range");
+        }
+        checkRange("price", search.getMinPrice(), search.getMaxPrice());
+        checkRange("bedrooms", search.getMinBedrooms(), search.getMaxBedrooms());
+        checkRange("bathrooms", search.getMinBathrooms(), search.getMaxBathrooms());
+        checkRange("square feet", search.getMinSquareFeet(), search.getMaxSquareFeet());
+
+        search.setUser(user);
+        search.setName(hasText(name) ? truncate(name.trim()) : defaultName(search));
+        SavedSearch saved = savedSearchRepository.save(search);
+        savedSearchIndex.addAfterCommit(saved);
+        return saved;
+    }
+
+    private static <T extends Comparable<T>> void checkRange(String field, T min, T max) {
+        if (min != null && max != null && min.compareTo(max) > 0) {
+            throw new IllegalArgumentException("Minimum " + field + " is above the maximum");
+        }
+    }
+
+    private static String defaultName(SavedSearch search) {
+        StringBuilder name = new StringBuilder(search.getSearchPropertyType() != null
+                ? search.getSearchPropertyType().name() : "Listings");
+        if (search.getSearchCity() != null) {
+            name.append(" in ").append(search.getSearchCity());
+        }
+        if (search.getMaxPrice() != null) {
+            name.append(" up to ").append(search.getMaxPrice().stripTrailingZeros().toPlainString());
+        }
+        return truncate(name.toString());
+    }
+
+    private static String truncate(String name) {
+        return name.length() > 100 ? name.substring(0, 100) : name;
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    private static String trimToNull(String value) {
+        return hasText(value) ? value.trim() : null;
+    }
+}
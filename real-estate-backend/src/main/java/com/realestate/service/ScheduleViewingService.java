@@ -2,6 +2,7 @@ package com.realestate.service;
 
 import com.realestate.dto.PageResponse;
 import com.realestate.dto.ScheduleViewingRequest;
+import com.realestate.event.PropertyEngagementEvent;
 import com.realestate.exception.ResourceNotFoundException;
 import com.realestate.model.Property;
 import com.realestate.model.ScheduleViewing;
@@ -11,6 +12,7 @@ import com.realestate.repository.PropertyRepository;
 import com.realestate.repository.ScheduleViewingRepository;
 import com.realestate.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -36,6 +38,9 @@ public class ScheduleViewingService {
     @Autowired
     private PropertyRepository propertyRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public ScheduleViewing scheduleViewing(ScheduleViewingRequest request) {
         User user = userRepository.findById(request.getUserId())
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", request.getUserId()));
@@ -66,7 +71,9 @@ public class ScheduleViewingService {
         viewing.setNotes(request.getNotes());
         viewing.setStatus(ViewingStatus.PENDING);
 
-        return scheduleViewingRepository.save(viewing);
+        ScheduleViewing saved = scheduleViewingRepository.save(viewing);
+        eventPublisher.publishEvent(PropertyEngagementEvent.viewingRequested(user.getId(), property.getId()));
+        return saved;
     }
 
     public Optional<ScheduleViewing> getViewingById(Long id) {
@@ -0,0 +1,269 @@
+package com.realestate.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Path-compressed prefix trie from keys to weighted values. Every node keeps the highest
+ * weight found in its subtree, so the top k completions of a prefix come out of a best-first
+ * walk that only expands nodes able to beat what is already queued, instead of collecting
+ * every completion and sorting. A key may hold several values, e.g. a city and a state.
+ * Not thread-safe; owners guard instances with their own locks.
+ */
+public final class SuggestionTrie<V> {
+
+    private static final Node<?>[] NO_CHILDREN = new Node<?>[0];
+
+    private static final class Node<V> {
+        String label;
+        Node<V>[] children;  // sorted by the first character of their labels
+        List<Slot<V>> slots;  // values stored under the key ending here; null when none
+        long maxWeight;
+
+        @SuppressWarnings("unchecked")
+        Node(String label) {
+            this.label = label;
+            this.children = (Node<V>[]) NO_CHILDREN;
+        }
+    }
+
+    private record Slot<V>(V value, long weight) {
+    }
+
+    private final Node<V> root = new Node<>("");
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Store the value under the key with the given weight, replacing an equal value already
+     * stored there. A weight of zero or less removes the value instead.
+     */
+    public void put(String key, V value, long weight) {
+        if (weight <= 0) {
+            remove(key, value);
+            return;
+        }
+        List<Node<V>> path = new ArrayList<>();
+        Node<V> node = root;
+        int depth = 0;
+        path.add(node);
+        while (depth < key.length()) {
+            int index = childIndex(node, key.charAt(depth));
+            if (index < 0) {
+                Node<V> leaf = new Node<>(key.substring(depth));
+                insertChild(node, -index - 1, leaf);
+                node = leaf;
+                depth = key.length();
+            } else {
+                Node<V> child = node.children[index];
+                int common = commonPrefix(child.label, key, depth);
+                if (common < child.label.length()) {
+                    child = split(node, index, common);
+                }
+                node = child;
+                depth += common;
+            }
+            path.add(node);
+        }
+
+        if (node.slots == null) {
+            node.slots = new ArrayList<>(1);
+        }
+        boolean replaced = node.slots.removeIf(slot -> slot.value().equals(value));
+        node.slots.add(new Slot<>(value, weight));
+        if (!replaced) {
+            size++;
+        }
+        refreshWeights(path);
+    }
+
+    public void remove(String key, V value) {
+        List<Node<V>> path = find(key);
+        if (path == null) {
+            return;
+        }
+        Node<V> node = path.get(path.size() - 1);
+        if (node.slots == null || !node.slots.removeIf(slot -> slot.value().equals(value))) {
+            return;
+        }
+        size--;
+        if (node.slots.isEmpty()) {
+            node.slots = null;
+        }
+        prune(path);
+        refreshWeights(path);
+    }
+
+    /**
+     * Up to {@code limit} values whose keys start with the prefix, heaviest first.
+     */
+    public List<V> top(String prefix, int limit) {
+        List<V> result = new ArrayList<>(Math.max(0, limit));
+        Node<V> start = descend(prefix);
+        if (start == null || limit <= 0) {
+            return result;
+        }
+        // Queue holds unexpanded nodes (ranked by subtree maximum) and ready values (by weight)
+        PriorityQueue<Object[]> queue = new PriorityQueue<>((a, b) -> Long.compare((long) b[1], (long) a[1]));
+        queue.add(new Object[]{start, start.maxWeight});
+        while (!queue.isEmpty() && result.size() < limit) {
+            Object[] head = queue.poll();
+            if (head[0] instanceof Node<?>) {
+                @SuppressWarnings("unchecked")
+                Node<V> node = (Node<V>) head[0];
+                if (node.slots != null) {
+                    for (Slot<V> slot : node.slots) {
+                        queue.add(new Object[]{slot, slot.weight()});
+                    }
+                }
+                for (Node<V> child : node.children) {
+                    queue.add(new Object[]{child, child.maxWeight});
+                }
+            } else {
+                @SuppressWarnings("unchecked")
+                Slot<V> slot = (Slot<V>) head[0];
+                result.add(slot.value());
+            }
+        }
+        return result;
+    }
+
+    // The node whose subtree holds every key starting with the prefix
+    private Node<V> descend(String prefix) {
+        Node<V> node = root;
+        int depth = 0;
+        while (depth < prefix.length()) {
+            int index = childIndex(node, prefix.charAt(depth));
+            if (index < 0) {
+                return null;
+            }
+            Node<V> child = node.children[index];
+            int common = commonPrefix(child.label, prefix, depth);
+            if (depth + common == prefix.length()) {
+                return child;
+            }
+            if (common < child.label.length()) {
+                return null;
+            }
+            node = child;
+            depth += common;
+        }
+        return node;
+    }
+
+    // Root-to-node path for an exact key, or null when the key is not present
+    private List<Node<V>> find(String key) {
+        List<Node<V>> path = new ArrayList<>();
+        Node<V> node = root;
+        int depth = 0;
+        path.add(node);
+        while (depth < key.length()) {
+            int index = childIndex(node, key.charAt(depth));
+            if (index < 0) {
+                return null;
+            }
+            node = node.children[index];
+            if (!key.startsWith(node.label, depth)) {
+                return null;
+            }
+            depth += node.label.length();
+            path.add(node);
+        }
+        return path;
+    }
+
+    private Node<V> split(Node<V> parent, int index, int at) {
+        Node<V> child = parent.children[index];
+        Node<V> middle = new Node<>(child.label.substring(0, at));
+        child.label = child.label.substring(at);
+        middle.children = Arrays.copyOf(parent.children, 1);
+        middle.children[0] = child;
+        middle.maxWeight = child.maxWeight;
+        parent.children[index] = middle;
+        return middle;
+    }
+
+    // Drop empty leaves and fold single-child pass-through nodes into their child
+    private void prune(List<Node<V>> path) {
+        for (int i = path.size() - 1; i > 0; i--) {
+            Node<V> node = path.get(i);
+            Node<V> parent = path.get(i - 1);
+            if (node.slots != null) {
+                return;
+            }
+            if (node.children.length == 0) {
+                removeChild(parent, node);
+                path.remove(i);
+            } else if (node.children.length == 1) {
+                Node<V> only = node.children[0];
+                only.label = node.label + only.label;
+                parent.children[childIndex(parent, only.label.charAt(0))] = only;
+                path.set(i, only);
+                return;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private static <V> void refreshWeights(List<Node<V>> path) {
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node<V> node = path.get(i);
+            long max = 0;
+            if (node.slots != null) {
+                for (Slot<V> slot : node.slots) {
+                    max = Math.max(max, slot.weight());
+                }
+            }
+            for (Node<V> child : node.children) {
+                max = Math.max(max, child.maxWeight);
+            }
+            node.maxWeight = max;
+        }
+    }
+
+    private static <V> int childIndex(Node<V> node, char first) {
+        int low = 0;
+        int high = node.children.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char c = node.children[mid].label.charAt(0);
+            if (c < first) {
+                low = mid + 1;
+            } else if (c > first) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private static <V> void insertChild(Node<V> node, int at, Node<V> child) {
+        Node<V>[] children = Arrays.copyOf(node.children, node.children.length + 1);
+        System.arraycopy(children, at, children, at + 1, node.children.length - at);
+        children[at] = child;
+        node.children = children;
+    }
+
+    private static <V> void removeChild(Node<V> node, Node<V> child) {
+        int at = childIndex(node, child.label.charAt(0));
+        Node<V>[] children = Arrays.copyOf(node.children, node.children.length - 1);
+        System.arraycopy(node.children, at + 1, children, at, node.children.length - at - 1);
+        node.children = children;
+    }
+
+    private static int commonPrefix(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+}
@@ -0,0 +1,99 @@
+package com.realestate.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Turns free text into index terms: accent folding, lower-casing,
+ * splitting on non-alphanumerics, stop word removal and light English stemming.
+ * Index and query text must go through the same analysis so terms line up.
+ */
+public final class TextAnalyzer {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{Alnum}]+");
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in",
+            "is", "it", "of", "on", "or", "the", "this", "to", "with"
+    );
+
+    private TextAnalyzer() {
+    }
+
+    /**
+     * Strip diacritics and lower-case, e.g. "Zürich Café" becomes "zurich cafe".
+     */
+    public static String fold(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Folded tokens without stop word removal or stemming.
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : NON_ALPHANUMERIC.split(fold(text))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Folded, stemmed tokens with stop words removed.
+     */
+    public static List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        for (String token : tokenize(text)) {
+            if (!STOP_WORDS.contains(token)) {
+                terms.add(stem(token));
+            }
+        }
+        return terms;
+    }
+
+    public static boolean isStopWord(String token) {
+        return STOP_WORDS.contains(token);
+    }
+
+    /**
+     * Conservative suffix stripping: plurals plus -ing/-ed on longer words.
+     * Over-stemming hurts precision more than the occasional missed variant.
+     */
+    public static String stem(String token) {
+        int len = token.length();
+        if (len > 5 && token.endsWith("ing")) {
+            return token.substring(0, len - 3);
+        }
+        if (len > 4 && token.endsWith("ed") && !token.endsWith("eed")) {
+            return token.substring(0, len - 2);
+        }
+        if (len < 3 || token.charAt(len - 1) != 's') {
+            return token;
+        }
+        char beforeS = token.charAt(len - 2);
+        if (beforeS == 'u' || beforeS == 's') {
+            return token;
+        }
+        if (beforeS == 'e' && len > 3) {
+            char c = token.charAt(len - 3);
+            if (c == 'i' && len > 4 && token.charAt(len - 4) != 'a' && token.charAt(len - 4) != 'e') {
+                return token.substring(0, len - 3) + "y";
+            }
+            if (c == 'i' || c == 'a' || c == 'o' || c == 'e') {
+                return token;
+            }
+        }
+        return token.substring(0, len - 1);
+    }
+}
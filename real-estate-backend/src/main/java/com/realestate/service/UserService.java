@@ -7,6 +7,7 @@ import com.realestate.model.Role;
 import com.realestate.model.User;
 import com.realestate.model.UserType;
 import com.realestate.model.SubscriptionType;
+import com.realestate.repository.NotificationRepository;
 import com.realestate.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -27,6 +28,15 @@ public class UserService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private PropertyETags propertyETags;
+    
+    @Autowired
+    private NotificationRepository notificationRepository;
+    
+    @Autowired
+    private SavedSearchIndex savedSearchIndex;
+    
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
@@ -79,6 +89,8 @@ public class UserService {
         }
         
         mapRequestToUser(userRequest, user);
+        // Owner details are embedded in property listings
+        propertyETags.advanceAfterCommit();
         return userRepository.save(user);
     }
     
@@ -86,7 +98,9 @@ public class UserService {
         if (!userRepository.existsById(id)) {
             throw new RuntimeException("User not found with id: " + id);
         }
+        notificationRepository.deleteByUserId(id);
         userRepository.deleteById(id);
+        savedSearchIndex.removeUserAfterCommit(id);
     }
     
     public User activateUser(Long id) {